@@ -4,6 +4,7 @@ import static org.springframework.http.HttpMethod.POST;
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
 import static org.springframework.http.HttpStatus.NO_CONTENT;
+import static org.springframework.http.HttpStatus.OK;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.test.context.jdbc.Sql;
@@ -24,6 +25,7 @@ import se.sundsvall.jsonschema.Application;
 class JsonSchemaValidationIT extends AbstractAppTest {
 
 	private static final String PATH = "/%s/schemas/%s/validation";
+	private static final String BATCH_PATH = "/%s/schemas/%s/validation/batch";
 	private static final String REQUEST_FILE = "request.json";
 	private static final String RESPONSE_FILE = "response.json";
 	private static final String MUNICIPALITY_ID = "2281";
@@ -71,4 +73,15 @@ class JsonSchemaValidationIT extends AbstractAppTest {
 			.withExpectedResponseStatus(NOT_FOUND)
 			.sendRequestAndVerifyResponse();
 	}
+
+	@Test
+	void test05_validateBatch() {
+		setupCall()
+			.withServicePath(BATCH_PATH.formatted(MUNICIPALITY_ID, SCHEMA_ID))
+			.withHttpMethod(POST)
+			.withRequest(REQUEST_FILE)
+			.withExpectedResponse(RESPONSE_FILE)
+			.withExpectedResponseStatus(OK)
+			.sendRequestAndVerifyResponse();
+	}
 }
@@ -2,12 +2,12 @@ package se.sundsvall.jsonschema;
 
 import static org.springframework.boot.SpringApplication.run;
 
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import se.sundsvall.dept44.ServiceApplication;
 import se.sundsvall.dept44.util.jacoco.ExcludeFromJacocoGeneratedCoverageReport;
 
 @ServiceApplication
-@EnableCaching
+@EnableScheduling
 @ExcludeFromJacocoGeneratedCoverageReport
 public class Application {
 	public static void main(final String... args) {
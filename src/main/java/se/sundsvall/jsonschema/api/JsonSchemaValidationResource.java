@@ -2,29 +2,36 @@ package se.sundsvall.jsonschema.api;
 
 import static org.springframework.http.MediaType.ALL_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_PROBLEM_JSON_VALUE;
 import static org.springframework.http.ResponseEntity.noContent;
-import static se.sundsvall.jsonschema.service.mapper.JsonMapper.toJsonString;
+import static org.springframework.http.ResponseEntity.ok;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
+import java.io.InputStream;
+import java.util.List;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.zalando.problem.Problem;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import se.sundsvall.dept44.common.validators.annotation.ValidMunicipalityId;
+import se.sundsvall.jsonschema.api.model.OutputMode;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
 import se.sundsvall.jsonschema.service.JsonSchemaValidationService;
 
 @RestController
@@ -44,17 +51,60 @@ class JsonSchemaValidationResource {
 	}
 
 	@PostMapping(path = "/{id}/validation", consumes = APPLICATION_JSON_VALUE, produces = ALL_VALUE)
-	@Operation(operationId = "validateJson", summary = "Validate a JSON structure against the specified schema", responses = {
-		@ApiResponse(responseCode = "204", description = "No content - JSON is valid according to the schema", useReturnTypeSchema = true),
-		@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
-	})
+	@Operation(operationId = "validateJson", summary = "Validate a JSON structure against the specified schema",
+		requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, content = @Content(mediaType = APPLICATION_JSON_VALUE, schema = @Schema(implementation = JsonNode.class))),
+		responses = {
+			@ApiResponse(responseCode = "204", description = "No content - JSON is valid according to the schema", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "413", description = "Payload Too Large", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
 	public ResponseEntity<Void> validateJson(
 		@Parameter(name = "municipalityId", description = "Municipality ID", example = "2281") @ValidMunicipalityId @PathVariable String municipalityId,
 		@Parameter(name = "id", description = "Schema ID", example = "2281_person_1.0") @PathVariable @NotBlank final String id,
-		@NotNull @RequestBody JsonNode json) {
+		@Parameter(name = "output", description = "Level of detail of the validation outcome", example = "FULL") @RequestParam(name = "output", defaultValue = "FULL") final OutputMode output,
+		@Parameter(hidden = true) final InputStream body) {
 
-		jsonSchemaValidationService.validateAndThrow(toJsonString(json), id);
+		jsonSchemaValidationService.validateAndThrow(municipalityId, body, id, output);
 
 		return noContent().build();
 	}
+
+	@PostMapping(path = "/{id}/validation/batch", consumes = APPLICATION_JSON_VALUE, produces = APPLICATION_JSON_VALUE)
+	@Operation(operationId = "validateJsonBatch", summary = "Validate a batch of JSON structures against the specified schema",
+		requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+			content = @Content(mediaType = APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = JsonNode.class)))),
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful operation - one validation result per JSON structure, in the order of the request", useReturnTypeSchema = true),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class))),
+			@ApiResponse(responseCode = "413", description = "Payload Too Large", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	public ResponseEntity<List<ValidationResult>> validateJsonBatch(
+		@Parameter(name = "municipalityId", description = "Municipality ID", example = "2281") @ValidMunicipalityId @PathVariable String municipalityId,
+		@Parameter(name = "id", description = "Schema ID", example = "2281_person_1.0") @PathVariable @NotBlank final String id,
+		@Parameter(name = "output", description = "Level of detail of the validation outcome", example = "FULL") @RequestParam(name = "output", defaultValue = "FULL") final OutputMode output,
+		@Parameter(hidden = true) final InputStream body) {
+
+		return ok(jsonSchemaValidationService.validateBatch(municipalityId, body, id, output));
+	}
+
+	@PostMapping(path = "/{id}/validation/stream", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+	@Operation(operationId = "validateJsonStream", summary = "Validate a stream of newline delimited JSON structures against the specified schema",
+		requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true, description = "One JSON structure per line",
+			content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = JsonNode.class))),
+		responses = {
+			@ApiResponse(responseCode = "200", description = "Successful operation - one validation result per line, in the order of the request",
+				content = @Content(mediaType = APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = ValidationResult.class))),
+			@ApiResponse(responseCode = "404", description = "Not Found", content = @Content(mediaType = APPLICATION_PROBLEM_JSON_VALUE, schema = @Schema(implementation = Problem.class)))
+		})
+	public ResponseEntity<StreamingResponseBody> validateJsonStream(
+		@Parameter(name = "municipalityId", description = "Municipality ID", example = "2281") @ValidMunicipalityId @PathVariable String municipalityId,
+		@Parameter(name = "id", description = "Schema ID", example = "2281_person_1.0") @PathVariable @NotBlank final String id,
+		@Parameter(name = "failuresOnly", description = "If true, only results for invalid JSON structures are returned", example = "false") @RequestParam(defaultValue = "false") final boolean failuresOnly,
+		@Parameter(name = "output", description = "Level of detail of the validation outcome", example = "FULL") @RequestParam(name = "output", defaultValue = "FULL") final OutputMode output,
+		@Parameter(hidden = true) final InputStream body) {
+
+		return ok()
+			.contentType(APPLICATION_NDJSON)
+			.body(jsonSchemaValidationService.validateStream(municipalityId, body, id, failuresOnly, output));
+	}
 }
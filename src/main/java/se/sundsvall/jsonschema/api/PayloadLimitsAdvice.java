@@ -0,0 +1,68 @@
+package se.sundsvall.jsonschema.api;
+
+import static org.springframework.web.context.request.RequestAttributes.SCOPE_REQUEST;
+import static org.springframework.web.servlet.HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Optional;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import se.sundsvall.jsonschema.api.model.JsonSchemaRequest;
+import se.sundsvall.jsonschema.service.PayloadLimits;
+
+/**
+ * Checks the body of a schema creation request against the payload limits of its municipality before it is bound, as
+ * the validation endpoints do while they parse their bodies. The body is read within the limits and only then handed to
+ * the message converter, so a body that exceeds them is never materialized as a tree.
+ */
+@ControllerAdvice
+class PayloadLimitsAdvice extends RequestBodyAdviceAdapter {
+
+	private static final String MUNICIPALITY_ID = "municipalityId";
+
+	private final PayloadLimits payloadLimits;
+
+	PayloadLimitsAdvice(PayloadLimits payloadLimits) {
+		this.payloadLimits = payloadLimits;
+	}
+
+	@Override
+	public boolean supports(MethodParameter methodParameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return JsonSchemaRequest.class.equals(targetType);
+	}
+
+	@Override
+	public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType, Class<? extends HttpMessageConverter<?>> converterType) throws IOException {
+		final var body = payloadLimits.readChecked(municipalityId(), inputMessage.getBody());
+
+		return new HttpInputMessage() {
+			@Override
+			public InputStream getBody() {
+				return new ByteArrayInputStream(body);
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return inputMessage.getHeaders();
+			}
+		};
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	@SuppressWarnings("unchecked")
+	private static String municipalityId() {
+		return Optional.ofNullable((Map<String, String>) RequestContextHolder.currentRequestAttributes().getAttribute(URI_TEMPLATE_VARIABLES_ATTRIBUTE, SCOPE_REQUEST))
+			.map(variables -> variables.get(MUNICIPALITY_ID))
+			.orElse(null);
+	}
+}
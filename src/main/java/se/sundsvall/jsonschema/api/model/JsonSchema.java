@@ -51,6 +51,9 @@ public class JsonSchema {
 	@Schema(description = "Timestamp when this schema was last used to validate a JSON instance", accessMode = READ_ONLY)
 	private OffsetDateTime lastUsedForValidation;
 
+	@Schema(description = "Complexity of the schema, as analyzed when it was created. Absent for schemas created before the analysis was introduced", accessMode = READ_ONLY)
+	private JsonSchemaComplexity complexity;
+
 	public static JsonSchema create() {
 		return new JsonSchema();
 	}
@@ -159,9 +162,22 @@ public class JsonSchema {
 		return this;
 	}
 
+	public JsonSchemaComplexity getComplexity() {
+		return complexity;
+	}
+
+	public void setComplexity(JsonSchemaComplexity complexity) {
+		this.complexity = complexity;
+	}
+
+	public JsonSchema withComplexity(JsonSchemaComplexity complexity) {
+		this.complexity = complexity;
+		return this;
+	}
+
 	@Override
 	public int hashCode() {
-		return Objects.hash(created, description, id, lastUsedForValidation, name, validationUsageCount, value, version);
+		return Objects.hash(complexity, created, description, id, lastUsedForValidation, name, validationUsageCount, value, version);
 	}
 
 	@Override
@@ -176,13 +192,13 @@ public class JsonSchema {
 			return false;
 		}
 		JsonSchema other = (JsonSchema) obj;
-		return Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(lastUsedForValidation, other.lastUsedForValidation) && Objects.equals(name, other.name)
+		return Objects.equals(complexity, other.complexity) && Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(lastUsedForValidation, other.lastUsedForValidation) && Objects.equals(name, other.name)
 			&& validationUsageCount == other.validationUsageCount && Objects.equals(value, other.value) && Objects.equals(version, other.version);
 	}
 
 	@Override
 	public String toString() {
 		return "JsonSchema [id=" + id + ", name=" + name + ", version=" + version + ", value=" + value + ", description=" + description + ", created=" + created + ", validationUsageCount=" + validationUsageCount + ", lastUsedForValidation="
-			+ lastUsedForValidation + "]";
+			+ lastUsedForValidation + ", complexity=" + complexity + "]";
 	}
 }
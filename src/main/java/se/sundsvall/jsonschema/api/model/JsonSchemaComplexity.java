@@ -0,0 +1,120 @@
+package se.sundsvall.jsonschema.api.model;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.Objects;
+
+@Schema(description = "JsonSchemaComplexity model. Static analysis of how expensive the schema is to validate against, made when the schema was created", accessMode = READ_ONLY)
+public class JsonSchemaComplexity {
+
+	@Schema(description = "Number of subschemas in the schema", examples = "42", accessMode = READ_ONLY)
+	private Integer nodeCount;
+
+	@Schema(description = "Maximum number of nested subschemas a validation passes through, with references followed", examples = "5", accessMode = READ_ONLY)
+	private Integer maxDepth;
+
+	@Schema(description = "Maximum number of branches of one allOf, anyOf or oneOf", examples = "3", accessMode = READ_ONLY)
+	private Integer maxBranching;
+
+	@Schema(description = "Whether the schema references itself, directly or through other subschemas, or uses $dynamicRef", examples = "false", accessMode = READ_ONLY)
+	private Boolean recursive;
+
+	@Schema(description = "Estimated worst-case number of keyword evaluations for one location of a validated document", examples = "120", accessMode = READ_ONLY)
+	private Long estimatedEvaluations;
+
+	public static JsonSchemaComplexity create() {
+		return new JsonSchemaComplexity();
+	}
+
+	public Integer getNodeCount() {
+		return nodeCount;
+	}
+
+	public void setNodeCount(Integer nodeCount) {
+		this.nodeCount = nodeCount;
+	}
+
+	public JsonSchemaComplexity withNodeCount(Integer nodeCount) {
+		this.nodeCount = nodeCount;
+		return this;
+	}
+
+	public Integer getMaxDepth() {
+		return maxDepth;
+	}
+
+	public void setMaxDepth(Integer maxDepth) {
+		this.maxDepth = maxDepth;
+	}
+
+	public JsonSchemaComplexity withMaxDepth(Integer maxDepth) {
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	public Integer getMaxBranching() {
+		return maxBranching;
+	}
+
+	public void setMaxBranching(Integer maxBranching) {
+		this.maxBranching = maxBranching;
+	}
+
+	public JsonSchemaComplexity withMaxBranching(Integer maxBranching) {
+		this.maxBranching = maxBranching;
+		return this;
+	}
+
+	public Boolean getRecursive() {
+		return recursive;
+	}
+
+	public void setRecursive(Boolean recursive) {
+		this.recursive = recursive;
+	}
+
+	public JsonSchemaComplexity withRecursive(Boolean recursive) {
+		this.recursive = recursive;
+		return this;
+	}
+
+	public Long getEstimatedEvaluations() {
+		return estimatedEvaluations;
+	}
+
+	public void setEstimatedEvaluations(Long estimatedEvaluations) {
+		this.estimatedEvaluations = estimatedEvaluations;
+	}
+
+	public JsonSchemaComplexity withEstimatedEvaluations(Long estimatedEvaluations) {
+		this.estimatedEvaluations = estimatedEvaluations;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(estimatedEvaluations, maxBranching, maxDepth, nodeCount, recursive);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		JsonSchemaComplexity other = (JsonSchemaComplexity) obj;
+		return Objects.equals(estimatedEvaluations, other.estimatedEvaluations) && Objects.equals(maxBranching, other.maxBranching) && Objects.equals(maxDepth, other.maxDepth) && Objects.equals(nodeCount, other.nodeCount)
+			&& Objects.equals(recursive, other.recursive);
+	}
+
+	@Override
+	public String toString() {
+		return "JsonSchemaComplexity [nodeCount=" + nodeCount + ", maxDepth=" + maxDepth + ", maxBranching=" + maxBranching + ", recursive=" + recursive + ", estimatedEvaluations=" + estimatedEvaluations + "]";
+	}
+}
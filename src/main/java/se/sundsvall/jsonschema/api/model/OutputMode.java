@@ -0,0 +1,25 @@
+package se.sundsvall.jsonschema.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Level of detail of a validation outcome, following the output formats of the JSON Schema specification.
+ */
+@Schema(description = "Level of detail of a validation outcome")
+public enum OutputMode {
+
+	/**
+	 * Valid or not, without any violations. Validation stops at the first failure.
+	 */
+	FLAG,
+
+	/**
+	 * The first violation found. Validation stops at the first failure.
+	 */
+	FIRST_ERROR,
+
+	/**
+	 * All violations.
+	 */
+	FULL
+}
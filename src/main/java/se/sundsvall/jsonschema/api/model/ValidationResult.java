@@ -0,0 +1,90 @@
+package se.sundsvall.jsonschema.api.model;
+
+import static io.swagger.v3.oas.annotations.media.Schema.AccessMode.READ_ONLY;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import java.util.Objects;
+import org.zalando.problem.violations.Violation;
+
+@Schema(description = "ValidationResult model", accessMode = READ_ONLY)
+public class ValidationResult {
+
+	@Schema(description = "Zero based index of the validated document in the request", examples = "0", accessMode = READ_ONLY)
+	private Integer index;
+
+	@Schema(description = "Whether the document is valid according to the schema", examples = "false", accessMode = READ_ONLY)
+	private Boolean valid;
+
+	@ArraySchema(schema = @Schema(implementation = Violation.class), arraySchema = @Schema(description = "Violations found in the document (empty if valid)", accessMode = READ_ONLY))
+	private List<Violation> violations;
+
+	public static ValidationResult create() {
+		return new ValidationResult();
+	}
+
+	public Integer getIndex() {
+		return index;
+	}
+
+	public void setIndex(Integer index) {
+		this.index = index;
+	}
+
+	public ValidationResult withIndex(Integer index) {
+		this.index = index;
+		return this;
+	}
+
+	public Boolean getValid() {
+		return valid;
+	}
+
+	public void setValid(Boolean valid) {
+		this.valid = valid;
+	}
+
+	public ValidationResult withValid(Boolean valid) {
+		this.valid = valid;
+		return this;
+	}
+
+	public List<Violation> getViolations() {
+		return violations;
+	}
+
+	public void setViolations(List<Violation> violations) {
+		this.violations = violations;
+	}
+
+	public ValidationResult withViolations(List<Violation> violations) {
+		this.violations = violations;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(index, valid, violations);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		ValidationResult other = (ValidationResult) obj;
+		return Objects.equals(index, other.index) && Objects.equals(valid, other.valid) && Objects.equals(violations, other.violations);
+	}
+
+	@Override
+	public String toString() {
+		return "ValidationResult [index=" + index + ", valid=" + valid + ", violations=" + violations + "]";
+	}
+}
@@ -1,12 +1,10 @@
 package se.sundsvall.jsonschema.api.validation.impl;
 
-import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
 import static java.util.Objects.isNull;
-import static org.springframework.util.StringUtils.hasText;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.networknt.schema.Schema;
 import com.networknt.schema.SchemaLocation;
-import com.networknt.schema.SchemaRegistry;
 import com.networknt.schema.dialect.DialectId;
 import jakarta.validation.ConstraintValidator;
 import jakarta.validation.ConstraintValidatorContext;
@@ -14,17 +12,22 @@ import java.util.Optional;
 import org.springframework.util.StringUtils;
 import se.sundsvall.jsonschema.api.validation.ValidJsonSchema;
 import se.sundsvall.jsonschema.service.JsonSchemaValidationService;
+import se.sundsvall.jsonschema.service.RegularExpressions;
+import se.sundsvall.jsonschema.service.keyword.SchemaRegistries;
+import se.sundsvall.jsonschema.service.mapper.InstanceMapper;
 
 public class ValidJsonSchemaConstraintValidator implements ConstraintValidator<ValidJsonSchema, JsonNode> {
 
 	private static final String SUPPORTED_SCHEMA_SPECIFICATION = DialectId.DRAFT_2020_12;
-	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+	private static final Schema META_SCHEMA = loadMetaSchema();
 
 	private final JsonSchemaValidationService jsonSchemaValidationService;
+	private final RegularExpressions regularExpressions;
 	private boolean nullable;
 
-	public ValidJsonSchemaConstraintValidator(JsonSchemaValidationService jsonSchemaValidationService) {
+	public ValidJsonSchemaConstraintValidator(JsonSchemaValidationService jsonSchemaValidationService, RegularExpressions regularExpressions) {
 		this.jsonSchemaValidationService = jsonSchemaValidationService;
+		this.regularExpressions = regularExpressions;
 	}
 
 	@Override
@@ -48,17 +51,34 @@ public class ValidJsonSchemaConstraintValidator implements ConstraintValidator<V
 			return false;
 		}
 
-		// Assert JSON-schema against meta schema.
-		final var metaSchema = REGISTRY.getSchema(SchemaLocation.of(SUPPORTED_SCHEMA_SPECIFICATION));
-		final var validationMessages = jsonSchemaValidationService.validate(inputJsonSchema.toString(), metaSchema);
+		// Assert JSON-schema against meta schema. The parsed schema is copied, not serialized, into the tree the validator
+		// consumes, which is also searched for patterns below.
+		final var schemaNode = InstanceMapper.treeToInstanceNode(inputJsonSchema);
+		final var validationMessages = jsonSchemaValidationService.validate(schemaNode, META_SCHEMA);
 
 		validationMessages.forEach(message -> addViolation(Optional.ofNullable(message.getInstanceLocation()).map(Object::toString).filter(StringUtils::hasText).map(value -> value + ": ").orElse("") + message.getMessage(), context));
+		if (!validationMessages.isEmpty()) {
+			return false;
+		}
+
+		// Assert that all patterns can be evaluated by the configured regular expression engine.
+		final var unsupportedPatterns = regularExpressions.findUnsupportedPatterns(schemaNode);
+		unsupportedPatterns.forEach(message -> addViolation(message, context));
 
-		return validationMessages.isEmpty();
+		return unsupportedPatterns.isEmpty();
 	}
 
 	// ---- Private helpers ------------------------------------------------------
 
+	/**
+	 * The meta-schema is loaded and compiled once, with all of its validators, so that no schema creation pays for it.
+	 */
+	private static Schema loadMetaSchema() {
+		final var metaSchema = SchemaRegistries.draft202012().getSchema(SchemaLocation.of(SUPPORTED_SCHEMA_SPECIFICATION));
+		metaSchema.initializeValidators();
+		return metaSchema;
+	}
+
 	private void addViolation(String value, ConstraintValidatorContext constraintContext) {
 		constraintContext.disableDefaultConstraintViolation();
 		constraintContext.buildConstraintViolationWithTemplate(value).addConstraintViolation();
@@ -70,7 +90,7 @@ public class ValidJsonSchemaConstraintValidator implements ConstraintValidator<V
 			return false;
 		}
 
-		if (!hasText(inputJsonSchema.toString())) {
+		if (inputJsonSchema.isMissingNode()) {
 			addViolation("must be valid JSON, but was empty", constraintContext);
 			return false;
 		}
@@ -0,0 +1,100 @@
+package se.sundsvall.jsonschema.configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings for the cache of compiled JSON schemas.
+ *
+ * @param memoryBudget      approximate amount of memory the compiled schemas may occupy, weighed by the size of their sources
+ * @param expireAfterAccess time after the last access after which a compiled schema is evicted from the cache
+ * @param pinnedIds         IDs of schemas that are never evicted, and that do not count against the memory budget
+ * @param missTtl           time during which a lookup of an unknown schema ID is answered without reaching the database
+ * @param compilation       settings for how schemas are compiled on a cache miss
+ * @param warmup            settings for how the cache is preloaded at startup
+ * @param optimization      settings for how schemas are optimized before they are compiled
+ * @param regex             settings for how the {@code pattern} and {@code patternProperties} keywords are evaluated
+ */
+@ConfigurationProperties("jsonschema.cache")
+public record JsonSchemaCacheProperties(
+	@DefaultValue("64MB") DataSize memoryBudget,
+	@DefaultValue("P7D") Duration expireAfterAccess,
+	@DefaultValue Set<String> pinnedIds,
+	@DefaultValue("PT30S") Duration missTtl,
+	@DefaultValue Compilation compilation,
+	@DefaultValue Warmup warmup,
+	@DefaultValue Optimization optimization,
+	@DefaultValue Regex regex) {
+
+	/**
+	 * @param async   if true, schemas are compiled on a dedicated thread pool instead of on the requesting thread
+	 * @param threads size of the thread pool used when compiling asynchronously
+	 * @param timeout maximum time a request waits for an asynchronous compilation before it is rejected
+	 */
+	public record Compilation(
+		@DefaultValue("false") boolean async,
+		@DefaultValue("2") int threads,
+		@DefaultValue("PT5S") Duration timeout) {
+	}
+
+	/**
+	 * @param enabled        if true, the most used schemas are compiled into the cache before the application reports
+	 *                       itself ready
+	 * @param maximumSchemas maximum number of schemas to preload
+	 * @param recencyWindow  only schemas used for validation within this period are preloaded
+	 * @param parallelism    number of schemas compiled in parallel during preloading
+	 * @param validation     settings for synthetic validations against the preloaded schemas
+	 */
+	public record Warmup(
+		@DefaultValue("true") boolean enabled,
+		@DefaultValue("100") int maximumSchemas,
+		@DefaultValue("P30D") Duration recencyWindow,
+		@DefaultValue("4") int parallelism,
+		@DefaultValue ValidationWarmup validation) {
+	}
+
+	/**
+	 * @param enabled    if true, synthetic documents are validated against the preloaded schemas before the application
+	 *                   reports itself ready, to let the JIT compiler optimize the validation code paths
+	 * @param iterations number of rounds of synthetic validations
+	 * @param timeLimit  maximum time spent on synthetic validations, regardless of the number of completed rounds
+	 */
+	public record ValidationWarmup(
+		@DefaultValue("false") boolean enabled,
+		@DefaultValue("1000") int iterations,
+		@DefaultValue("PT30S") Duration timeLimit) {
+	}
+
+	/**
+	 * @param enabled if true, schemas are flattened, deduplicated and simplified before they are compiled
+	 */
+	public record Optimization(
+		@DefaultValue("true") boolean enabled) {
+	}
+
+	/**
+	 * @param engine             the regular expression engine
+	 * @param maximumExpressions maximum number of compiled regular expressions that are cached and shared between schemas
+	 */
+	public record Regex(
+		@DefaultValue("JDK") RegexEngine engine,
+		@DefaultValue("10000") long maximumExpressions) {
+	}
+
+	/**
+	 * Regular expression engines.
+	 */
+	public enum RegexEngine {
+		/**
+		 * The JDK engine, which supports the full ECMA-262 syntax, but may backtrack for exponential time on some patterns.
+		 */
+		JDK,
+		/**
+		 * An RE2-style engine, which matches in linear time, but rejects patterns with backreferences or lookaround.
+		 */
+		LINEAR
+	}
+}
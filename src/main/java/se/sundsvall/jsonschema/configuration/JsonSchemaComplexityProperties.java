@@ -0,0 +1,43 @@
+package se.sundsvall.jsonschema.configuration;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Budgets for the complexity of JSON schemas, checked when a schema is created.
+ *
+ * @param budget         the budget of municipalities without a budget of their own
+ * @param municipalities budgets of individual municipalities, by municipality ID. Limits left out of such a budget take
+ *                       their default values, not the values of {@code budget}
+ */
+@ConfigurationProperties("jsonschema.complexity")
+public record JsonSchemaComplexityProperties(
+	@DefaultValue Budget budget,
+	@DefaultValue Map<String, Budget> municipalities) {
+
+	/**
+	 * Returns the budget of a municipality.
+	 *
+	 * @param  municipalityId the municipality ID
+	 * @return                the budget of the municipality, or the default budget if it has none of its own
+	 */
+	public Budget budgetFor(String municipalityId) {
+		return municipalities.getOrDefault(municipalityId, budget);
+	}
+
+	/**
+	 * @param maximumNodes       maximum number of subschemas in a schema
+	 * @param maximumDepth       maximum number of nested subschemas a validation passes through, with references followed
+	 * @param maximumBranching   maximum number of branches of one {@code allOf}, {@code anyOf} or {@code oneOf}
+	 * @param recursionAllowed   if false, schemas that reference themselves or use {@code $dynamicRef} are rejected
+	 * @param maximumEvaluations maximum estimated number of keyword evaluations for one instance location
+	 */
+	public record Budget(
+		@DefaultValue("10000") int maximumNodes,
+		@DefaultValue("128") int maximumDepth,
+		@DefaultValue("1000") int maximumBranching,
+		@DefaultValue("true") boolean recursionAllowed,
+		@DefaultValue("1000000") long maximumEvaluations) {
+	}
+}
@@ -0,0 +1,43 @@
+package se.sundsvall.jsonschema.configuration;
+
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Limits on the JSON request bodies of the validation endpoints and of schema creation, enforced while the body is
+ * read.
+ *
+ * @param limits         the limits of municipalities without limits of their own
+ * @param municipalities limits of individual municipalities, by municipality ID. Limits left out of such an entry take
+ *                       their default values, not the values of {@code limits}
+ */
+@ConfigurationProperties("jsonschema.payload")
+public record JsonSchemaPayloadProperties(
+	@DefaultValue Limits limits,
+	@DefaultValue Map<String, Limits> municipalities) {
+
+	/**
+	 * Returns the limits of a municipality.
+	 *
+	 * @param  municipalityId the municipality ID
+	 * @return                the limits of the municipality, or the default limits if it has none of its own
+	 */
+	public Limits limitsFor(String municipalityId) {
+		return municipalityId == null ? limits : municipalities.getOrDefault(municipalityId, limits);
+	}
+
+	/**
+	 * @param maximumSize         maximum size of a JSON document. For streaming validation, of each line
+	 * @param maximumDepth        maximum nesting depth of objects and arrays
+	 * @param maximumStringLength maximum length of a string, property name or number
+	 * @param maximumProperties   maximum number of properties of one object
+	 */
+	public record Limits(
+		@DefaultValue("10MB") DataSize maximumSize,
+		@DefaultValue("256") int maximumDepth,
+		@DefaultValue("1000000") int maximumStringLength,
+		@DefaultValue("10000") int maximumProperties) {
+	}
+}
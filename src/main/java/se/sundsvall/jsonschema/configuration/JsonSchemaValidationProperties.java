@@ -0,0 +1,76 @@
+package se.sundsvall.jsonschema.configuration;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings for validation of JSON documents.
+ *
+ * @param batch          settings for batch validation
+ * @param parallel       settings for parallel validation of batches and streams
+ * @param resultCache    settings for the cache of validation results
+ * @param specialization settings for specialized validators of frequently used schemas
+ * @param budget         limits on the work done by one validation
+ */
+@ConfigurationProperties("jsonschema.validation")
+public record JsonSchemaValidationProperties(
+	@DefaultValue Batch batch,
+	@DefaultValue Parallel parallel,
+	@DefaultValue ResultCache resultCache,
+	@DefaultValue Specialization specialization,
+	@DefaultValue Budget budget) {
+
+	/**
+	 * @param maximumSize maximum number of documents accepted in one batch
+	 */
+	public record Batch(
+		@DefaultValue("1000") int maximumSize) {
+	}
+
+	/**
+	 * @param enabled           if true, the documents of a batch or stream are validated in parallel
+	 * @param maximumPerRequest maximum number of documents validated at the same time for one request
+	 * @param minimumBatchSize  batches smaller than this are always validated sequentially
+	 */
+	public record Parallel(
+		@DefaultValue("true") boolean enabled,
+		@DefaultValue("4") int maximumPerRequest,
+		@DefaultValue("64") int minimumBatchSize) {
+	}
+
+	/**
+	 * @param enabled          if true, the result of validating a document is cached, and reused for identical documents
+	 *                         validated against the same schema
+	 * @param maximumSize      maximum number of cached results
+	 * @param expireAfterWrite time after which a cached result is discarded
+	 */
+	public record ResultCache(
+		@DefaultValue("false") boolean enabled,
+		@DefaultValue("10000") long maximumSize,
+		@DefaultValue("PT10M") Duration expireAfterWrite) {
+	}
+
+	/**
+	 * @param enabled            if true, schemas are compiled into specialized validators once they are frequently used
+	 * @param promotionThreshold number of validations against a schema after which it is compiled
+	 */
+	public record Specialization(
+		@DefaultValue("false") boolean enabled,
+		@DefaultValue("1000") long promotionThreshold) {
+	}
+
+	/**
+	 * @param enabled            if true, validations that exceed the budget are aborted
+	 * @param maximumEvaluations maximum number of evaluated applicator keywords, such as {@code $ref}, {@code properties}
+	 *                           or {@code anyOf}, per validated document
+	 * @param maximumDepth       maximum depth of the evaluation path, counted in keywords, property names and indexes
+	 * @param timeout            maximum time spent validating one document
+	 */
+	public record Budget(
+		@DefaultValue("true") boolean enabled,
+		@DefaultValue("1000000") long maximumEvaluations,
+		@DefaultValue("1000") int maximumDepth,
+		@DefaultValue("PT5S") Duration timeout) {
+	}
+}
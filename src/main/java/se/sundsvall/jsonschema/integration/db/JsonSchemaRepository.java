@@ -5,6 +5,8 @@ import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
 
 @CircuitBreaker(name = "jsonSchemaRepository")
@@ -15,4 +17,10 @@ public interface JsonSchemaRepository extends JpaRepository<JsonSchemaEntity, St
 	Page<JsonSchemaEntity> findAllByMunicipalityId(String municipalityId, Pageable pageable);
 
 	Page<JsonSchemaEntity> findAllByMunicipalityIdAndName(String municipalityId, String name, Pageable pageable);
+
+	/**
+	 * Fetches only the raw schema definition, without loading the entity into the persistence context.
+	 */
+	@Query("select e.value from JsonSchemaEntity e where e.id = :id")
+	Optional<String> findValueById(@Param("id") String id);
 }
@@ -0,0 +1,37 @@
+package se.sundsvall.jsonschema.integration.db;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import se.sundsvall.jsonschema.integration.db.model.JsonSchemaUsageEntity;
+
+@CircuitBreaker(name = "jsonSchemaUsageRepository")
+public interface JsonSchemaUsageRepository extends JpaRepository<JsonSchemaUsageEntity, String> {
+
+	/**
+	 * Adds a number of validation attempts as an atomic increment, without reading the entity first. The last used
+	 * timestamp is only moved forward.
+	 */
+	@Modifying
+	@Query("""
+		update JsonSchemaUsageEntity u
+		set u.validationUsageCount = u.validationUsageCount + :count,
+		    u.lastUsedForValidation = case when u.lastUsedForValidation is null or u.lastUsedForValidation < :lastUsedForValidation then :lastUsedForValidation else u.lastUsedForValidation end
+		where u.jsonSchemaId = :jsonSchemaId""")
+	int incrementValidationUsage(@Param("jsonSchemaId") String jsonSchemaId, @Param("count") long count, @Param("lastUsedForValidation") OffsetDateTime lastUsedForValidation);
+
+	/**
+	 * Returns the IDs of the schemas that have been used for validation since the supplied point in time, ranked by
+	 * validation usage (most used first).
+	 */
+	@Query("""
+		select u.jsonSchemaId from JsonSchemaUsageEntity u
+		where u.validationUsageCount > 0 and u.lastUsedForValidation >= :usedSince
+		order by u.validationUsageCount desc, u.lastUsedForValidation desc""")
+	List<String> findIdsOfMostUsed(@Param("usedSince") OffsetDateTime usedSince, Limit limit);
+}
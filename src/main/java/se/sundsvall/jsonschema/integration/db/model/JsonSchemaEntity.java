@@ -18,6 +18,7 @@ import jakarta.persistence.Table;
 import jakarta.persistence.UniqueConstraint;
 import java.time.OffsetDateTime;
 import java.util.Objects;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.TimeZoneStorage;
 
@@ -70,17 +71,53 @@ public class JsonSchemaEntity {
 		optional = true)
 	private UiSchemaEntity uiSchema;
 
+	/*
+	 * =======================
+	 * Complexity
+	 * =======================
+	 * Static analysis made when the schema is created. Null for schemas created
+	 * before the analysis was introduced.
+	 */
+
+	@Column(name = "complexity_node_count")
+	private Integer complexityNodeCount;
+
+	@Column(name = "complexity_max_depth")
+	private Integer complexityMaxDepth;
+
+	@Column(name = "complexity_max_branching")
+	private Integer complexityMaxBranching;
+
+	@Column(name = "complexity_recursive")
+	private Boolean complexityRecursive;
+
+	@Column(name = "complexity_estimated_evaluations")
+	private Long complexityEstimatedEvaluations;
+
+	/*
+	 * =======================
+	 * Compilation
+	 * =======================
+	 * Measured when the schema is created. Null for schemas created before
+	 * schemas were compiled on creation.
+	 */
+
+	@Column(name = "compilation_time_micros")
+	private Long compilationTimeMicros;
+
 	/*
 	 * =======================
 	 * Validation usage stats
 	 * =======================
+	 * Read-only. Stored in json_schema_usage (see JsonSchemaUsageEntity), so that
+	 * updates of the statistics never rewrite the schema row.
 	 */
 
-	@Column(name = "validation_usage_count", nullable = false)
+	@Formula("(select coalesce(max(u.validation_usage_count), 0) from json_schema_usage u where u.json_schema_id = id)")
 	private long validationUsageCount;
 
 	@TimeZoneStorage(NORMALIZE)
-	@Column(name = "last_used_for_validation")
+	@Formula("(select max(u.last_used_for_validation) from json_schema_usage u where u.json_schema_id = id)")
 	private OffsetDateTime lastUsedForValidation;
 
 	public static JsonSchemaEntity create() {
@@ -191,6 +228,84 @@ public class JsonSchemaEntity {
 		return this;
 	}
 
+	public Integer getComplexityNodeCount() {
+		return complexityNodeCount;
+	}
+
+	public void setComplexityNodeCount(Integer complexityNodeCount) {
+		this.complexityNodeCount = complexityNodeCount;
+	}
+
+	public JsonSchemaEntity withComplexityNodeCount(Integer complexityNodeCount) {
+		this.complexityNodeCount = complexityNodeCount;
+		return this;
+	}
+
+	public Integer getComplexityMaxDepth() {
+		return complexityMaxDepth;
+	}
+
+	public void setComplexityMaxDepth(Integer complexityMaxDepth) {
+		this.complexityMaxDepth = complexityMaxDepth;
+	}
+
+	public JsonSchemaEntity withComplexityMaxDepth(Integer complexityMaxDepth) {
+		this.complexityMaxDepth = complexityMaxDepth;
+		return this;
+	}
+
+	public Integer getComplexityMaxBranching() {
+		return complexityMaxBranching;
+	}
+
+	public void setComplexityMaxBranching(Integer complexityMaxBranching) {
+		this.complexityMaxBranching = complexityMaxBranching;
+	}
+
+	public JsonSchemaEntity withComplexityMaxBranching(Integer complexityMaxBranching) {
+		this.complexityMaxBranching = complexityMaxBranching;
+		return this;
+	}
+
+	public Boolean getComplexityRecursive() {
+		return complexityRecursive;
+	}
+
+	public void setComplexityRecursive(Boolean complexityRecursive) {
+		this.complexityRecursive = complexityRecursive;
+	}
+
+	public JsonSchemaEntity withComplexityRecursive(Boolean complexityRecursive) {
+		this.complexityRecursive = complexityRecursive;
+		return this;
+	}
+
+	public Long getComplexityEstimatedEvaluations() {
+		return complexityEstimatedEvaluations;
+	}
+
+	public void setComplexityEstimatedEvaluations(Long complexityEstimatedEvaluations) {
+		this.complexityEstimatedEvaluations = complexityEstimatedEvaluations;
+	}
+
+	public JsonSchemaEntity withComplexityEstimatedEvaluations(Long complexityEstimatedEvaluations) {
+		this.complexityEstimatedEvaluations = complexityEstimatedEvaluations;
+		return this;
+	}
+
+	public Long getCompilationTimeMicros() {
+		return compilationTimeMicros;
+	}
+
+	public void setCompilationTimeMicros(Long compilationTimeMicros) {
+		this.compilationTimeMicros = compilationTimeMicros;
+	}
+
+	public JsonSchemaEntity withCompilationTimeMicros(Long compilationTimeMicros) {
+		this.compilationTimeMicros = compilationTimeMicros;
+		return this;
+	}
+
 	public long getValidationUsageCount() {
 		return validationUsageCount;
 	}
@@ -224,7 +339,7 @@ public class JsonSchemaEntity {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(created, description, id, lastUsedForValidation, municipalityId, name, uiSchema, validationUsageCount, value, version);
+		return Objects.hash(compilationTimeMicros, complexityEstimatedEvaluations, complexityMaxBranching, complexityMaxDepth, complexityNodeCount, complexityRecursive, created, description, id, lastUsedForValidation, municipalityId, name, uiSchema, validationUsageCount, value, version);
 	}
 
 	@Override
@@ -239,7 +354,8 @@ public class JsonSchemaEntity {
 			return false;
 		}
 		JsonSchemaEntity other = (JsonSchemaEntity) obj;
-		return Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(lastUsedForValidation, other.lastUsedForValidation) && Objects.equals(municipalityId,
+		return Objects.equals(compilationTimeMicros, other.compilationTimeMicros) && Objects.equals(complexityEstimatedEvaluations, other.complexityEstimatedEvaluations) && Objects.equals(complexityMaxBranching, other.complexityMaxBranching) && Objects.equals(complexityMaxDepth, other.complexityMaxDepth)
+			&& Objects.equals(complexityNodeCount, other.complexityNodeCount) && Objects.equals(complexityRecursive, other.complexityRecursive) && Objects.equals(created, other.created) && Objects.equals(description, other.description) && Objects.equals(id, other.id) && Objects.equals(lastUsedForValidation, other.lastUsedForValidation) && Objects.equals(municipalityId,
 			other.municipalityId) && Objects.equals(name, other.name) && Objects.equals(uiSchema, other.uiSchema) && validationUsageCount == other.validationUsageCount && Objects.equals(value, other.value) && Objects.equals(version, other.version);
 	}
 
@@ -247,6 +363,7 @@ public class JsonSchemaEntity {
 	public String toString() {
 		return "JsonSchemaEntity [id=" + id + ", municipalityId=" + municipalityId + ", name=" + name + ", version=" + version + ", value=" + value + ", description=" + description + ", created=" + created + ", uiSchema=" + (uiSchema != null ? uiSchema
 			.getId() : null)
-			+ ", validationUsageCount=" + validationUsageCount + ", lastUsedForValidation=" + lastUsedForValidation + "]";
+			+ ", complexityNodeCount=" + complexityNodeCount + ", complexityMaxDepth=" + complexityMaxDepth + ", complexityMaxBranching=" + complexityMaxBranching + ", complexityRecursive=" + complexityRecursive + ", complexityEstimatedEvaluations="
+			+ complexityEstimatedEvaluations + ", compilationTimeMicros=" + compilationTimeMicros + ", validationUsageCount=" + validationUsageCount + ", lastUsedForValidation=" + lastUsedForValidation + "]";
 	}
 }
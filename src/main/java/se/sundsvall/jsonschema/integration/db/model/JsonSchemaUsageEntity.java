@@ -0,0 +1,103 @@
+package se.sundsvall.jsonschema.integration.db.model;
+
+import static org.hibernate.annotations.TimeZoneStorageType.NORMALIZE;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import org.hibernate.annotations.TimeZoneStorage;
+
+/**
+ * Validation usage statistics for a JSON schema.
+ *
+ * <p>
+ * The statistics are kept in a narrow table of their own, so that frequent updates of them never rewrite the (large)
+ * schema row in json_schema.
+ * </p>
+ */
+@Entity
+@Table(name = "json_schema_usage")
+public class JsonSchemaUsageEntity {
+
+	@Id
+	@Column(name = "json_schema_id")
+	private String jsonSchemaId;
+
+	@Column(name = "validation_usage_count", nullable = false)
+	private long validationUsageCount;
+
+	@TimeZoneStorage(NORMALIZE)
+	@Column(name = "last_used_for_validation")
+	private OffsetDateTime lastUsedForValidation;
+
+	public static JsonSchemaUsageEntity create() {
+		return new JsonSchemaUsageEntity();
+	}
+
+	public String getJsonSchemaId() {
+		return jsonSchemaId;
+	}
+
+	public void setJsonSchemaId(String jsonSchemaId) {
+		this.jsonSchemaId = jsonSchemaId;
+	}
+
+	public JsonSchemaUsageEntity withJsonSchemaId(String jsonSchemaId) {
+		this.jsonSchemaId = jsonSchemaId;
+		return this;
+	}
+
+	public long getValidationUsageCount() {
+		return validationUsageCount;
+	}
+
+	public void setValidationUsageCount(long validationUsageCount) {
+		this.validationUsageCount = validationUsageCount;
+	}
+
+	public JsonSchemaUsageEntity withValidationUsageCount(long validationUsageCount) {
+		this.validationUsageCount = validationUsageCount;
+		return this;
+	}
+
+	public OffsetDateTime getLastUsedForValidation() {
+		return lastUsedForValidation;
+	}
+
+	public void setLastUsedForValidation(OffsetDateTime lastUsedForValidation) {
+		this.lastUsedForValidation = lastUsedForValidation;
+	}
+
+	public JsonSchemaUsageEntity withLastUsedForValidation(OffsetDateTime lastUsedForValidation) {
+		this.lastUsedForValidation = lastUsedForValidation;
+		return this;
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hash(jsonSchemaId, lastUsedForValidation, validationUsageCount);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null) {
+			return false;
+		}
+		if (getClass() != obj.getClass()) {
+			return false;
+		}
+		JsonSchemaUsageEntity other = (JsonSchemaUsageEntity) obj;
+		return Objects.equals(jsonSchemaId, other.jsonSchemaId) && Objects.equals(lastUsedForValidation, other.lastUsedForValidation) && validationUsageCount == other.validationUsageCount;
+	}
+
+	@Override
+	public String toString() {
+		return "JsonSchemaUsageEntity [jsonSchemaId=" + jsonSchemaId + ", validationUsageCount=" + validationUsageCount + ", lastUsedForValidation=" + lastUsedForValidation + "]";
+	}
+}
@@ -0,0 +1,36 @@
+package se.sundsvall.jsonschema.service;
+
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+
+import com.networknt.schema.Schema;
+import java.time.Duration;
+import se.sundsvall.jsonschema.api.model.OutputMode;
+import se.sundsvall.jsonschema.service.compiler.OptimizedSchema;
+
+/**
+ * A compiled schema, together with what was learned about it at compile time.
+ *
+ * @param id                           the schema ID
+ * @param schema                       the stored schema, compiled as it is
+ * @param optimizedSchema              the optimized schema, compiled; null if optimization did not change the schema
+ * @param annotationCollectionRequired whether validating against the schema requires annotations to be collected
+ * @param weight                       the estimated size of the compiled schemas, i.e. the length of their sources
+ * @param optimization                 the outcome of optimizing the schema before it was compiled; null if it was not
+ *                                     optimized
+ * @param compilationTime              the time it took to optimize and compile the schema
+ */
+public record CompiledSchema(String id, Schema schema, Schema optimizedSchema, boolean annotationCollectionRequired, int weight, OptimizedSchema optimization,
+	Duration compilationTime) {
+
+	/**
+	 * Returns the schema that documents are evaluated against in the supplied output mode. The optimized schema decides
+	 * validity exactly like the stored schema, but may report other errors, or errors at other schema locations. It is
+	 * therefore only used in {@link OutputMode#FLAG} mode, where no errors are reported.
+	 *
+	 * @param  outputMode the level of detail of the validation result
+	 * @return            the schema to evaluate documents against
+	 */
+	public Schema schemaFor(OutputMode outputMode) {
+		return outputMode == FLAG && optimizedSchema != null ? optimizedSchema : schema;
+	}
+}
@@ -7,6 +7,19 @@ public final class Constants {
 	static final String JSON_SCHEMA_ALREADY_EXISTS = "A JsonSchema with ID '%s' already exists!";
 	static final String JSON_SCHEMA_WITH_GREATER_VERSION_EXISTS = "A JsonSchema with a greater version already exists! (see schema with ID: '%s')";
 
+	static final String MESSAGE_JSON_SCHEMA_COMPILATION_IN_PROGRESS = "JsonSchema with ID '%s' is being compiled, please try again later!";
+	static final String MESSAGE_JSON_SCHEMA_COMPILATION_FAILED = "JsonSchema with ID '%s' could not be compiled: %s";
+	static final String MESSAGE_INVALID_JSON = "Request body is not valid JSON: %s";
+	static final String MESSAGE_BATCH_NOT_AN_ARRAY = "Request body must be a JSON array of documents";
+	static final String MESSAGE_BATCH_TOO_LARGE = "Batch contains %d documents, the maximum is %d";
+	static final String MESSAGE_INVALID_JSON_LINE = "Line is not valid JSON: %s";
+	static final String MESSAGE_COMPLEXITY_BUDGET_EXCEEDED = "JsonSchema exceeds the complexity budget: %s";
+	static final String MESSAGE_COMPLEXITY_LIMIT_EXCEEDED = "%s is %d, the maximum is %d";
+	static final String MESSAGE_COMPLEXITY_RECURSION_NOT_ALLOWED = "schema is recursive, which is not allowed";
+	static final String MESSAGE_VALIDATION_BUDGET_EXHAUSTED = "Validation against JsonSchema with ID '%s' was aborted: %s";
+	static final String MESSAGE_PAYLOAD_LIMIT_EXCEEDED = "Request body exceeds the payload limits: %s";
+	static final String MESSAGE_UNSUPPORTED_PATTERN = "%s: pattern '%s' is not supported by the linear regular expression engine";
+
 	static final String MESSAGE_UI_SCHEMA_NOT_FOUND_BY_JSON_SCHEMA_ID = "No UiSchema on JsonSchema with ID '%s' was found!";
 
 	private Constants() {}
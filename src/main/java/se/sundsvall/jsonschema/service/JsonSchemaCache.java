@@ -1,52 +1,432 @@
 package se.sundsvall.jsonschema.service;
 
-import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.zalando.problem.Status.BAD_REQUEST;
+import static org.zalando.problem.Status.NOT_FOUND;
+import static org.zalando.problem.Status.SERVICE_UNAVAILABLE;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_COMPILATION_FAILED;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_COMPILATION_IN_PROGRESS;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID;
 
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.networknt.schema.Schema;
 import com.networknt.schema.SchemaRegistry;
-import org.springframework.cache.annotation.Cacheable;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.zalando.problem.Problem;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
 import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
+import se.sundsvall.jsonschema.service.compiler.SchemaOptimizer;
+import se.sundsvall.jsonschema.service.keyword.SchemaRegistries;
+import se.sundsvall.jsonschema.service.mapper.InstanceMapper;
+import tools.jackson.databind.JsonNode;
 
 /**
  * Cache component responsible for parsing and caching JSON Schema definitions.
  *
  * <p>
  * This component uses a {@link SchemaRegistry} initialized with the default
- * {@code DRAFT_2020_12} dialect to parse raw JSON Schema documents into
+ * {@code DRAFT_2020_12} dialect, see {@link SchemaRegistries}, and the configured regular expression engine, see
+ * {@link RegularExpressions}, to parse raw JSON Schema documents into
  * {@link Schema} instances. Parsed schemas are cached to avoid repeated parsing
  * and to improve performance when the same schema is requested multiple times.
  * </p>
  *
  * <p>
+ * When a schema is compiled, the keywords it uses are analysed to decide whether validation against it requires
+ * annotations to be collected. The outcome is kept with the compiled schema, see {@link CompiledSchema}.
+ * </p>
+ *
+ * <p>
+ * Unless disabled, schemas are also rewritten by the {@link SchemaOptimizer}, and the rewritten schema is compiled
+ * alongside the stored one. It is used where only validity is reported, while errors are always reported against the
+ * stored schema, see {@link CompiledSchema#schemaFor(se.sundsvall.jsonschema.api.model.OutputMode)}. The number of
+ * nodes removed from each schema is logged, kept with the compiled schema, and recorded by the
+ * {@value #OPTIMIZATION_METRIC} metric, tagged with the schema ID.
+ * </p>
+ *
+ * <p>
+ * The time it takes to compile each schema, including its optimization, is kept with the compiled schema and recorded
+ * by the {@value #COMPILATION_METRIC} metric.
+ * </p>
+ *
+ * <p>
  * The cache entry is keyed by the {@code id} of the associated
  * {@link JsonSchemaEntity}. If the schema has previously been parsed and
  * cached, the cached instance will be returned. Otherwise, the schema is parsed
  * from the entity's {@code value} field and stored in the cache.
  * </p>
+ *
+ * <p>
+ * Schema IDs are immutable, so a schema that has been resolved by ID can be
+ * served from the cache without any database round trip. Lookups of unknown IDs
+ * are remembered for a short, configurable period, to prevent repeated requests
+ * for non-existing schemas from reaching the database.
+ * </p>
+ *
+ * <p>
+ * Compilation is single-flight per schema ID: the cache holds one future per ID,
+ * and concurrent callers for the same ID share that future instead of compiling
+ * the schema in parallel. By default the first caller compiles the schema on its
+ * own thread, while the others wait for it. When asynchronous compilation is
+ * enabled, schemas are compiled on a dedicated, bounded thread pool, and every
+ * caller waits on the shared compilation at most the configured timeout, after
+ * which it is rejected with SERVICE_UNAVAILABLE while compilation continues in
+ * the background.
+ * </p>
+ *
+ * <p>
+ * The cache is bounded by a memory budget rather than by a number of entries:
+ * each entry is weighed by the size of the sources of the schemas it holds, i.e.
+ * the stored schema and the optimized schema if there is one, as an estimate of
+ * the size of the compiled schemas. Stored schemas never change, so entries expire
+ * only after a period without access. Schemas with pinned IDs are never evicted
+ * and do not count against the budget.
+ * </p>
+ *
+ * <p>
+ * Entries are invalidated through {@link JsonSchemaInvalidatedEvent}s, which are processed once the transaction that
+ * published them has been committed. Schemas are compiled as they are created, see {@link #compile(JsonSchemaEntity)},
+ * and the compiled schemas announced by {@link JsonSchemaCompiledEvent}s are put into the cache once the transaction
+ * that created them has been committed. Every eviction, regardless of cause, is counted by the
+ * {@value #EVICTIONS_METRIC} metric, and announced by a {@link JsonSchemaEvictedEvent}.
+ * </p>
  */
 @Component
+@EnableConfigurationProperties(JsonSchemaCacheProperties.class)
 public class JsonSchemaCache {
 
-	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+	private static final long MAXIMUM_NUMBER_OF_MISSES = 10_000;
+	static final String EVICTIONS_METRIC = "jsonschema.cache.evictions";
+	static final String CAUSE_INVALIDATED = "invalidated";
+	static final String OPTIMIZATION_METRIC = "jsonschema.cache.optimization.removed.nodes";
+	static final String COMPILATION_METRIC = "jsonschema.cache.compilation";
+	private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaCache.class);
+
+	private final JsonSchemaRepository jsonSchemaRepository;
+	private final SchemaRegistry registry;
+	private final JsonSchemaCacheProperties.Compilation compilation;
+	private final boolean optimizationEnabled;
+	private final AsyncCache<String, CompiledSchema> schemas;
+	private final Cache<String, Boolean> misses;
+	private final ExecutorService compilationExecutor;
+	private final MeterRegistry meterRegistry;
+	private final ApplicationEventPublisher eventPublisher;
+
+	public JsonSchemaCache(final JsonSchemaRepository jsonSchemaRepository, final JsonSchemaCacheProperties properties, final MeterRegistry meterRegistry,
+		final ApplicationEventPublisher eventPublisher, final RegularExpressions regularExpressions) {
+		this.jsonSchemaRepository = jsonSchemaRepository;
+		this.registry = SchemaRegistries.draft202012(regularExpressions.factory());
+		this.compilation = properties.compilation();
+		this.optimizationEnabled = properties.optimization().enabled();
+		this.meterRegistry = meterRegistry;
+		this.eventPublisher = eventPublisher;
+		this.schemas = Caffeine.newBuilder()
+			.maximumWeight(properties.memoryBudget().toBytes())
+			.<String, CompiledSchema>weigher((schemaId, compiled) -> properties.pinnedIds().contains(schemaId) ? 0 : compiled.weight())
+			.expireAfter(new AccessExpiry(properties.expireAfterAccess(), properties.pinnedIds()))
+			.removalListener((schemaId, _, cause) -> onRemoval(schemaId, cause))
+			.buildAsync();
+		this.misses = Caffeine.newBuilder()
+			.expireAfterWrite(properties.missTtl())
+			.maximumSize(MAXIMUM_NUMBER_OF_MISSES)
+			.build();
+		this.compilationExecutor = compilation.async()
+			? Executors.newFixedThreadPool(compilation.threads(), Thread.ofPlatform().name("schema-compilation-", 0).daemon().factory())
+			: null;
+	}
 
 	/**
 	 * Returns a parsed {@link Schema} for the supplied {@link JsonSchemaEntity}.
 	 *
 	 * <p>
-	 * The method is cache-enabled using the {@code jsonSchemas} cache. Cache keys
-	 * are derived from {@code entity.id}. When no cached value exists, the method
-	 * parses the raw JSON Schema contained in {@code entity.value} and stores the
-	 * resulting {@link Schema} instance in the cache.
+	 * Cache keys are derived from {@code entity.id}. When no cached value exists,
+	 * the method parses the raw JSON Schema contained in {@code entity.value} and
+	 * stores the resulting {@link Schema} instance in the cache.
 	 * </p>
 	 *
 	 * @param  entity the JSON Schema entity containing the schema definition; must not be null
 	 * @return        the parsed {@link Schema} instance
 	 */
-	@Cacheable(value = "jsonSchemas", key = "#entity.id")
 	public Schema getSchema(JsonSchemaEntity entity) {
-		final var schema = REGISTRY.getSchema(entity.getValue());
+		return get(entity.getId(), () -> compile(entity.getId(), entity.getValue())).schema();
+	}
+
+	/**
+	 * Returns a parsed {@link Schema} for the supplied schema ID.
+	 *
+	 * <p>
+	 * The method shares cache entries with {@link #getSchema(JsonSchemaEntity)}.
+	 * When no cached value exists, only the raw schema definition is fetched from
+	 * the database. A miss is remembered for the configured period
+	 * ({@code jsonschema.cache.miss-ttl}).
+	 * </p>
+	 *
+	 * @param  schemaId                             the schema ID
+	 * @return                                      the parsed {@link Schema} instance
+	 * @throws org.zalando.problem.ThrowableProblem NOT_FOUND if no schema with the supplied ID exists
+	 */
+	public Schema getSchema(String schemaId) {
+		return getCompiledSchema(schemaId).schema();
+	}
+
+	/**
+	 * Returns a {@link CompiledSchema} for the supplied schema ID, i.e. the parsed {@link Schema} together with what was
+	 * learned about it at compile time. The method shares cache entries with {@link #getSchema(String)}.
+	 *
+	 * @param  schemaId                             the schema ID
+	 * @return                                      the compiled schema
+	 * @throws org.zalando.problem.ThrowableProblem NOT_FOUND if no schema with the supplied ID exists
+	 */
+	public CompiledSchema getCompiledSchema(String schemaId) {
+		if (misses.getIfPresent(schemaId) != null) {
+			throw notFound(schemaId);
+		}
+
+		return get(schemaId, () -> jsonSchemaRepository.findValueById(schemaId)
+			.map(value -> compile(schemaId, value))
+			.orElseThrow(() -> {
+				misses.put(schemaId, Boolean.TRUE);
+				return notFound(schemaId);
+			}));
+	}
+
+	/**
+	 * Compiles the schema of a new entity, without putting it into the cache. This lets a schema be rejected before it
+	 * is stored if it cannot be compiled, for instance because of a {@code $ref} that cannot be resolved.
+	 *
+	 * @param  entity                               the JSON Schema entity containing the schema definition; must not be null
+	 * @return                                      the compiled schema
+	 * @throws org.zalando.problem.ThrowableProblem BAD_REQUEST if the schema cannot be compiled
+	 */
+	public CompiledSchema compile(JsonSchemaEntity entity) {
+		try {
+			return compile(entity.getId(), entity.getValue());
+		} catch (final RuntimeException e) {
+			throw compilationFailed(entity, e);
+		}
+	}
+
+	/**
+	 * Compiles the schema of a new entity from its already parsed definition, without putting it into the cache.
+	 *
+	 * @param  entity                               the JSON Schema entity containing the schema definition; must not be null
+	 * @param  schemaNode                           the parsed schema definition of the entity; must not be null
+	 * @return                                      the compiled schema
+	 * @throws org.zalando.problem.ThrowableProblem BAD_REQUEST if the schema cannot be compiled
+	 */
+	public CompiledSchema compile(JsonSchemaEntity entity, JsonNode schemaNode) {
+		try {
+			return compile(entity.getId(), schemaNode, entity.getValue().length());
+		} catch (final RuntimeException e) {
+			throw compilationFailed(entity, e);
+		}
+	}
+
+	/**
+	 * Forgets a previously registered miss for the supplied schema ID, i.e. when a schema with that ID is created.
+	 *
+	 * @param schemaId the schema ID
+	 */
+	public void forgetMiss(String schemaId) {
+		misses.invalidate(schemaId);
+	}
+
+	/**
+	 * Evicts the compiled schema with the supplied ID from the cache.
+	 *
+	 * @param schemaId the schema ID
+	 */
+	public void evict(String schemaId) {
+		if (schemas.asMap().remove(schemaId) != null) {
+			countEviction(CAUSE_INVALIDATED);
+		}
+	}
+
+	/**
+	 * Evicts an invalidated schema once the transaction that invalidated it has been committed. Events published outside
+	 * of a transaction are processed immediately.
+	 *
+	 * @param event the invalidation event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onInvalidated(JsonSchemaInvalidatedEvent event) {
+		evict(event.schemaId());
+	}
+
+	/**
+	 * Puts a schema that was compiled as it was created into the cache, and forgets any miss registered for its ID, once
+	 * the transaction that created it has been committed. Events published outside of a transaction are processed
+	 * immediately.
+	 *
+	 * @param event the compilation event
+	 */
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onCompiled(JsonSchemaCompiledEvent event) {
+		final var compiled = event.compiled();
+		forgetMiss(compiled.id());
+		schemas.put(compiled.id(), CompletableFuture.completedFuture(compiled));
+	}
+
+	@PreDestroy
+	void shutdown() {
+		if (compilationExecutor != null) {
+			compilationExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Performs pending cache maintenance, such as evictions, immediately.
+	 */
+	void cleanUp() {
+		schemas.synchronous().cleanUp();
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private CompiledSchema get(String schemaId, Supplier<CompiledSchema> loader) {
+		// A failed future is removed from the cache by Caffeine
+		final var started = new AtomicBoolean();
+		final var pending = new CompletableFuture<CompiledSchema>();
+		final var future = schemas.get(schemaId, (_, _) -> {
+			started.set(true);
+			return compilationExecutor != null ? CompletableFuture.supplyAsync(loader, compilationExecutor) : pending;
+		});
+
+		if (started.get() && compilationExecutor == null) {
+			// Compiled on the caller's own thread, outside of the mapping function so that the cache is not locked meanwhile
+			try {
+				pending.complete(loader.get());
+			} catch (final RuntimeException | Error e) {
+				pending.completeExceptionally(e);
+			}
+		}
+		return await(schemaId, future);
+	}
+
+	private CompiledSchema await(String schemaId, CompletableFuture<CompiledSchema> future) {
+		try {
+			return compilationExecutor != null
+				? future.get(compilation.timeout().toMillis(), MILLISECONDS)
+				: future.get();
+		} catch (final TimeoutException _) {
+			throw compilationInProgress(schemaId);
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void onRemoval(String schemaId, RemovalCause cause) {
+		// Explicit removals are counted by evict(), replacements are not evictions
+		if (cause.wasEvicted()) {
+			countEviction(cause.name().toLowerCase(Locale.ROOT));
+		}
+		if (cause != RemovalCause.REPLACED) {
+			eventPublisher.publishEvent(new JsonSchemaEvictedEvent(schemaId));
+		}
+	}
+
+	private void countEviction(String cause) {
+		meterRegistry.counter(EVICTIONS_METRIC, "cause", cause).increment();
+	}
+
+	private CompiledSchema compile(String schemaId, String value) {
+		return compile(schemaId, InstanceMapper.toInstanceNode(value.getBytes(UTF_8)), value.length());
+	}
+
+	private CompiledSchema compile(String schemaId, JsonNode original, int sourceLength) {
+		final var start = System.nanoTime();
+		if (!optimizationEnabled) {
+			final var schema = registry.getSchema(original);
+			schema.initializeValidators();
+			return new CompiledSchema(schemaId, schema, null, SchemaAnalyzer.requiresAnnotationCollection(schema.getSchemaNode()), sourceLength, null, compilationTime(start));
+		}
+
+		final var optimized = SchemaOptimizer.optimize(original);
+		final var removed = optimized.nodesBefore() - optimized.nodesAfter();
+		if (removed > 0) {
+			LOGGER.info("Optimized schema with ID '{}' from {} to {} nodes", schemaId, optimized.nodesBefore(), optimized.nodesAfter());
+		}
+		meterRegistry.summary(OPTIMIZATION_METRIC, "schemaId", schemaId).record(removed);
+
+		final var schema = registry.getSchema(original);
 		schema.initializeValidators();
-		return schema;
+		if (optimized.schema().equals(original)) {
+			return new CompiledSchema(schemaId, schema, null, SchemaAnalyzer.requiresAnnotationCollection(schema.getSchemaNode()), sourceLength, optimized, compilationTime(start));
+		}
+
+		// Both schemas are kept, so both are weighed
+		final var optimizedSchema = registry.getSchema(optimized.schema());
+		optimizedSchema.initializeValidators();
+		final var weight = sourceLength + optimized.schema().toString().length();
+		return new CompiledSchema(schemaId, schema, optimizedSchema, SchemaAnalyzer.requiresAnnotationCollection(schema.getSchemaNode()), weight, optimized, compilationTime(start));
+	}
+
+	private Duration compilationTime(long start) {
+		final var compilationTime = Duration.ofNanos(System.nanoTime() - start);
+		meterRegistry.timer(COMPILATION_METRIC).record(compilationTime);
+		return compilationTime;
+	}
+
+	private static ThrowableProblem compilationFailed(JsonSchemaEntity entity, RuntimeException e) {
+		return Problem.valueOf(BAD_REQUEST, MESSAGE_JSON_SCHEMA_COMPILATION_FAILED.formatted(entity.getId(), e.getMessage()));
+	}
+
+	private static ThrowableProblem notFound(String schemaId) {
+		return Problem.valueOf(NOT_FOUND, MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID.formatted(schemaId));
+	}
+
+	private static ThrowableProblem compilationInProgress(String schemaId) {
+		return Problem.valueOf(SERVICE_UNAVAILABLE, MESSAGE_JSON_SCHEMA_COMPILATION_IN_PROGRESS.formatted(schemaId));
+	}
+
+	/**
+	 * Expires entries a fixed time after their last access, except for pinned entries which never expire.
+	 */
+	private record AccessExpiry(Duration expireAfterAccess, Set<String> pinnedIds) implements Expiry<String, CompiledSchema> {
+
+		@Override
+		public long expireAfterCreate(String schemaId, CompiledSchema compiled, long currentTime) {
+			return pinnedIds.contains(schemaId) ? Long.MAX_VALUE : expireAfterAccess.toNanos();
+		}
+
+		@Override
+		public long expireAfterUpdate(String schemaId, CompiledSchema compiled, long currentTime, long currentDuration) {
+			return expireAfterCreate(schemaId, compiled, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String schemaId, CompiledSchema compiled, long currentTime, long currentDuration) {
+			return expireAfterCreate(schemaId, compiled, currentTime);
+		}
 	}
 }
@@ -0,0 +1,166 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.OffsetDateTime.now;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
+import se.sundsvall.jsonschema.service.compiler.SampleInstanceGenerator;
+
+/**
+ * Preloads the schema cache at startup.
+ *
+ * <p>
+ * The schemas most used for validation within the configured recency window are compiled into the cache on a bounded
+ * thread pool. Preloading runs while the application is started, before the readiness state changes to
+ * ACCEPTING_TRAFFIC, so the first validations after a deploy are served from the cache. The time the warmup took is
+ * reported by the {@value #WARMUP_METRIC} metric.
+ * </p>
+ *
+ * <p>
+ * Optionally, a number of synthetic documents are then validated against the preloaded schemas, for a configured
+ * number of rounds or until a time limit is reached, so that the validation code paths are optimized by the JIT
+ * compiler before the first real requests arrive. Each schema is validated against a sample instance generated from
+ * it, see {@link SampleInstanceGenerator}, which reaches the validators of its properties, and against generic
+ * documents of every JSON type, which exercise the failing paths. Synthetic validations are not recorded as validation
+ * usage. The time they took is reported by the {@value #VALIDATION_WARMUP_METRIC} metric.
+ * </p>
+ *
+ * <p>
+ * Warmup is only an optimization: if it fails, the failure is logged and the application starts with a cold cache.
+ * </p>
+ */
+@Component
+public class JsonSchemaCacheWarmer {
+
+	static final String WARMUP_METRIC = "jsonschema.cache.warmup";
+	static final String VALIDATION_WARMUP_METRIC = "jsonschema.validation.warmup";
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaCacheWarmer.class);
+
+	/**
+	 * Documents of every JSON type, which together exercise the failing paths of most keywords.
+	 */
+	private static final List<byte[]> SYNTHETIC_DOCUMENTS = List.of(
+		"{}".getBytes(UTF_8),
+		"[]".getBytes(UTF_8),
+		"\"text\"".getBytes(UTF_8),
+		"1".getBytes(UTF_8),
+		"1.5".getBytes(UTF_8),
+		"true".getBytes(UTF_8),
+		"null".getBytes(UTF_8),
+		"""
+			{"id": "1", "name": "name", "email": "name@example.com", "date": "2025-01-01", "count": 1, "enabled": true,
+			 "tags": ["a", "b", "a"], "nested": {"value": 1.5, "items": [{"key": "value"}, null]}}""".getBytes(UTF_8));
+
+	private final JsonSchemaUsageRepository jsonSchemaUsageRepository;
+	private final JsonSchemaCache jsonSchemaCache;
+	private final JsonSchemaValidationService jsonSchemaValidationService;
+	private final JsonSchemaCacheProperties.Warmup warmup;
+	private final MeterRegistry meterRegistry;
+
+	public JsonSchemaCacheWarmer(final JsonSchemaUsageRepository jsonSchemaUsageRepository, final JsonSchemaCache jsonSchemaCache,
+		final JsonSchemaValidationService jsonSchemaValidationService, final JsonSchemaCacheProperties properties, final MeterRegistry meterRegistry) {
+		this.jsonSchemaUsageRepository = jsonSchemaUsageRepository;
+		this.jsonSchemaCache = jsonSchemaCache;
+		this.jsonSchemaValidationService = jsonSchemaValidationService;
+		this.warmup = properties.warmup();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Preloads the cache. Readiness is published after all ApplicationReadyEvent listeners have completed.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		if (!warmup.enabled()) {
+			return;
+		}
+
+		final var start = System.nanoTime();
+		final List<String> schemaIds;
+		try {
+			schemaIds = jsonSchemaUsageRepository.findIdsOfMostUsed(now().minus(warmup.recencyWindow()), Limit.of(warmup.maximumSchemas()));
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to find the most used schemas, the cache is not preloaded", e);
+			return;
+		}
+		final Queue<CompiledSchema> schemas = new ConcurrentLinkedQueue<>();
+
+		try (final var executor = Executors.newFixedThreadPool(warmup.parallelism(), Thread.ofPlatform().name("schema-warmup-", 0).factory())) {
+			schemaIds.forEach(schemaId -> executor.execute(() -> preload(schemaId, schemas)));
+		}
+
+		final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+		meterRegistry.timer(WARMUP_METRIC).record(elapsed);
+		LOGGER.info("Preloaded {} schema(s) into the cache in {} ms", schemas.size(), elapsed.toMillis());
+
+		if (warmup.validation().enabled() && !schemas.isEmpty()) {
+			warmUpValidation(List.copyOf(schemas));
+		}
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void preload(String schemaId, Queue<CompiledSchema> schemas) {
+		try {
+			schemas.add(jsonSchemaCache.getCompiledSchema(schemaId));
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to preload schema with ID '{}'", schemaId, e);
+		}
+	}
+
+	private void warmUpValidation(List<CompiledSchema> schemas) {
+		final var start = System.nanoTime();
+		final var deadline = start + warmup.validation().timeLimit().toNanos();
+		final var samples = HashMap.<CompiledSchema, byte[]>newHashMap(schemas.size());
+		schemas.forEach(schema -> samples.put(schema, sample(schema)));
+
+		var iterations = 0;
+		while (iterations < warmup.validation().iterations() && System.nanoTime() - deadline < 0) {
+			samples.forEach(this::validateSyntheticDocuments);
+			iterations++;
+		}
+
+		final var elapsed = Duration.ofNanos(System.nanoTime() - start);
+		meterRegistry.timer(VALIDATION_WARMUP_METRIC).record(elapsed);
+		LOGGER.info("Completed {} round(s) of synthetic validations against {} schema(s) in {} ms", iterations, schemas.size(), elapsed.toMillis());
+	}
+
+	private static byte[] sample(CompiledSchema schema) {
+		try {
+			return SampleInstanceGenerator.generate(schema.schema().getSchemaNode()).toString().getBytes(UTF_8);
+		} catch (final RuntimeException e) {
+			LOGGER.debug("Failed to generate a sample instance of schema with ID '{}'", schema.id(), e);
+			return "{}".getBytes(UTF_8);
+		}
+	}
+
+	private void validateSyntheticDocuments(CompiledSchema schema, byte[] sample) {
+		validateSyntheticDocument(schema, sample);
+		SYNTHETIC_DOCUMENTS.forEach(document -> validateSyntheticDocument(schema, document));
+	}
+
+	private void validateSyntheticDocument(CompiledSchema schema, byte[] document) {
+		// Same path as a validation request: parse the raw bytes, then validate the tree
+		try {
+			jsonSchemaValidationService.validate(toInstanceNode(document), schema);
+		} catch (final RuntimeException e) {
+			LOGGER.debug("Synthetic validation failed", e);
+		}
+	}
+}
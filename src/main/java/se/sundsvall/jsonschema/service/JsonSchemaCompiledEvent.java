@@ -0,0 +1,15 @@
+package se.sundsvall.jsonschema.service;
+
+/**
+ * Event published when a JSON schema has been compiled as it was created, so that the compiled schema can be served
+ * from the cache without being compiled again.
+ *
+ * <p>
+ * Listeners are expected to react after the surrounding transaction has been committed, so that a schema whose
+ * creation is rolled back never becomes visible.
+ * </p>
+ *
+ * @param compiled the compiled schema
+ */
+public record JsonSchemaCompiledEvent(CompiledSchema compiled) {
+}
@@ -0,0 +1,10 @@
+package se.sundsvall.jsonschema.service;
+
+/**
+ * Event published when a compiled schema leaves the cache, regardless of cause, so that state derived from it (such as
+ * cached validation results) can be discarded as well.
+ *
+ * @param schemaId the ID of the evicted schema
+ */
+public record JsonSchemaEvictedEvent(String schemaId) {
+}
@@ -0,0 +1,15 @@
+package se.sundsvall.jsonschema.service;
+
+/**
+ * Event published when a stored JSON schema is removed or changed, and all derived state held in memory (such as the
+ * compiled schema) must be discarded.
+ *
+ * <p>
+ * Listeners are expected to react after the surrounding transaction has been committed, so that a rolled back change
+ * never invalidates anything.
+ * </p>
+ *
+ * @param schemaId the ID of the invalidated schema
+ */
+public record JsonSchemaInvalidatedEvent(String schemaId) {
+}
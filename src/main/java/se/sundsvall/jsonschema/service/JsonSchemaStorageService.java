@@ -1,34 +1,63 @@
 package se.sundsvall.jsonschema.service;
 
 import static java.util.Comparator.comparing;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static org.springframework.data.domain.Pageable.unpaged;
+import static org.zalando.problem.Status.BAD_REQUEST;
 import static org.zalando.problem.Status.CONFLICT;
 import static org.zalando.problem.Status.NOT_FOUND;
 import static se.sundsvall.jsonschema.service.Constants.JSON_SCHEMA_ALREADY_EXISTS;
 import static se.sundsvall.jsonschema.service.Constants.JSON_SCHEMA_WITH_GREATER_VERSION_EXISTS;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_COMPLEXITY_BUDGET_EXCEEDED;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_COMPLEXITY_LIMIT_EXCEEDED;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_COMPLEXITY_RECURSION_NOT_ALLOWED;
 import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID;
 import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_NAME;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.treeToInstanceNode;
 import static se.sundsvall.jsonschema.service.mapper.JsonSchemaMapper.toJsonSchema;
 import static se.sundsvall.jsonschema.service.mapper.JsonSchemaMapper.toJsonSchemaEntity;
 
+import java.util.ArrayList;
 import org.apache.maven.artifact.versioning.ComparableVersion;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.zalando.problem.Problem;
 import se.sundsvall.jsonschema.api.model.JsonSchema;
 import se.sundsvall.jsonschema.api.model.JsonSchemaRequest;
+import se.sundsvall.jsonschema.configuration.JsonSchemaComplexityProperties;
 import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
+import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
+import se.sundsvall.jsonschema.integration.db.model.JsonSchemaUsageEntity;
+import se.sundsvall.jsonschema.service.compiler.SchemaComplexity;
+import se.sundsvall.jsonschema.service.compiler.SchemaComplexityAnalyzer;
 import se.sundsvall.jsonschema.service.mapper.JsonSchemaMapper;
 
 @Service
+@EnableConfigurationProperties(JsonSchemaComplexityProperties.class)
 public class JsonSchemaStorageService {
 
 	private final JsonSchemaRepository jsonSchemaRepository;
-
-	public JsonSchemaStorageService(JsonSchemaRepository jsonSchemaRepository) {
+	private final JsonSchemaUsageRepository jsonSchemaUsageRepository;
+	private final JsonSchemaCache jsonSchemaCache;
+	private final ApplicationEventPublisher eventPublisher;
+	private final JsonSchemaComplexityProperties complexityProperties;
+	private final TransactionTemplate transactionTemplate;
+
+	public JsonSchemaStorageService(JsonSchemaRepository jsonSchemaRepository, JsonSchemaUsageRepository jsonSchemaUsageRepository, JsonSchemaCache jsonSchemaCache,
+		ApplicationEventPublisher eventPublisher, JsonSchemaComplexityProperties complexityProperties, PlatformTransactionManager transactionManager) {
 		this.jsonSchemaRepository = jsonSchemaRepository;
+		this.jsonSchemaUsageRepository = jsonSchemaUsageRepository;
+		this.jsonSchemaCache = jsonSchemaCache;
+		this.eventPublisher = eventPublisher;
+		this.complexityProperties = complexityProperties;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
 	}
 
 	/**
@@ -76,26 +105,46 @@ public class JsonSchemaStorageService {
 	}
 
 	/**
-	 * Create new schema or a new version of an existing schema.
+	 * Create new schema or a new version of an existing schema. The complexity of the schema is analyzed, checked against
+	 * the budget of the municipality and stored with the schema. The schema is then compiled, and the time it took is
+	 * stored with the schema. The compiled schema is put into the cache once the creation has been committed, so the
+	 * first validation against it does not have to compile it. The schema is only parsed once, and the analysis and the
+	 * compilation run before the transaction that stores the schema is opened, so it is not held open while they run.
 	 *
 	 * @param  municipalityId                       the municipality ID
 	 * @param  request                              the schema request
 	 * @return                                      the created {@link JsonSchema}
-	 * @throws org.zalando.problem.ThrowableProblem if a conflicting schema already exists
+	 * @throws org.zalando.problem.ThrowableProblem if a conflicting schema already exists, if the schema exceeds the
+	 *                                              complexity budget, or if it cannot be compiled
 	 */
-	@Transactional
 	public JsonSchema create(String municipalityId, JsonSchemaRequest request) {
 		final var schemaEntity = toJsonSchemaEntity(municipalityId, request);
 
 		validateSchemaDoesNotAlreadyExist(schemaEntity.getId());
 		validateNoGreaterVersionExists(municipalityId, request);
 
+		// The request has already been parsed, so the tree is copied rather than the stored value parsed again
+		final var schemaNode = treeToInstanceNode(request.getValue());
+		final var complexity = SchemaComplexityAnalyzer.analyze(schemaNode);
+		validateComplexityWithinBudget(municipalityId, complexity);
+		storeComplexity(schemaEntity, complexity);
+
+		final var compiled = jsonSchemaCache.compile(schemaEntity, schemaNode);
+		schemaEntity.withCompilationTimeMicros(NANOSECONDS.toMicros(compiled.compilationTime().toNanos()));
+
 		// All good! Create schema.
-		return toJsonSchema(jsonSchemaRepository.save(schemaEntity));
+		final var created = transactionTemplate.execute(_ -> {
+			final var saved = jsonSchemaRepository.save(schemaEntity);
+			jsonSchemaUsageRepository.save(JsonSchemaUsageEntity.create().withJsonSchemaId(saved.getId()));
+			eventPublisher.publishEvent(new JsonSchemaCompiledEvent(compiled));
+			return saved;
+		});
+
+		return toJsonSchema(created);
 	}
 
 	/**
-	 * Delete an existing schema.
+	 * Delete an existing schema. The compiled schema is evicted from the cache once the deletion has been committed.
 	 *
 	 * @param  municipalityId                       the municipality ID
 	 * @param  id                                   the schema ID
@@ -106,7 +155,9 @@ public class JsonSchemaStorageService {
 		jsonSchemaRepository.findByMunicipalityIdAndId(municipalityId, id)
 			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID.formatted(id)));
 
+		jsonSchemaUsageRepository.deleteById(id);
 		jsonSchemaRepository.deleteById(id);
+		eventPublisher.publishEvent(new JsonSchemaInvalidatedEvent(id));
 	}
 
 	// ---- Private helpers ------------------------------------------------------
@@ -127,4 +178,37 @@ public class JsonSchemaStorageService {
 				throw Problem.valueOf(CONFLICT, JSON_SCHEMA_WITH_GREATER_VERSION_EXISTS.formatted(existing.getId()));
 			});
 	}
+
+	private void validateComplexityWithinBudget(String municipalityId, SchemaComplexity complexity) {
+		final var budget = complexityProperties.budgetFor(municipalityId);
+		final var exceeded = new ArrayList<String>();
+
+		if (complexity.nodeCount() > budget.maximumNodes()) {
+			exceeded.add(MESSAGE_COMPLEXITY_LIMIT_EXCEEDED.formatted("node count", complexity.nodeCount(), budget.maximumNodes()));
+		}
+		if (complexity.maxDepth() > budget.maximumDepth()) {
+			exceeded.add(MESSAGE_COMPLEXITY_LIMIT_EXCEEDED.formatted("depth", complexity.maxDepth(), budget.maximumDepth()));
+		}
+		if (complexity.maxBranching() > budget.maximumBranching()) {
+			exceeded.add(MESSAGE_COMPLEXITY_LIMIT_EXCEEDED.formatted("branching", complexity.maxBranching(), budget.maximumBranching()));
+		}
+		if (complexity.recursive() && !budget.recursionAllowed()) {
+			exceeded.add(MESSAGE_COMPLEXITY_RECURSION_NOT_ALLOWED);
+		}
+		if (complexity.estimatedEvaluations() > budget.maximumEvaluations()) {
+			exceeded.add(MESSAGE_COMPLEXITY_LIMIT_EXCEEDED.formatted("estimated evaluations", complexity.estimatedEvaluations(), budget.maximumEvaluations()));
+		}
+
+		if (!exceeded.isEmpty()) {
+			throw Problem.valueOf(BAD_REQUEST, MESSAGE_COMPLEXITY_BUDGET_EXCEEDED.formatted(String.join(", ", exceeded)));
+		}
+	}
+
+	private static void storeComplexity(JsonSchemaEntity entity, SchemaComplexity complexity) {
+		entity.withComplexityEstimatedEvaluations(complexity.estimatedEvaluations())
+			.withComplexityMaxBranching(complexity.maxBranching())
+			.withComplexityMaxDepth(complexity.maxDepth())
+			.withComplexityNodeCount(complexity.nodeCount())
+			.withComplexityRecursive(complexity.recursive());
+	}
 }
@@ -0,0 +1,140 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.time.ZoneId.systemDefault;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
+
+/**
+ * Write-behind aggregation of validation usage statistics.
+ *
+ * <p>
+ * Validation attempts are counted in memory, per schema ID, using striped counters and a last-used timestamp. The
+ * aggregated values are periodically flushed to the database as atomic increments, all within one transaction. A
+ * final flush is made when the application shuts down gracefully. Counts that fail to be flushed are kept and retried
+ * on the next flush. Flushes never overlap, so that the scheduled and the final flush cannot both write the same
+ * counts.
+ * </p>
+ *
+ * <p>
+ * Entries that have nothing left to write after a successful flush are dropped, so that schemas that are no longer
+ * used, or have been deleted, do not stay in memory.
+ * </p>
+ */
+@Component
+public class JsonSchemaUsageTracker {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(JsonSchemaUsageTracker.class);
+
+	private final Map<String, Usage> usages = new ConcurrentHashMap<>();
+	private final JsonSchemaUsageRepository jsonSchemaUsageRepository;
+	private final TransactionTemplate transactionTemplate;
+
+	public JsonSchemaUsageTracker(final JsonSchemaUsageRepository jsonSchemaUsageRepository, final PlatformTransactionManager transactionManager) {
+		this.jsonSchemaUsageRepository = jsonSchemaUsageRepository;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Registers one validation attempt for the schema with the supplied ID.
+	 *
+	 * @param schemaId the schema ID
+	 */
+	public void register(final String schemaId) {
+		final var timestampMillis = System.currentTimeMillis();
+		Usage usage;
+		do {
+			// A retired entry is being dropped by a flush, so the registration is retried on its replacement
+			usage = usages.computeIfAbsent(schemaId, _ -> new Usage());
+		} while (!usage.register(timestampMillis));
+	}
+
+	/**
+	 * Flushes all pending usage statistics to the database.
+	 */
+	@Scheduled(fixedDelayString = "${jsonschema.usage.flush-interval:PT10S}", initialDelayString = "${jsonschema.usage.flush-interval:PT10S}")
+	public synchronized void flush() {
+		final var pending = new HashMap<String, Snapshot>();
+		usages.forEach((schemaId, usage) -> {
+			final var count = usage.count();
+			if (count > 0) {
+				pending.put(schemaId, new Snapshot(count, usage.lastUsed()));
+			}
+		});
+
+		if (pending.isEmpty()) {
+			return;
+		}
+
+		try {
+			transactionTemplate.executeWithoutResult(_ -> pending.forEach((schemaId, snapshot) -> jsonSchemaUsageRepository.incrementValidationUsage(schemaId, snapshot.count(), snapshot.lastUsed())));
+			pending.forEach((schemaId, snapshot) -> usages.get(schemaId).subtract(snapshot.count()));
+			usages.values().removeIf(Usage::retireIfIdle);
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to flush validation usage statistics for {} schema(s), will retry on next flush", pending.size(), e);
+		}
+	}
+
+	@PreDestroy
+	void flushOnShutdown() {
+		flush();
+	}
+
+	private static final class Usage {
+
+		private final LongAdder counter = new LongAdder();
+		private final LongAccumulator lastUsedMillis = new LongAccumulator(Math::max, 0);
+		private volatile boolean retired;
+
+		/**
+		 * Returns false if the entry has been retired, in which case the registration is not flushed.
+		 */
+		boolean register(final long timestampMillis) {
+			counter.increment();
+			lastUsedMillis.accumulate(timestampMillis);
+			return !retired;
+		}
+
+		/**
+		 * Retires the entry if it has nothing left to write. A registration that is counted before the check keeps the
+		 * entry, and one that is counted after it sees the entry as retired.
+		 */
+		boolean retireIfIdle() {
+			if (count() != 0) {
+				return false;
+			}
+			retired = true;
+			return true;
+		}
+
+		long count() {
+			return counter.sum();
+		}
+
+		/**
+		 * Subtracts the flushed amount rather than resetting, so that increments made during a flush are not lost.
+		 */
+		void subtract(final long flushed) {
+			counter.add(-flushed);
+		}
+
+		OffsetDateTime lastUsed() {
+			return OffsetDateTime.ofInstant(Instant.ofEpochMilli(lastUsedMillis.get()), systemDefault());
+		}
+	}
+
+	private record Snapshot(long count, OffsetDateTime lastUsed) {}
+}
@@ -4,57 +4,125 @@ import static com.networknt.schema.InputFormat.JSON;
 import static java.util.Locale.ENGLISH;
 import static java.util.Optional.ofNullable;
 import static org.zalando.problem.Status.BAD_REQUEST;
-import static org.zalando.problem.Status.NOT_FOUND;
-import static se.sundsvall.jsonschema.service.Constants.MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FIRST_ERROR;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_BATCH_NOT_AN_ARRAY;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_BATCH_TOO_LARGE;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_INVALID_JSON;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_INVALID_JSON_LINE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.networknt.schema.Error;
 import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.OutputFormat;
 import com.networknt.schema.Schema;
-import java.time.OffsetDateTime;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.jooq.lambda.Unchecked;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.zalando.problem.Problem;
+import org.zalando.problem.ThrowableProblem;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import org.zalando.problem.violations.Violation;
-import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
-import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
+import se.sundsvall.jsonschema.api.model.OutputMode;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import se.sundsvall.jsonschema.service.compiler.Verdict;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
 
 @Service
+@EnableConfigurationProperties(JsonSchemaValidationProperties.class)
 public class JsonSchemaValidationService {
 
 	private static final Locale LOCALE = ENGLISH;
+	private static final ObjectWriter RESULT_WRITER = new ObjectMapper().writerFor(ValidationResult.class);
+	private static final int NEWLINE = '\n';
+	private static final int LINE_BUFFER_SIZE = 8192;
 
-	private final JsonSchemaRepository jsonSchemaRepository;
 	private final JsonSchemaCache jsonSchemaCache;
+	private final JsonSchemaUsageTracker jsonSchemaUsageTracker;
+	private final JsonSchemaValidationProperties properties;
+	private final ValidationResultCache validationResultCache;
+	private final ValidatorTiering validatorTiering;
+	private final ValidationBudgets validationBudgets;
+	private final PayloadLimits payloadLimits;
 
-	public JsonSchemaValidationService(final JsonSchemaRepository jsonSchemaRepository, final JsonSchemaCache jsonSchemaCache) {
-		this.jsonSchemaRepository = jsonSchemaRepository;
+	public JsonSchemaValidationService(final JsonSchemaCache jsonSchemaCache, final JsonSchemaUsageTracker jsonSchemaUsageTracker, final JsonSchemaValidationProperties properties,
+		final ValidationResultCache validationResultCache, final ValidatorTiering validatorTiering, final ValidationBudgets validationBudgets, final PayloadLimits payloadLimits) {
 		this.jsonSchemaCache = jsonSchemaCache;
+		this.jsonSchemaUsageTracker = jsonSchemaUsageTracker;
+		this.properties = properties;
+		this.validationResultCache = validationResultCache;
+		this.validatorTiering = validatorTiering;
+		this.validationBudgets = validationBudgets;
+		this.payloadLimits = payloadLimits;
 	}
 
 	/**
-	 * Validates input JSON against a schema by ID.
+	 * Validates input JSON against a schema by ID, within the validation budget.
 	 *
-	 * @param  input    JSON input
-	 * @param  schemaId schema ID
-	 * @return          validation messages (empty if valid)
+	 * @param  input                                JSON input
+	 * @param  schemaId                             schema ID
+	 * @return                                      validation messages (empty if valid)
+	 * @throws org.zalando.problem.ThrowableProblem UNPROCESSABLE_ENTITY if the validation exhausted its budget
 	 */
 	public List<Error> validate(String input, String schemaId) {
-		return validate(input, resolveSchema(schemaId));
+		final var compiled = resolveSchema(schemaId);
+
+		return validationBudgets.run(schemaId, () -> ofNullable(compiled.schema().validate(input, JSON, executionContextCustomizer(compiled.annotationCollectionRequired(), false)))
+			.orElseGet(Collections::emptyList));
 	}
 
 	/**
-	 * Validates input JSON against a schema.
+	 * Validates an already parsed JSON tree against a compiled schema. Annotations are only collected if the schema
+	 * requires them.
+	 *
+	 * @param  input    JSON input as a parsed tree
+	 * @param  compiled compiled schema
+	 * @return          validation messages (empty if valid)
+	 */
+	public List<Error> validate(JsonNode input, CompiledSchema compiled) {
+		return ofNullable(compiled.schema().validate(input, executionContextCustomizer(compiled.annotationCollectionRequired(), false)))
+			.orElseGet(Collections::emptyList);
+	}
+
+	/**
+	 * Validates input JSON against a schema. As nothing is known about the schema, annotations are always collected.
 	 *
 	 * @param  input  JSON input
 	 * @param  schema JsonSchema
 	 * @return        validation messages (empty if valid)
 	 */
 	public List<Error> validate(String input, Schema schema) {
-		return ofNullable(schema.validate(input, JSON, JsonSchemaValidationService::configureExecutionContext))
+		return ofNullable(schema.validate(input, JSON, executionContextCustomizer(true, false)))
+			.orElseGet(Collections::emptyList);
+	}
+
+	/**
+	 * Validates an already parsed JSON tree against a schema. As nothing is known about the schema, annotations are
+	 * always collected.
+	 *
+	 * @param  input  JSON input as a parsed tree
+	 * @param  schema JsonSchema
+	 * @return        validation messages (empty if valid)
+	 */
+	public List<Error> validate(JsonNode input, Schema schema) {
+		return ofNullable(schema.validate(input, executionContextCustomizer(true, false)))
 			.orElseGet(Collections::emptyList);
 	}
 
@@ -66,7 +134,7 @@ public class JsonSchemaValidationService {
 	 * @throws ConstraintViolationProblem BAD_REQUEST if input is invalid
 	 */
 	public void validateAndThrow(String input, String schemaId) {
-		validateAndThrow(input, resolveSchema(schemaId));
+		throwOnErrors(validate(input, schemaId));
 	}
 
 	/**
@@ -77,37 +145,278 @@ public class JsonSchemaValidationService {
 	 * @throws ConstraintViolationProblem BAD_REQUEST if input is invalid
 	 */
 	public void validateAndThrow(String input, Schema schema) {
-		final var violations = validate(input, schema).stream()
-			.map(error -> new Violation(Optional.ofNullable(error.getInstanceLocation()).map(Object::toString).orElse(""), error.getMessage()))
-			.toList();
+		throwOnErrors(validate(input, schema));
+	}
+
+	/**
+	 * Validates a JSON request body against a schema by ID and throws on errors. The body is parsed once, directly into
+	 * the tree consumed by the validator, within the payload limits of the municipality.
+	 *
+	 * @param  municipalityId             municipality ID
+	 * @param  input                      JSON input as a stream
+	 * @param  schemaId                   schema ID
+	 * @param  outputMode                 level of detail of the violations in the thrown problem
+	 * @throws ConstraintViolationProblem BAD_REQUEST if input is invalid (without violations in {@link OutputMode#FLAG}
+	 *                                    mode)
+	 * @throws ThrowableProblem           BAD_REQUEST if input is not parseable JSON, REQUEST_ENTITY_TOO_LARGE if it
+	 *                                    exceeds the payload limits, UNPROCESSABLE_ENTITY if the validation exhausted
+	 *                                    its budget
+	 */
+	public void validateAndThrow(String municipalityId, InputStream input, String schemaId, OutputMode outputMode) {
+		final var result = validate(0, parse(municipalityId, input), resolveSchema(schemaId), outputMode);
+
+		if (!result.getValid()) {
+			throw new ConstraintViolationProblem(BAD_REQUEST, result.getViolations());
+		}
+	}
+
+	/**
+	 * Validates a batch of JSON documents against a schema by ID. The schema is resolved, and its usage registered, once
+	 * for the whole batch. Large batches are validated in parallel when enabled, with results in input order. The payload
+	 * limits of the municipality apply to the batch as a whole.
+	 *
+	 * @param  municipalityId                       municipality ID
+	 * @param  input                                a JSON array of documents, as a stream
+	 * @param  schemaId                             schema ID
+	 * @param  outputMode                           level of detail of each validation result
+	 * @return                                      one validation result per document, in the order of the input
+	 * @throws org.zalando.problem.ThrowableProblem BAD_REQUEST if input is not a parseable JSON array or exceeds the
+	 *                                              maximum batch size, REQUEST_ENTITY_TOO_LARGE if it exceeds the
+	 *                                              payload limits, UNPROCESSABLE_ENTITY if the validation of a document
+	 *                                              exhausted its budget
+	 */
+	public List<ValidationResult> validateBatch(String municipalityId, InputStream input, String schemaId, OutputMode outputMode) {
+		final var documents = parse(municipalityId, input);
+		if (!documents.isArray()) {
+			throw Problem.valueOf(BAD_REQUEST, MESSAGE_BATCH_NOT_AN_ARRAY);
+		}
+		if (documents.size() > properties.batch().maximumSize()) {
+			throw Problem.valueOf(BAD_REQUEST, MESSAGE_BATCH_TOO_LARGE.formatted(documents.size(), properties.batch().maximumSize()));
+		}
+
+		final var schema = resolveSchema(schemaId);
+
+		if (!isParallel(documents.size())) {
+			return IntStream.range(0, documents.size())
+				.mapToObj(index -> validate(index, documents.get(index), schema, outputMode))
+				.toList();
+		}
+
+		final var results = new ArrayList<ValidationResult>(documents.size());
+		try (final var executor = new OrderedParallelExecutor<ValidationResult>(properties.parallel().maximumPerRequest(), results::add)) {
+			IntStream.range(0, documents.size())
+				.forEach(index -> executor.submit(() -> validate(index, documents.get(index), schema, outputMode)));
+			executor.drain();
+		}
+		return results;
+	}
+
+	/**
+	 * Validates a stream of newline delimited JSON (NDJSON) documents against a schema by ID. The schema is resolved, and
+	 * its usage registered, once for the whole stream, before any document is read.
+	 *
+	 * <p>
+	 * The input is read and validated one line at a time, and the result of each line is written as soon as it is
+	 * available, so memory use does not depend on the size of the input. Blank lines are skipped. The payload limits of
+	 * the municipality apply to each line, and no more than the maximum size of a line is buffered. A line that is not
+	 * valid JSON, exceeds the payload limits, or whose validation exhausts its budget, is reported as an invalid
+	 * document, and does not end the stream. When parallel validation is enabled, lines are validated concurrently,
+	 * within a bounded window, while results are still written in input order.
+	 * </p>
+	 *
+	 * @param  municipalityId                       municipality ID
+	 * @param  input                                NDJSON input
+	 * @param  schemaId                             schema ID
+	 * @param  failuresOnly                         if true, only results of invalid documents are written
+	 * @param  outputMode                           level of detail of each validation result
+	 * @return                                      a body that writes one NDJSON validation result per line, where the
+	 *                                              index is the zero based line number in the input
+	 * @throws org.zalando.problem.ThrowableProblem NOT_FOUND if no schema with the supplied ID exists
+	 */
+	public StreamingResponseBody validateStream(String municipalityId, InputStream input, String schemaId, boolean failuresOnly, OutputMode outputMode) {
+		final var schema = resolveSchema(schemaId);
+
+		return output -> validateLines(municipalityId, input, output, schema, failuresOnly, outputMode);
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void validateLines(String municipalityId, InputStream input, OutputStream output, CompiledSchema schema, boolean failuresOnly, OutputMode outputMode) throws IOException {
+		// A failed write, such as when the client has disconnected, ends the stream and interrupts the validations in flight
+		final var maximumLength = payloadLimits.maximumSize(municipalityId);
+		final Consumer<ValidationResult> writer = Unchecked.consumer(result -> {
+			if (!failuresOnly || !result.getValid()) {
+				output.write(RESULT_WRITER.writeValueAsBytes(result));
+				output.write(NEWLINE);
+			}
+		});
+
+		if (!properties.parallel().enabled()) {
+			forEachLine(input, maximumLength, (line, index) -> writer.accept(validateLine(municipalityId, index, line, schema, outputMode)));
+		} else {
+			try (final var executor = new OrderedParallelExecutor<>(properties.parallel().maximumPerRequest(), writer)) {
+				forEachLine(input, maximumLength, (line, index) -> executor.submit(() -> validateLine(municipalityId, index, line, schema, outputMode)));
+				executor.drain();
+			}
+		}
+		output.flush();
+	}
+
+	/**
+	 * Splits the input into lines of raw bytes, which is safe for UTF-8 as the newline byte is never part of a multibyte
+	 * character. Of a line longer than the maximum length, only the maximum length plus one byte is kept, so that it is
+	 * still rejected as too large without being buffered.
+	 */
+	private static void forEachLine(InputStream input, long maximumLength, ObjIntConsumer<byte[]> action) throws IOException {
+		final var buffer = new byte[LINE_BUFFER_SIZE];
+		final var line = new ByteArrayOutputStream();
+		final var lineLimit = maximumLength + 1;
+		var index = 0;
+
+		for (var read = input.read(buffer); read != -1; read = input.read(buffer)) {
+			var start = 0;
+			for (var end = 0; end < read; end++) {
+				if (buffer[end] == NEWLINE) {
+					appendWithin(line, buffer, start, end - start, lineLimit);
+					acceptLine(line, index++, action);
+					start = end + 1;
+				}
+			}
+			appendWithin(line, buffer, start, read - start, lineLimit);
+		}
+		acceptLine(line, index, action);
+	}
+
+	private static void appendWithin(ByteArrayOutputStream line, byte[] buffer, int offset, int length, long limit) {
+		line.write(buffer, offset, (int) Math.min(length, Math.max(0, limit - line.size())));
+	}
+
+	private static void acceptLine(ByteArrayOutputStream line, int index, ObjIntConsumer<byte[]> action) {
+		final var bytes = line.toByteArray();
+		line.reset();
+		if (!isBlank(bytes)) {
+			action.accept(bytes, index);
+		}
+	}
+
+	private static boolean isBlank(byte[] line) {
+		for (final var b : line) {
+			if (!Character.isWhitespace(b)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean isParallel(int numberOfDocuments) {
+		return properties.parallel().enabled() && numberOfDocuments >= properties.parallel().minimumBatchSize();
+	}
+
+	private ValidationResult validateLine(String municipalityId, int index, byte[] line, CompiledSchema schema, OutputMode outputMode) {
+		try {
+			return validate(index, payloadLimits.read(municipalityId, line), schema, outputMode);
+		} catch (final JacksonException e) {
+			return invalidLine(index, MESSAGE_INVALID_JSON_LINE.formatted(e.getOriginalMessage()));
+		} catch (final ThrowableProblem e) {
+			return invalidLine(index, e.getDetail());
+		}
+	}
+
+	private static ValidationResult invalidLine(int index, String message) {
+		return ValidationResult.create()
+			.withIndex(index)
+			.withValid(false)
+			.withViolations(List.of(new Violation("", message)));
+	}
+
+	private ValidationResult validate(int index, JsonNode input, CompiledSchema compiled, OutputMode outputMode) {
+		final var result = validationResultCache.get(compiled.id(), outputMode, input, () -> validationBudgets.run(compiled.id(), () -> evaluate(input, compiled, outputMode)));
+
+		// Cached results are shared, so each caller gets its own copy
+		return ValidationResult.create()
+			.withIndex(index)
+			.withValid(result.getValid())
+			.withViolations(result.getViolations());
+	}
+
+	private ValidationResult evaluate(JsonNode input, CompiledSchema compiled, OutputMode outputMode) {
+		// A specialized validator decides valid documents on its own, the interpreter is only needed to describe failures
+		final var verdict = validatorTiering.getSpecializedValidator(compiled)
+			.map(validator -> validator.validate(input))
+			.orElse(Verdict.UNKNOWN);
+		if (verdict == Verdict.VALID || (verdict == Verdict.INVALID && outputMode == FLAG)) {
+			return ValidationResult.create()
+				.withValid(verdict == Verdict.VALID)
+				.withViolations(List.of());
+		}
+
+		final var schema = compiled.schemaFor(outputMode);
+		final var annotationCollection = compiled.annotationCollectionRequired();
+
+		if (outputMode == FLAG) {
+			// The boolean output format stops at the first failure, and builds no error list
+			final var valid = schema.validate(input, OutputFormat.BOOLEAN, executionContextCustomizer(annotationCollection, false));
+
+			return ValidationResult.create()
+				.withValid(Boolean.TRUE.equals(valid))
+				.withViolations(List.of());
+		}
+
+		return toValidationResult(ofNullable(schema.validate(input, executionContextCustomizer(annotationCollection, outputMode == FIRST_ERROR)))
+			.orElseGet(Collections::emptyList));
+	}
+
+	private static void throwOnErrors(List<Error> errors) {
+		final var violations = toViolations(errors);
 
 		if (!violations.isEmpty()) {
 			throw new ConstraintViolationProblem(BAD_REQUEST, violations);
 		}
 	}
 
-	// ---- Private helpers ------------------------------------------------------
+	private static List<Violation> toViolations(List<Error> errors) {
+		return errors.stream()
+			.map(error -> new Violation(Optional.ofNullable(error.getInstanceLocation()).map(Object::toString).orElse(""), error.getMessage()))
+			.toList();
+	}
 
-	private Schema resolveSchema(String schemaId) {
-		final var entity = jsonSchemaRepository.findById(schemaId)
-			.orElseThrow(() -> Problem.valueOf(NOT_FOUND, MESSAGE_JSON_SCHEMA_NOT_FOUND_BY_ID.formatted(schemaId)));
+	private static ValidationResult toValidationResult(List<Error> errors) {
+		return ValidationResult.create()
+			.withValid(errors.isEmpty())
+			.withViolations(toViolations(errors));
+	}
 
-		registerValidationAttempt(entity);
+	private JsonNode parse(String municipalityId, InputStream input) {
+		return parse(() -> payloadLimits.read(municipalityId, input));
+	}
 
-		return jsonSchemaCache.getSchema(entity);
+	private static JsonNode parse(Supplier<JsonNode> parser) {
+		try {
+			return Optional.ofNullable(parser.get())
+				.orElseThrow(() -> Problem.valueOf(BAD_REQUEST, MESSAGE_INVALID_JSON.formatted("no content")));
+		} catch (final JacksonException e) {
+			throw Problem.valueOf(BAD_REQUEST, MESSAGE_INVALID_JSON.formatted(e.getOriginalMessage()));
+		}
 	}
 
-	private void registerValidationAttempt(final JsonSchemaEntity entity) {
-		jsonSchemaRepository.save(entity
-			.withLastUsedForValidation(OffsetDateTime.now())
-			.withValidationUsageCount(entity.getValidationUsageCount() + 1));
+	private CompiledSchema resolveSchema(String schemaId) {
+		final var schema = jsonSchemaCache.getCompiledSchema(schemaId);
+
+		jsonSchemaUsageTracker.register(schemaId);
+
+		return schema;
 	}
 
-	private static void configureExecutionContext(ExecutionContext executionContext) {
-		executionContext.executionConfig(config -> config
-			.annotationCollectionEnabled(true)
-			.annotationCollectionFilter(_ -> true)
+	/**
+	 * Annotations are costly to collect, as they are gathered for every evaluated keyword, and are therefore only
+	 * collected when the schema has keywords that depend on them.
+	 */
+	private static Consumer<ExecutionContext> executionContextCustomizer(boolean annotationCollection, boolean failFast) {
+		return executionContext -> executionContext.executionConfig(config -> config
+			.annotationCollectionEnabled(annotationCollection)
+			.annotationCollectionFilter(_ -> annotationCollection)
 			.locale(LOCALE)
-			.formatAssertionsEnabled(true));
+			.formatAssertionsEnabled(true)
+			.failFast(failFast));
 	}
 }
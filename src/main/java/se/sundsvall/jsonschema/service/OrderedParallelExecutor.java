@@ -0,0 +1,91 @@
+package se.sundsvall.jsonschema.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks in parallel on virtual threads, while handing their results to a consumer in the order the tasks were
+ * submitted.
+ *
+ * <p>
+ * At most {@code parallelism} tasks run at the same time, which caps the share of the (CPU bound) carrier threads one
+ * request can occupy. At most {@code parallelism * WINDOW_FACTOR} results are held in memory; when the window is full,
+ * submitting waits for the oldest task to complete and hands over its result. Instances are used by one thread only and
+ * must be closed after use.
+ * </p>
+ *
+ * @param <T> the result type
+ */
+final class OrderedParallelExecutor<T> implements AutoCloseable {
+
+	private static final int WINDOW_FACTOR = 4;
+
+	private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+	private final Deque<Future<T>> inFlight = new ArrayDeque<>();
+	private final Semaphore permits;
+	private final int window;
+	private final Consumer<T> consumer;
+
+	OrderedParallelExecutor(int parallelism, Consumer<T> consumer) {
+		this.permits = new Semaphore(parallelism);
+		this.window = parallelism * WINDOW_FACTOR;
+		this.consumer = consumer;
+	}
+
+	/**
+	 * Submits a task. Results of earlier tasks are handed to the consumer when the window is full.
+	 *
+	 * @param task the task
+	 */
+	void submit(Supplier<T> task) {
+		if (inFlight.size() >= window) {
+			consumer.accept(await(inFlight.removeFirst()));
+		}
+
+		inFlight.addLast(executor.submit(() -> {
+			permits.acquire();
+			try {
+				return task.get();
+			} finally {
+				permits.release();
+			}
+		}));
+	}
+
+	/**
+	 * Waits for all submitted tasks and hands their results to the consumer.
+	 */
+	void drain() {
+		while (!inFlight.isEmpty()) {
+			consumer.accept(await(inFlight.removeFirst()));
+		}
+	}
+
+	@Override
+	public void close() {
+		// Tasks left when closing (i.e. after a failure) are abandoned
+		executor.shutdownNow();
+		executor.close();
+	}
+
+	private static <T> T await(Future<T> future) {
+		try {
+			return future.get();
+		} catch (final ExecutionException e) {
+			if (e.getCause() instanceof final RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.util.Locale.ROOT;
+import static org.zalando.problem.Status.REQUEST_ENTITY_TOO_LARGE;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_PAYLOAD_LIMIT_EXCEEDED;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.zalando.problem.Problem;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaPayloadProperties;
+import se.sundsvall.jsonschema.service.payload.PayloadLimitExceededException;
+import se.sundsvall.jsonschema.service.payload.PayloadParser;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Reads JSON request bodies within the limits configured by {@code jsonschema.payload} for their municipality, see
+ * {@link PayloadParser}.
+ *
+ * <p>
+ * A body that exceeds a limit is rejected with a REQUEST_ENTITY_TOO_LARGE problem as soon as the limit is exceeded,
+ * and counted by the {@value #LIMIT_EXCEEDED_METRIC} metric, tagged with the municipality ID and the limit.
+ * </p>
+ */
+@Component
+@EnableConfigurationProperties(JsonSchemaPayloadProperties.class)
+public class PayloadLimits {
+
+	static final String LIMIT_EXCEEDED_METRIC = "jsonschema.payload.limit.exceeded";
+
+	private final JsonSchemaPayloadProperties properties;
+	private final MeterRegistry meterRegistry;
+	private final Map<JsonSchemaPayloadProperties.Limits, PayloadParser> parsers = new ConcurrentHashMap<>();
+
+	public PayloadLimits(final JsonSchemaPayloadProperties properties, final MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Parses one JSON document from a stream.
+	 *
+	 * @param  municipalityId                       the municipality ID
+	 * @param  input                                the JSON document
+	 * @return                                      the parsed document, or null if the input has no content
+	 * @throws org.zalando.problem.ThrowableProblem REQUEST_ENTITY_TOO_LARGE if the document exceeds a limit
+	 * @throws tools.jackson.core.JacksonException  if the document is not valid JSON
+	 */
+	public JsonNode read(String municipalityId, InputStream input) {
+		return withinLimits(municipalityId, parser -> parser.readTree(input));
+	}
+
+	/**
+	 * Parses one JSON document from raw bytes.
+	 *
+	 * @param  municipalityId                       the municipality ID
+	 * @param  input                                the JSON document
+	 * @return                                      the parsed document, or null if the input has no content
+	 * @throws org.zalando.problem.ThrowableProblem REQUEST_ENTITY_TOO_LARGE if the document exceeds a limit
+	 * @throws tools.jackson.core.JacksonException  if the document is not valid JSON
+	 */
+	public JsonNode read(String municipalityId, byte[] input) {
+		return withinLimits(municipalityId, parser -> parser.readTree(input));
+	}
+
+	/**
+	 * Reads a JSON document from a stream and checks it against the limits, for documents that are bound by another
+	 * parser, which reports any syntax errors.
+	 *
+	 * @param  municipalityId                       the municipality ID
+	 * @param  input                                the JSON document
+	 * @return                                      the raw bytes of the document
+	 * @throws IOException                          if the stream could not be read
+	 * @throws org.zalando.problem.ThrowableProblem REQUEST_ENTITY_TOO_LARGE if the document exceeds a limit
+	 */
+	public byte[] readChecked(String municipalityId, InputStream input) throws IOException {
+		try {
+			return parserFor(municipalityId).readChecked(input);
+		} catch (final PayloadLimitExceededException e) {
+			throw rejected(municipalityId, e);
+		}
+	}
+
+	/**
+	 * Returns the maximum size of a document of a municipality.
+	 *
+	 * @param  municipalityId the municipality ID
+	 * @return                the maximum size in bytes
+	 */
+	public long maximumSize(String municipalityId) {
+		return properties.limitsFor(municipalityId).maximumSize().toBytes();
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private JsonNode withinLimits(String municipalityId, Function<PayloadParser, JsonNode> read) {
+		try {
+			return read.apply(parserFor(municipalityId));
+		} catch (final PayloadLimitExceededException e) {
+			throw rejected(municipalityId, e);
+		}
+	}
+
+	private PayloadParser parserFor(String municipalityId) {
+		return parsers.computeIfAbsent(properties.limitsFor(municipalityId), PayloadParser::new);
+	}
+
+	private ThrowableProblem rejected(String municipalityId, PayloadLimitExceededException e) {
+		meterRegistry.counter(LIMIT_EXCEEDED_METRIC, "municipalityId", String.valueOf(municipalityId), "limit", e.getLimit().name().toLowerCase(ROOT)).increment();
+		return Problem.valueOf(REQUEST_ENTITY_TOO_LARGE, MESSAGE_PAYLOAD_LIMIT_EXCEEDED.formatted(e.getMessage()));
+	}
+}
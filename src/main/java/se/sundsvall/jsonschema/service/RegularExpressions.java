@@ -0,0 +1,82 @@
+package se.sundsvall.jsonschema.service;
+
+import static se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties.RegexEngine.LINEAR;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_UNSUPPORTED_PATTERN;
+
+import com.networknt.schema.regex.JDKRegularExpressionFactory;
+import com.networknt.schema.regex.RegularExpressionFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.service.compiler.Subschemas;
+import se.sundsvall.jsonschema.service.keyword.CachingRegularExpressionFactory;
+import se.sundsvall.jsonschema.service.keyword.LinearRegularExpressionFactory;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Component holding the regular expression engine used by the {@code pattern} and {@code patternProperties} keywords,
+ * as configured by {@code jsonschema.cache.regex.engine}.
+ *
+ * <p>
+ * Compiled expressions are cached and shared between all schemas. When the linear engine is configured, schemas with
+ * patterns it cannot evaluate are rejected when they are created, see {@link #findUnsupportedPatterns(JsonNode)}.
+ * </p>
+ */
+@Component
+public class RegularExpressions {
+
+	private final boolean linear;
+	private final RegularExpressionFactory factory;
+
+	public RegularExpressions(final JsonSchemaCacheProperties properties) {
+		this.linear = properties.regex().engine() == LINEAR;
+		this.factory = new CachingRegularExpressionFactory(linear ? LinearRegularExpressionFactory.getInstance() : JDKRegularExpressionFactory.getInstance(),
+			properties.regex().maximumExpressions());
+	}
+
+	/**
+	 * Returns the factory of the regular expressions used when compiling schemas.
+	 *
+	 * @return the regular expression factory
+	 */
+	public RegularExpressionFactory factory() {
+		return factory;
+	}
+
+	/**
+	 * Returns descriptions of the {@code pattern} and {@code patternProperties} patterns of a schema that the configured
+	 * engine cannot evaluate. The JDK engine accepts all patterns, as it always has.
+	 *
+	 * @param  schema the schema
+	 * @return        the unsupported patterns, prefixed with their location in the schema
+	 */
+	public List<String> findUnsupportedPatterns(JsonNode schema) {
+		final var unsupported = new ArrayList<String>();
+		if (!linear) {
+			return unsupported;
+		}
+
+		Subschemas.forEach(schema, false, (subschema, pointer) -> {
+			final var pattern = subschema.get("pattern");
+			if (pattern != null && pattern.isString()) {
+				checkPattern(pointer + "/pattern", pattern.asString(), unsupported);
+			}
+			final var patternProperties = subschema.get("patternProperties");
+			if (patternProperties != null && patternProperties.isObject()) {
+				patternProperties.properties().forEach(property -> checkPattern(pointer + "/patternProperties", property.getKey(), unsupported));
+			}
+		});
+		return unsupported;
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void checkPattern(String location, String pattern, List<String> unsupported) {
+		try {
+			factory.getRegularExpression(pattern);
+		} catch (final RuntimeException _) {
+			unsupported.add(MESSAGE_UNSUPPORTED_PATTERN.formatted(location, pattern));
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package se.sundsvall.jsonschema.service;
+
+import java.util.Map;
+import java.util.Set;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Analysis of which keywords a schema uses, made once when the schema is compiled.
+ */
+final class SchemaAnalyzer {
+
+	/**
+	 * Keywords whose outcome depends on the annotations produced by adjacent keywords.
+	 */
+	private static final Set<String> ANNOTATION_DEPENDENT_KEYWORDS = Set.of("unevaluatedProperties", "unevaluatedItems");
+	private static final Set<String> REFERENCE_KEYWORDS = Set.of("$ref", "$dynamicRef");
+
+	private SchemaAnalyzer() {}
+
+	/**
+	 * Returns whether validation against the schema requires annotations to be collected.
+	 *
+	 * <p>
+	 * The schema document is searched for keywords that depend on annotations. A reference to another document cannot be
+	 * followed here, so it is assumed to require annotations as well.
+	 * </p>
+	 *
+	 * @param  schemaNode the schema document
+	 * @return            true if annotations must be collected
+	 */
+	static boolean requiresAnnotationCollection(JsonNode schemaNode) {
+		if (schemaNode.isObject()) {
+			return schemaNode.properties().stream()
+				.anyMatch(property -> ANNOTATION_DEPENDENT_KEYWORDS.contains(property.getKey())
+					|| isExternalReference(property)
+					|| requiresAnnotationCollection(property.getValue()));
+		}
+
+		if (schemaNode.isArray()) {
+			for (final var element : schemaNode) {
+				if (requiresAnnotationCollection(element)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	private static boolean isExternalReference(Map.Entry<String, JsonNode> property) {
+		return REFERENCE_KEYWORDS.contains(property.getKey())
+			&& property.getValue().isString()
+			&& !property.getValue().asString().startsWith("#");
+	}
+}
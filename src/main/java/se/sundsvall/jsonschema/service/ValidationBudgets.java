@@ -0,0 +1,66 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.util.Locale.ROOT;
+import static org.zalando.problem.Status.UNPROCESSABLE_ENTITY;
+import static se.sundsvall.jsonschema.service.Constants.MESSAGE_VALIDATION_BUDGET_EXHAUSTED;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+import org.zalando.problem.Problem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import se.sundsvall.jsonschema.service.keyword.ValidationBudget;
+import se.sundsvall.jsonschema.service.keyword.ValidationBudgetExhaustedException;
+
+/**
+ * Runs validations within the budget configured by {@code jsonschema.validation.budget}, see {@link ValidationBudget}.
+ *
+ * <p>
+ * A validation that exhausts its budget is aborted with an UNPROCESSABLE_ENTITY problem, and counted by the
+ * {@value #EXHAUSTED_METRIC} metric, tagged with the schema ID and the reason. A validation is also aborted when its
+ * thread is interrupted, which happens when the client of a streaming validation disconnects, or when another document
+ * of the same batch or stream fails.
+ * </p>
+ *
+ * <p>
+ * Single document and batch validations are not cancelled when their client disconnects: they are processed
+ * synchronously, and the servlet API does not report a disconnect before the response is written. They are bounded by
+ * the time limit of the budget instead, per document.
+ * </p>
+ */
+@Component
+public class ValidationBudgets {
+
+	static final String EXHAUSTED_METRIC = "jsonschema.validation.budget.exhausted";
+
+	private final JsonSchemaValidationProperties.Budget budget;
+	private final MeterRegistry meterRegistry;
+
+	public ValidationBudgets(final JsonSchemaValidationProperties properties, final MeterRegistry meterRegistry) {
+		this.budget = properties.budget();
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Runs a validation against a schema within a new budget. When budgets are disabled, the validation runs unlimited.
+	 *
+	 * @param  <T>                                  the result type
+	 * @param  schemaId                             the schema ID
+	 * @param  validation                           the validation
+	 * @return                                      the result of the validation
+	 * @throws org.zalando.problem.ThrowableProblem UNPROCESSABLE_ENTITY if the validation exhausted its budget or was
+	 *                                              cancelled
+	 */
+	public <T> T run(String schemaId, Supplier<T> validation) {
+		if (!budget.enabled()) {
+			return validation.get();
+		}
+
+		try {
+			return new ValidationBudget(budget.maximumEvaluations(), budget.maximumDepth(), budget.timeout()).apply(validation);
+		} catch (final ValidationBudgetExhaustedException e) {
+			meterRegistry.counter(EXHAUSTED_METRIC, "schemaId", schemaId, "reason", e.getReason().name().toLowerCase(ROOT)).increment();
+			throw Problem.valueOf(UNPROCESSABLE_ENTITY, MESSAGE_VALIDATION_BUDGET_EXHAUSTED.formatted(schemaId, e.getMessage()));
+		}
+	}
+}
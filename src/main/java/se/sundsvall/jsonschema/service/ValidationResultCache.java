@@ -0,0 +1,142 @@
+package se.sundsvall.jsonschema.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import se.sundsvall.jsonschema.api.model.OutputMode;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Optional, bounded cache of validation results.
+ *
+ * <p>
+ * Results are keyed by schema ID, output mode and the parsed document. Keys are hashed by a fast hash of the document
+ * tree, which does not depend on the order of properties, and documents with equal hashes are compared in full.
+ * Documents that differ only in formatting or property order therefore share one entry. A hit is answered without
+ * running the validator, and concurrent validations of the same document share one evaluation. Only successful
+ * evaluations are shared: when the evaluation fails, for instance because the budget of the caller that ran it was
+ * exhausted, the callers that waited for it evaluate the document themselves. Lookups are counted by the
+ * {@value #RESULT_CACHE_METRIC} metric, tagged with whether the result was a hit or a miss.
+ * </p>
+ *
+ * <p>
+ * All results for a schema are discarded when the compiled schema is evicted, see {@link JsonSchemaEvictedEvent}. Keys
+ * also hold the generation of the schema, which is advanced on eviction, so that an evaluation that was in flight when
+ * the schema was evicted cannot leave its result to later lookups.
+ * </p>
+ */
+@Component
+public class ValidationResultCache {
+
+	static final String RESULT_CACHE_METRIC = "jsonschema.validation.result.cache";
+
+	private final boolean enabled;
+	private final AsyncCache<Key, ValidationResult> results;
+	private final Map<String, Long> generations = new ConcurrentHashMap<>();
+	private final Counter hits;
+	private final Counter misses;
+
+	public ValidationResultCache(final JsonSchemaValidationProperties properties, final MeterRegistry meterRegistry) {
+		final var resultCache = properties.resultCache();
+
+		this.enabled = resultCache.enabled();
+		this.results = Caffeine.newBuilder()
+			.maximumSize(resultCache.maximumSize())
+			.expireAfterWrite(resultCache.expireAfterWrite())
+			.buildAsync();
+		this.hits = meterRegistry.counter(RESULT_CACHE_METRIC, "result", "hit");
+		this.misses = meterRegistry.counter(RESULT_CACHE_METRIC, "result", "miss");
+	}
+
+	/**
+	 * Returns the cached result of validating the document against the schema, or validates it and caches the result.
+	 * When the cache is disabled, the document is always validated.
+	 *
+	 * @param  schemaId   the schema ID
+	 * @param  outputMode the level of detail of the result
+	 * @param  document   the parsed document
+	 * @param  validation validates the document, on a miss
+	 * @return            the validation result, shared between callers and not to be modified
+	 */
+	public ValidationResult get(String schemaId, OutputMode outputMode, JsonNode document, Supplier<ValidationResult> validation) {
+		if (!enabled) {
+			return validation.get();
+		}
+
+		final var key = new Key(schemaId, generations.getOrDefault(schemaId, 0L), outputMode, document.hashCode(), document);
+		final var started = new AtomicBoolean();
+		final var pending = new CompletableFuture<ValidationResult>();
+		final var future = results.get(key, (_, _) -> {
+			started.set(true);
+			return pending;
+		});
+
+		if (!started.get()) {
+			final var shared = awaitSuccess(future);
+			if (shared.isPresent()) {
+				hits.increment();
+				return shared.get();
+			}
+			// The evaluation failed for the caller that ran it, which says nothing about this caller
+			misses.increment();
+			return validation.get();
+		}
+
+		// This caller validates the document. A failed future is removed from the cache by Caffeine.
+		misses.increment();
+		try {
+			final var result = validation.get();
+			pending.complete(result);
+			return result;
+		} catch (final RuntimeException | Error e) {
+			pending.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Discards all cached results for a schema that has been evicted from the schema cache.
+	 *
+	 * @param event the eviction event
+	 */
+	@EventListener
+	public void onEvicted(JsonSchemaEvictedEvent event) {
+		generations.merge(event.schemaId(), 1L, Long::sum);
+		results.asMap().keySet().removeIf(key -> key.schemaId().equals(event.schemaId()));
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static Optional<ValidationResult> awaitSuccess(CompletableFuture<ValidationResult> future) {
+		try {
+			return Optional.of(future.join());
+		} catch (final CompletionException | CancellationException _) {
+			return Optional.empty();
+		}
+	}
+
+	/**
+	 * Key of a result. The hash of the document is computed once, and compared before the document itself.
+	 */
+	private record Key(String schemaId, long generation, OutputMode outputMode, int documentHash, JsonNode document) {
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(schemaId, generation, outputMode, documentHash);
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package se.sundsvall.jsonschema.service;
+
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import se.sundsvall.jsonschema.service.compiler.SchemaCompiler;
+import se.sundsvall.jsonschema.service.compiler.SpecializedValidator;
+
+/**
+ * Tiered validation: schemas are validated by the interpreter until they have been used a configured number of times,
+ * after which they are promoted, i.e. compiled into a {@link SpecializedValidator} by the {@link SchemaCompiler}.
+ *
+ * <p>
+ * Tiers are held per compiled schema, and are discarded together with it when it is evicted from the cache. Each
+ * promotion is counted by the {@value #PROMOTIONS_METRIC} metric, tagged with whether a specialized validator could be
+ * compiled.
+ * </p>
+ */
+@Component
+public class ValidatorTiering {
+
+	static final String PROMOTIONS_METRIC = "jsonschema.validation.promotions";
+	private static final Logger LOGGER = LoggerFactory.getLogger(ValidatorTiering.class);
+
+	private final boolean enabled;
+	private final long promotionThreshold;
+	private final Cache<CompiledSchema, Tier> tiers = Caffeine.newBuilder().weakKeys().build();
+	private final MeterRegistry meterRegistry;
+
+	public ValidatorTiering(final JsonSchemaValidationProperties properties, final MeterRegistry meterRegistry) {
+		this.enabled = properties.specialization().enabled();
+		this.promotionThreshold = Math.max(1, properties.specialization().promotionThreshold());
+		this.meterRegistry = meterRegistry;
+	}
+
+	/**
+	 * Registers a validation against the schema, and returns its specialized validator once it has been promoted.
+	 *
+	 * @param  compiled the compiled schema
+	 * @return          the specialized validator, or empty while the schema is validated by the interpreter
+	 */
+	public Optional<SpecializedValidator> getSpecializedValidator(CompiledSchema compiled) {
+		if (!enabled) {
+			return Optional.empty();
+		}
+
+		final var tier = tiers.get(compiled, _ -> new Tier());
+		final var validator = tier.validator;
+		if (validator != null) {
+			return validator;
+		}
+
+		// Only the caller reaching the threshold promotes the schema
+		if (tier.validations.incrementAndGet() == promotionThreshold) {
+			tier.validator = promote(compiled);
+			return tier.validator;
+		}
+		return Optional.empty();
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private Optional<SpecializedValidator> promote(CompiledSchema compiled) {
+		Optional<SpecializedValidator> validator;
+		try {
+			// Specialized validators only decide validity, so they are compiled from the optimized schema
+			validator = SchemaCompiler.compile(compiled.schemaFor(FLAG).getSchemaNode());
+		} catch (final RuntimeException e) {
+			LOGGER.warn("Failed to compile a specialized validator for schema {}, it is still validated by the interpreter", compiled.id(), e);
+			validator = Optional.empty();
+		}
+
+		meterRegistry.counter(PROMOTIONS_METRIC, "outcome", validator.isPresent() ? "specialized" : "interpreted").increment();
+		return validator;
+	}
+
+	private static final class Tier {
+
+		private final AtomicLong validations = new AtomicLong();
+		private volatile Optional<SpecializedValidator> validator;
+	}
+}
@@ -0,0 +1,12 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Outcome of the {@link SchemaOptimizer}: the rewritten schema, and the reduction in number of nodes.
+ *
+ * @param schema      the rewritten schema
+ * @param nodesBefore number of JSON nodes in the original schema
+ * @param nodesAfter  number of JSON nodes in the rewritten schema
+ */
+public record OptimizedSchema(JsonNode schema, int nodesBefore, int nodesAfter) {}
@@ -0,0 +1,192 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import java.util.List;
+import java.util.Map;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.JsonNodeFactory;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates a sample instance of a 2020-12 schema, used to warm up validation against the schema.
+ *
+ * <p>
+ * The sample is built from the {@code const}, {@code enum}, {@code type}, {@code properties}, {@code required},
+ * {@code items} and common bound and {@code format} keywords, so that it conforms to typical schemas and reaches the
+ * validators of all their declared properties. Every declared property is included, not only the required ones. For
+ * {@code allOf}, the objects generated for each subschema are merged, and for {@code anyOf} and {@code oneOf}, the
+ * first branch is used. References within the document are followed. Keywords that are not understood are ignored, so
+ * the sample is not guaranteed to conform.
+ * </p>
+ */
+public final class SampleInstanceGenerator {
+
+	/**
+	 * Maximum number of nested subschemas followed, which ends the generation for recursive schemas.
+	 */
+	private static final int DEPTH_LIMIT = 16;
+
+	private static final List<String> BRANCHING_KEYWORDS = List.of("anyOf", "oneOf");
+	private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+	private static final Map<String, String> FORMAT_SAMPLES = Map.of(
+		"date", "2025-01-01",
+		"date-time", "2025-01-01T00:00:00Z",
+		"time", "00:00:00Z",
+		"email", "name@example.com",
+		"uri", "https://example.com",
+		"uuid", "00000000-0000-0000-0000-000000000000",
+		"ipv4", "127.0.0.1",
+		"ipv6", "::1",
+		"hostname", "example.com");
+
+	private final JsonNode root;
+
+	private SampleInstanceGenerator(JsonNode root) {
+		this.root = root;
+	}
+
+	/**
+	 * Generates a sample instance of a schema.
+	 *
+	 * @param  schema the schema document
+	 * @return        the sample instance
+	 */
+	public static JsonNode generate(JsonNode schema) {
+		return new SampleInstanceGenerator(schema).sample(schema, 0);
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private JsonNode sample(JsonNode schema, int depth) {
+		if (!schema.isObject() || depth > DEPTH_LIMIT) {
+			return FACTORY.nullNode();
+		}
+		if (schema.has("const")) {
+			return schema.get("const");
+		}
+		final var enumeration = schema.get("enum");
+		if (enumeration != null && enumeration.isArray() && !enumeration.isEmpty()) {
+			return enumeration.get(0);
+		}
+
+		final var reference = schema.get("$ref");
+		if (reference != null && reference.isString() && (reference.asString().equals("#") || reference.asString().startsWith("#/"))) {
+			final var target = root.at(reference.asString().substring(1));
+			if (!target.isMissingNode()) {
+				return merge(sample(target, depth + 1), sampleOfType(schema, depth));
+			}
+		}
+		for (final var keyword : BRANCHING_KEYWORDS) {
+			final var branches = schema.get(keyword);
+			if (branches != null && branches.isArray() && !branches.isEmpty()) {
+				return merge(sample(branches.get(0), depth + 1), sampleOfType(schema, depth));
+			}
+		}
+
+		var sample = sampleOfType(schema, depth);
+		final var subschemas = schema.get("allOf");
+		if (subschemas != null && subschemas.isArray()) {
+			for (final var subschema : subschemas) {
+				sample = merge(sample, sample(subschema, depth + 1));
+			}
+		}
+		return sample;
+	}
+
+	private JsonNode sampleOfType(JsonNode schema, int depth) {
+		return switch (type(schema)) {
+			case "object" -> sampleObject(schema, depth);
+			case "array" -> sampleArray(schema, depth);
+			case "string" -> sampleString(schema);
+			case "integer" -> FACTORY.numberNode((long) Math.ceil(lowerBound(schema, 1)));
+			case "number" -> FACTORY.numberNode(lowerBound(schema, 1.5));
+			case "boolean" -> FACTORY.booleanNode(true);
+			default -> FACTORY.nullNode();
+		};
+	}
+
+	private ObjectNode sampleObject(JsonNode schema, int depth) {
+		final var sample = FACTORY.objectNode();
+		final var properties = schema.get("properties");
+		if (properties != null && properties.isObject()) {
+			properties.properties().forEach(property -> sample.set(property.getKey(), sample(property.getValue(), depth + 1)));
+		}
+
+		// Required properties without a declaration are given a value too
+		final var required = schema.get("required");
+		if (required != null && required.isArray()) {
+			required.forEach(name -> {
+				if (name.isString() && !sample.has(name.asString())) {
+					sample.put(name.asString(), "value");
+				}
+			});
+		}
+		return sample;
+	}
+
+	private JsonNode sampleArray(JsonNode schema, int depth) {
+		final var sample = FACTORY.arrayNode();
+		final var items = schema.get("items");
+		final var maxItems = schema.path("maxItems").asInt(Integer.MAX_VALUE);
+		if (items != null && maxItems > 0) {
+			// Identical items would fail uniqueItems, so only the minimum number of items is generated
+			final var count = Math.min(Math.max(1, schema.path("minItems").asInt(0)), maxItems);
+			for (var index = 0; index < count; index++) {
+				sample.add(sample(items, depth + 1));
+			}
+		}
+		return sample;
+	}
+
+	private static JsonNode sampleString(JsonNode schema) {
+		final var format = schema.path("format").asString("");
+		if (FORMAT_SAMPLES.containsKey(format)) {
+			return FACTORY.stringNode(FORMAT_SAMPLES.get(format));
+		}
+
+		final var minLength = schema.path("minLength").asInt(1);
+		final var maxLength = schema.path("maxLength").asInt(Integer.MAX_VALUE);
+		return FACTORY.stringNode("x".repeat(Math.max(0, Math.min(Math.max(minLength, 1), maxLength))));
+	}
+
+	private static double lowerBound(JsonNode schema, double otherwise) {
+		if (schema.path("minimum").isNumber()) {
+			return Math.max(schema.get("minimum").doubleValue(), Math.min(otherwise, schema.path("maximum").asDouble(otherwise)));
+		}
+		if (schema.path("exclusiveMinimum").isNumber()) {
+			return schema.get("exclusiveMinimum").doubleValue() + 1;
+		}
+		return schema.path("maximum").isNumber() ? Math.min(otherwise, schema.get("maximum").doubleValue()) : otherwise;
+	}
+
+	/**
+	 * The declared type, or the first of several, or else the type implied by the keywords of the schema.
+	 */
+	private static String type(JsonNode schema) {
+		final var type = schema.get("type");
+		if (type != null && type.isString()) {
+			return type.asString();
+		}
+		if (type != null && type.isArray() && !type.isEmpty()) {
+			return type.get(0).asString();
+		}
+		if (schema.has("properties") || schema.has("required") || schema.has("additionalProperties")) {
+			return "object";
+		}
+		return schema.has("items") ? "array" : "";
+	}
+
+	/**
+	 * Merges two samples, where properties of objects are combined, and a null sample is replaced by the other.
+	 */
+	private static JsonNode merge(JsonNode sample, JsonNode addition) {
+		if (sample instanceof final ObjectNode object && addition instanceof final ObjectNode additionalObject) {
+			final var merged = object.deepCopy();
+			additionalObject.properties().forEach(property -> merged.set(property.getKey(), merge(merged.path(property.getKey()), property.getValue())));
+			return merged;
+		}
+		if (sample.isNull() || sample.isMissingNode()) {
+			return addition;
+		}
+		return addition.isNull() || addition.isMissingNode() ? sample : addition;
+	}
+}
@@ -0,0 +1,550 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import static se.sundsvall.jsonschema.service.compiler.Verdict.INVALID;
+import static se.sundsvall.jsonschema.service.compiler.Verdict.UNKNOWN;
+import static se.sundsvall.jsonschema.service.compiler.Verdict.VALID;
+
+import com.networknt.schema.dialect.DialectId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+import se.sundsvall.jsonschema.service.keyword.ValidationBudget;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Compiles a stored 2020-12 schema into a {@link SpecializedValidator}.
+ *
+ * <p>
+ * The schema is translated once into a tree of validators specialized for its keywords: type checks are done directly
+ * on the node, required properties are precomputed, and properties are dispatched through a hash lookup, so no generic
+ * keyword objects or maps are walked during validation.
+ * </p>
+ *
+ * <p>
+ * Only keywords whose outcome can be decided exactly are supported. Any other keyword, and any case where the outcome
+ * depends on details of the interpreter (such as the comparison of numbers of different representations), yields
+ * {@link Verdict#UNKNOWN}, in which case the interpreter must decide.
+ * </p>
+ *
+ * <p>
+ * Like the keywords of the interpreter, the applicators charge each of their evaluations to the
+ * {@link ValidationBudget} of the running validation, so recursive schemas are bounded in the same way by both.
+ * </p>
+ */
+public final class SchemaCompiler {
+
+	private static final SpecializedValidator ALWAYS_VALID = _ -> VALID;
+	private static final SpecializedValidator ALWAYS_INVALID = _ -> INVALID;
+	private static final SpecializedValidator ALWAYS_UNKNOWN = _ -> UNKNOWN;
+
+	/**
+	 * Keywords that do not affect the outcome of a validation.
+	 */
+	private static final Set<String> ANNOTATIONS = Set.of("$comment", "$defs", "definitions", "$anchor", "$dynamicAnchor", "title", "description", "default", "examples", "deprecated",
+		"readOnly", "writeOnly", "contentMediaType", "contentEncoding", "contentSchema");
+
+	/**
+	 * Keywords that are only supported in the root of the schema.
+	 */
+	private static final Set<String> ROOT_KEYWORDS = Set.of("$schema", "$id");
+
+	/**
+	 * Keywords that are evaluated together with {@code if}, and ignored without it.
+	 */
+	private static final Set<String> CONDITIONAL_BRANCHES = Set.of("then", "else");
+	private static final Set<String> TYPES = Set.of("null", "boolean", "object", "array", "string", "number", "integer");
+
+	private final JsonNode root;
+	private final boolean localReferences;
+	private final Map<String, Reference> references = new HashMap<>();
+
+	/**
+	 * The references being compiled since the last applicator that descends into the instance. A reference back to one
+	 * of them is a cycle that never descends, which would recurse endlessly.
+	 */
+	private Set<String> inPlaceReferences = new HashSet<>();
+
+	private SchemaCompiler(JsonNode root) {
+		this.root = root;
+		this.localReferences = !containsNestedId(root, true);
+	}
+
+	/**
+	 * Compiles a schema.
+	 *
+	 * @param  schemaNode the schema document
+	 * @return            the specialized validator, or empty if the schema is not a 2020-12 schema
+	 */
+	public static Optional<SpecializedValidator> compile(JsonNode schemaNode) {
+		if (!schemaNode.isObject() && !schemaNode.isBoolean()) {
+			return Optional.empty();
+		}
+
+		final var dialect = schemaNode.get("$schema");
+		if (dialect != null && !(dialect.isString() && DialectId.DRAFT_2020_12.equals(dialect.asString().replaceFirst("#$", "")))) {
+			return Optional.empty();
+		}
+		return Optional.of(new SchemaCompiler(schemaNode).compileSchema(schemaNode));
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private SpecializedValidator compileSchema(JsonNode schema) {
+		if (schema.isBoolean()) {
+			return schema.booleanValue() ? ALWAYS_VALID : ALWAYS_INVALID;
+		}
+		if (!schema.isObject()) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var keywords = new ArrayList<SpecializedValidator>();
+		for (final var keyword : schema.properties()) {
+			final var name = keyword.getKey();
+			if (ANNOTATIONS.contains(name) || CONDITIONAL_BRANCHES.contains(name) || (schema == root && ROOT_KEYWORDS.contains(name))) {
+				continue;
+			}
+			keywords.add(compileKeyword(schema, name, keyword.getValue()));
+		}
+		return allOf(keywords);
+	}
+
+	private SpecializedValidator compileKeyword(JsonNode schema, String name, JsonNode value) {
+		return switch (name) {
+			case "type" -> type(value);
+			case "enum" -> value.isArray() ? enumeration(elements(value)) : ALWAYS_UNKNOWN;
+			case "const" -> enumeration(List.of(value));
+			case "properties" -> budgeted(2, properties(value));
+			case "required" -> required(value);
+			case "additionalProperties" -> schema.has("patternProperties") ? ALWAYS_UNKNOWN : budgeted(2, additionalProperties(schema.get("properties"), value));
+			case "items" -> schema.has("prefixItems") ? ALWAYS_UNKNOWN : budgeted(2, items(value));
+			case "minItems" -> count(value, JsonNode::isArray, JsonNode::size, true);
+			case "maxItems" -> count(value, JsonNode::isArray, JsonNode::size, false);
+			case "minProperties" -> count(value, JsonNode::isObject, JsonNode::size, true);
+			case "maxProperties" -> count(value, JsonNode::isObject, JsonNode::size, false);
+			case "minLength" -> count(value, JsonNode::isString, SchemaCompiler::codePoints, true);
+			case "maxLength" -> count(value, JsonNode::isString, SchemaCompiler::codePoints, false);
+			case "minimum" -> bound(value, comparison -> comparison >= 0);
+			case "maximum" -> bound(value, comparison -> comparison <= 0);
+			case "exclusiveMinimum" -> bound(value, comparison -> comparison > 0);
+			case "exclusiveMaximum" -> bound(value, comparison -> comparison < 0);
+			case "allOf" -> subschemas(value).map(validators -> budgeted(2, allOf(validators))).orElse(ALWAYS_UNKNOWN);
+			case "anyOf" -> subschemas(value).map(validators -> budgeted(2, anyOf(validators))).orElse(ALWAYS_UNKNOWN);
+			case "oneOf" -> subschemas(value).map(validators -> budgeted(2, oneOf(validators))).orElse(ALWAYS_UNKNOWN);
+			case "not" -> budgeted(1, not(compileSchema(value)));
+			case "if" -> budgeted(1, conditional(compileSchema(value), branch(schema, "then"), branch(schema, "else")));
+			case "$ref" -> budgeted(1, reference(value));
+			default -> ALWAYS_UNKNOWN;
+		};
+	}
+
+	private static SpecializedValidator type(JsonNode value) {
+		final var types = value.isString() ? List.of(value.asString()) : strings(value);
+		if (types.isEmpty() || (value.isArray() && types.size() != value.size()) || !TYPES.containsAll(types)) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var nullType = types.contains("null");
+		final var booleanType = types.contains("boolean");
+		final var objectType = types.contains("object");
+		final var arrayType = types.contains("array");
+		final var stringType = types.contains("string");
+		final var numberType = types.contains("number");
+		final var integerType = types.contains("integer");
+
+		return instance -> {
+			if (instance.isNumber()) {
+				if (numberType || (integerType && instance.isIntegralNumber())) {
+					return VALID;
+				}
+				// Whether a number with a zero fraction, such as 1.0, is an integer is left to the interpreter
+				if (!isFinite(instance)) {
+					return UNKNOWN;
+				}
+				return integerType && instance.decimalValue().stripTrailingZeros().scale() <= 0 ? UNKNOWN : INVALID;
+			}
+			return Verdict.of((nullType && instance.isNull())
+				|| (booleanType && instance.isBoolean())
+				|| (objectType && instance.isObject())
+				|| (arrayType && instance.isArray())
+				|| (stringType && instance.isString()));
+		};
+	}
+
+	private static SpecializedValidator enumeration(List<JsonNode> values) {
+		if (!values.stream().allMatch(SchemaCompiler::isFinite)) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		// Numbers of different representations, such as 1 and 1.0, may be equal to the interpreter but not to the node
+		final var numbers = values.stream().filter(JsonNode::isNumber).map(JsonNode::decimalValue).toList();
+		final var containersContainNumbers = values.stream().filter(value -> !value.isNumber()).anyMatch(SchemaCompiler::containsNumber);
+
+		return instance -> {
+			for (final var value : values) {
+				if (value.equals(instance)) {
+					return VALID;
+				}
+			}
+			if (instance.isNumber()) {
+				if (!isFinite(instance)) {
+					return UNKNOWN;
+				}
+				final var number = instance.decimalValue();
+				return numbers.stream().anyMatch(value -> value.compareTo(number) == 0) ? UNKNOWN : INVALID;
+			}
+			return containersContainNumbers && containsNumber(instance) ? UNKNOWN : INVALID;
+		};
+	}
+
+	private SpecializedValidator properties(JsonNode value) {
+		if (!value.isObject()) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var validators = new HashMap<String, SpecializedValidator>();
+		value.properties().forEach(property -> validators.put(property.getKey(), descend(property.getValue())));
+
+		return instance -> {
+			if (!instance.isObject()) {
+				return VALID;
+			}
+
+			var verdict = VALID;
+			for (final var property : instance.properties()) {
+				final var validator = validators.get(property.getKey());
+				if (validator != null) {
+					verdict = combine(verdict, validator.validate(property.getValue()));
+					if (verdict == INVALID) {
+						return INVALID;
+					}
+				}
+			}
+			return verdict;
+		};
+	}
+
+	private static SpecializedValidator required(JsonNode value) {
+		final var names = strings(value);
+		if (!value.isArray() || names.size() != value.size()) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var required = names.toArray(String[]::new);
+		return instance -> {
+			if (!instance.isObject()) {
+				return VALID;
+			}
+			for (final var name : required) {
+				if (!instance.has(name)) {
+					return INVALID;
+				}
+			}
+			return VALID;
+		};
+	}
+
+	private SpecializedValidator additionalProperties(JsonNode propertiesNode, JsonNode value) {
+		if (propertiesNode != null && !propertiesNode.isObject()) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var declared = new HashSet<String>();
+		if (propertiesNode != null) {
+			propertiesNode.properties().forEach(property -> declared.add(property.getKey()));
+		}
+		final var validator = descend(value);
+
+		return instance -> {
+			if (!instance.isObject()) {
+				return VALID;
+			}
+
+			var verdict = VALID;
+			for (final var property : instance.properties()) {
+				if (!declared.contains(property.getKey())) {
+					verdict = combine(verdict, validator.validate(property.getValue()));
+					if (verdict == INVALID) {
+						return INVALID;
+					}
+				}
+			}
+			return verdict;
+		};
+	}
+
+	private SpecializedValidator items(JsonNode value) {
+		final var validator = descend(value);
+
+		return instance -> {
+			if (!instance.isArray()) {
+				return VALID;
+			}
+
+			var verdict = VALID;
+			for (final var item : instance) {
+				verdict = combine(verdict, validator.validate(item));
+				if (verdict == INVALID) {
+					return INVALID;
+				}
+			}
+			return verdict;
+		};
+	}
+
+	private static SpecializedValidator count(JsonNode value, Predicate<JsonNode> applicable, ToIntFunction<JsonNode> counter, boolean minimum) {
+		if (!value.isIntegralNumber() || !value.canConvertToInt() || value.intValue() < 0) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var limit = value.intValue();
+		return instance -> {
+			if (!applicable.test(instance)) {
+				return VALID;
+			}
+			final var count = counter.applyAsInt(instance);
+			return Verdict.of(minimum ? count >= limit : count <= limit);
+		};
+	}
+
+	private static SpecializedValidator bound(JsonNode value, IntPredicate accepts) {
+		if (!value.isNumber() || !isFinite(value)) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var limit = value.decimalValue();
+		return instance -> {
+			if (!instance.isNumber()) {
+				return VALID;
+			}
+			// The precision used for big numbers, and infinite numbers, are left to the interpreter
+			if (instance.isBigInteger() || instance.isBigDecimal() || !isFinite(instance)) {
+				return UNKNOWN;
+			}
+			return Verdict.of(accepts.test(instance.decimalValue().compareTo(limit)));
+		};
+	}
+
+	private Optional<List<SpecializedValidator>> subschemas(JsonNode value) {
+		if (!value.isArray() || value.isEmpty()) {
+			return Optional.empty();
+		}
+		return Optional.of(elements(value).stream().map(this::compileSchema).toList());
+	}
+
+	private static SpecializedValidator allOf(List<SpecializedValidator> validators) {
+		if (validators.isEmpty()) {
+			return ALWAYS_VALID;
+		}
+		if (validators.size() == 1) {
+			return validators.getFirst();
+		}
+
+		final var array = validators.toArray(SpecializedValidator[]::new);
+		return instance -> {
+			var verdict = VALID;
+			for (final var validator : array) {
+				verdict = combine(verdict, validator.validate(instance));
+				if (verdict == INVALID) {
+					return INVALID;
+				}
+			}
+			return verdict;
+		};
+	}
+
+	private static SpecializedValidator anyOf(List<SpecializedValidator> validators) {
+		final var array = validators.toArray(SpecializedValidator[]::new);
+
+		return instance -> {
+			var verdict = INVALID;
+			for (final var validator : array) {
+				final var result = validator.validate(instance);
+				if (result == VALID) {
+					return VALID;
+				}
+				if (result == UNKNOWN) {
+					verdict = UNKNOWN;
+				}
+			}
+			return verdict;
+		};
+	}
+
+	private static SpecializedValidator oneOf(List<SpecializedValidator> validators) {
+		final var array = validators.toArray(SpecializedValidator[]::new);
+
+		return instance -> {
+			var valid = 0;
+			var unknown = false;
+			for (final var validator : array) {
+				final var result = validator.validate(instance);
+				if (result == VALID && ++valid > 1) {
+					return INVALID;
+				}
+				unknown |= result == UNKNOWN;
+			}
+			if (unknown) {
+				return UNKNOWN;
+			}
+			return Verdict.of(valid == 1);
+		};
+	}
+
+	private static SpecializedValidator not(SpecializedValidator validator) {
+		return instance -> validator.validate(instance).negate();
+	}
+
+	private static SpecializedValidator conditional(SpecializedValidator condition, SpecializedValidator then, SpecializedValidator otherwise) {
+		return instance -> switch (condition.validate(instance)) {
+			case VALID -> then.validate(instance);
+			case INVALID -> otherwise.validate(instance);
+			case UNKNOWN -> UNKNOWN;
+		};
+	}
+
+	private SpecializedValidator branch(JsonNode schema, String name) {
+		return schema.has(name) ? compileSchema(schema.get(name)) : ALWAYS_VALID;
+	}
+
+	/**
+	 * Compiles a subschema that applies to a child of the instance, such as a property or an item.
+	 */
+	private SpecializedValidator descend(JsonNode schema) {
+		final var outer = inPlaceReferences;
+		inPlaceReferences = new HashSet<>();
+		try {
+			return compileSchema(schema);
+		} finally {
+			inPlaceReferences = outer;
+		}
+	}
+
+	/**
+	 * Resolves a reference within the schema document. References are compiled once, and may be recursive as long as
+	 * the recursion descends into the instance. A cycle that does not is left to the interpreter.
+	 */
+	private SpecializedValidator reference(JsonNode value) {
+		if (!localReferences || !value.isString()) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var ref = value.asString();
+		if (!ref.equals("#") && !(ref.startsWith("#/") && !ref.contains("%"))) {
+			return ALWAYS_UNKNOWN;
+		}
+
+		final var pointer = ref.substring(1);
+		if (inPlaceReferences.contains(pointer)) {
+			return ALWAYS_UNKNOWN;
+		}
+		final var existing = references.get(pointer);
+		if (existing != null) {
+			return existing;
+		}
+
+		final var reference = new Reference();
+		references.put(pointer, reference);
+		final var target = root.at(pointer);
+		inPlaceReferences.add(pointer);
+		try {
+			reference.target = target.isMissingNode() ? ALWAYS_UNKNOWN : compileSchema(target);
+		} finally {
+			inPlaceReferences.remove(pointer);
+		}
+		return reference;
+	}
+
+	/**
+	 * Charges each evaluation of an applicator to the budget of the running validation. The depth approximates the
+	 * evaluation path of the interpreter: a keyword, and the property name or index of the subschema it descends into.
+	 */
+	private static SpecializedValidator budgeted(int segments, SpecializedValidator validator) {
+		return instance -> {
+			ValidationBudget.enter(segments);
+			try {
+				return validator.validate(instance);
+			} finally {
+				ValidationBudget.exit(segments);
+			}
+		};
+	}
+
+	private static Verdict combine(Verdict verdict, Verdict result) {
+		if (verdict == INVALID || result == INVALID) {
+			return INVALID;
+		}
+		return verdict == UNKNOWN || result == UNKNOWN ? UNKNOWN : VALID;
+	}
+
+	/**
+	 * Out of range floating point numbers are infinite, and have no decimal representation.
+	 */
+	private static boolean isFinite(JsonNode number) {
+		return !(number.isDouble() || number.isFloat()) || Double.isFinite(number.doubleValue());
+	}
+
+	private static int codePoints(JsonNode instance) {
+		final var value = instance.asString();
+		return value.codePointCount(0, value.length());
+	}
+
+	private static boolean containsNumber(JsonNode node) {
+		if (node.isNumber()) {
+			return true;
+		}
+		for (final var child : node) {
+			if (containsNumber(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * An embedded schema resource with its own {@code $id} changes how references within it are resolved.
+	 */
+	private static boolean containsNestedId(JsonNode node, boolean isRoot) {
+		if (node.isObject() && !isRoot && node.has("$id")) {
+			return true;
+		}
+		for (final var child : node) {
+			if (containsNestedId(child, false)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<JsonNode> elements(JsonNode array) {
+		final var elements = new ArrayList<JsonNode>(array.size());
+		array.forEach(elements::add);
+		return elements;
+	}
+
+	private static List<String> strings(JsonNode array) {
+		if (!array.isArray()) {
+			return List.of();
+		}
+		return elements(array).stream()
+			.filter(JsonNode::isString)
+			.map(JsonNode::asString)
+			.toList();
+	}
+
+	private static final class Reference implements SpecializedValidator {
+
+		private SpecializedValidator target = ALWAYS_UNKNOWN;
+
+		@Override
+		public Verdict validate(JsonNode instance) {
+			return target.validate(instance);
+		}
+	}
+}
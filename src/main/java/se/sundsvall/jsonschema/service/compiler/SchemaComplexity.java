@@ -0,0 +1,15 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+/**
+ * Outcome of the {@link SchemaComplexityAnalyzer}: static measures of how expensive a schema is to validate against.
+ *
+ * @param nodeCount            number of subschemas in the schema document, including unreferenced definitions
+ * @param maxDepth             maximum number of nested subschemas a validation passes through, with references followed
+ * @param maxBranching         maximum number of branches of one {@code allOf}, {@code anyOf} or {@code oneOf}
+ * @param recursive            true if the schema references itself, directly or through other subschemas, or uses
+ *                             {@code $dynamicRef}
+ * @param estimatedEvaluations worst-case number of keyword evaluations for one instance location, with every subschema
+ *                             applied and references followed, where a recursive reference is counted once
+ */
+public record SchemaComplexity(int nodeCount, int maxDepth, int maxBranching, boolean recursive, long estimatedEvaluations) {
+}
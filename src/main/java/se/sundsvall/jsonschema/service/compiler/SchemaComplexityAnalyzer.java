@@ -0,0 +1,191 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Static analysis of how expensive a 2020-12 schema is to validate against, made when the schema is created.
+ *
+ * <p>
+ * The schema is never compiled. Its subschemas are walked from the root as a validation would walk them: every
+ * applicator is assumed to apply, and references within the document ({@code $ref} to a JSON Pointer or an anchor) are
+ * followed. Definitions are only counted where they are referenced. References to other documents cannot be followed
+ * and are counted as one evaluation.
+ * </p>
+ *
+ * <p>
+ * A reference back to a subschema that is being visited is not followed again, so a recursive schema is counted as if
+ * each cycle were passed once. The cost of a subschema on a cycle depends on where the cycle was entered, so it is
+ * computed again for every path that reaches it, which makes the estimate independent of the order the subschemas are
+ * visited in. Schemas that take more than a million subschema visits to analyze are given the highest possible
+ * estimate.
+ * </p>
+ */
+public final class SchemaComplexityAnalyzer {
+
+	private static final Set<String> BRANCHING_KEYWORDS = Set.of("allOf", "anyOf", "oneOf");
+	private static final Set<String> DEFINITION_KEYWORDS = Set.of("$defs", "definitions");
+	private static final Set<String> ANCHOR_KEYWORDS = Set.of("$anchor", "$dynamicAnchor");
+	private static final Set<String> DYNAMIC_REFERENCE_KEYWORDS = Set.of("$dynamicRef", "$recursiveRef");
+
+	/**
+	 * Maximum number of nested subschemas followed, which keeps the analysis of degenerate schemas within the stack. Deeper
+	 * schemas are reported as being this deep.
+	 */
+	private static final int DEPTH_LIMIT = 1_000;
+
+	/**
+	 * Maximum number of subschemas visited, which bounds the analysis of schemas whose cycles are entered along many
+	 * paths.
+	 */
+	private static final int VISIT_LIMIT = 1_000_000;
+
+	private final Map<String, ObjectNode> subschemas = new LinkedHashMap<>();
+	private final Map<String, String> anchors = new HashMap<>();
+	private final Map<String, Cost> costs = new HashMap<>();
+	private final Set<String> inProgress = new HashSet<>();
+	private String baseUri = "";
+	private int visits;
+	private int maxBranching;
+	private boolean recursive;
+
+	private SchemaComplexityAnalyzer() {}
+
+	/**
+	 * Analyzes a schema. The supplied schema is not modified.
+	 *
+	 * @param  schema the schema document
+	 * @return        the complexity of the schema
+	 */
+	public static SchemaComplexity analyze(JsonNode schema) {
+		if (!(schema instanceof final ObjectNode root)) {
+			return new SchemaComplexity(0, 0, 0, false, 1);
+		}
+
+		final var analyzer = new SchemaComplexityAnalyzer();
+		final var id = root.get("$id");
+		if (id != null && id.isString()) {
+			analyzer.baseUri = id.asString().split("#", -1)[0];
+		}
+
+		Subschemas.forEach(root, false, analyzer::collect);
+		final var cost = analyzer.visit("");
+		return new SchemaComplexity(analyzer.subschemas.size(), cost.depth(), analyzer.maxBranching, analyzer.recursive, cost.evaluations());
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void collect(ObjectNode subschema, String pointer) {
+		subschemas.put(pointer, subschema);
+		ANCHOR_KEYWORDS.stream()
+			.map(subschema::get)
+			.filter(anchor -> anchor != null && anchor.isString())
+			.forEach(anchor -> anchors.putIfAbsent(anchor.asString(), pointer));
+		BRANCHING_KEYWORDS.stream()
+			.map(subschema::get)
+			.filter(branches -> branches != null && branches.isArray())
+			.forEach(branches -> maxBranching = Math.max(maxBranching, branches.size()));
+		if (DYNAMIC_REFERENCE_KEYWORDS.stream().anyMatch(subschema::has)) {
+			recursive = true;
+		}
+	}
+
+	private Cost visit(String pointer) {
+		final var known = costs.get(pointer);
+		if (known != null) {
+			return known;
+		}
+		if (inProgress.contains(pointer)) {
+			recursive = true;
+			return Cost.CUT;
+		}
+		if (inProgress.size() >= DEPTH_LIMIT) {
+			return Cost.LEAF;
+		}
+		if (++visits > VISIT_LIMIT) {
+			return Cost.SATURATED;
+		}
+
+		inProgress.add(pointer);
+		final var subschema = subschemas.get(pointer);
+		var evaluations = (long) Math.max(1, subschema.size());
+		var depth = 0;
+		var partial = false;
+		for (final var next : successors(subschema, pointer)) {
+			final var cost = visit(next);
+			evaluations = saturatedAdd(evaluations, cost.evaluations());
+			depth = Math.max(depth, cost.depth());
+			partial |= cost.partial();
+		}
+		inProgress.remove(pointer);
+
+		final var cost = new Cost(evaluations, depth + 1, partial);
+		if (!partial) {
+			// A cost where a cycle was cut depends on where the cycle was entered, so only complete costs are reused
+			costs.put(pointer, cost);
+		}
+		return cost;
+	}
+
+	/**
+	 * Returns the pointers of the subschemas a validation passes on to from a subschema: its child subschemas, except for
+	 * definitions, and the target of its reference.
+	 */
+	private List<String> successors(ObjectNode subschema, String pointer) {
+		final var successors = new ArrayList<String>();
+		Subschemas.forEachChild(subschema, (child, relativePointer) -> {
+			final var keyword = relativePointer.substring(1).split("/", -1)[0];
+			if (child.isObject() && !DEFINITION_KEYWORDS.contains(keyword)) {
+				successors.add(pointer + relativePointer);
+			}
+		});
+
+		final var reference = subschema.get("$ref");
+		if (reference != null && reference.isString()) {
+			final var target = resolve(reference.asString());
+			if (target != null && subschemas.containsKey(target)) {
+				successors.add(target);
+			}
+		}
+		return successors;
+	}
+
+	/**
+	 * Resolves a reference within the document to the JSON Pointer of its target, or null if it refers to another
+	 * document.
+	 */
+	private String resolve(String reference) {
+		var fragment = reference;
+		if (!baseUri.isEmpty() && reference.startsWith(baseUri + "#")) {
+			fragment = reference.substring(baseUri.length());
+		}
+		if (!fragment.startsWith("#")) {
+			return null;
+		}
+		if (fragment.equals("#") || fragment.startsWith("#/")) {
+			return fragment.substring(1);
+		}
+		return anchors.get(fragment.substring(1));
+	}
+
+	private static long saturatedAdd(long a, long b) {
+		final var sum = a + b;
+		return sum < 0 ? Long.MAX_VALUE : sum;
+	}
+
+	/**
+	 * The cost of a subschema. A cost is partial if a cycle was cut while it was computed.
+	 */
+	private record Cost(long evaluations, int depth, boolean partial) {
+		private static final Cost CUT = new Cost(0, 0, true);
+		private static final Cost LEAF = new Cost(1, 1, false);
+		private static final Cost SATURATED = new Cost(Long.MAX_VALUE, 1, false);
+	}
+}
@@ -0,0 +1,334 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import com.networknt.schema.dialect.DialectId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ArrayNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Semantics-preserving rewrite of a stored 2020-12 schema, made before it is compiled.
+ *
+ * <p>
+ * Schemas produced by form designers often contain redundancy that costs time on every validation. The optimizer:
+ * </p>
+ * <ul>
+ * <li>flattens nested {@code allOf}, drops always valid {@code allOf} elements, and merges a single remaining element
+ * into its parent when no keyword of the two interacts,</li>
+ * <li>drops {@code anyOf} and {@code oneOf} branches that can never match,</li>
+ * <li>replaces an {@code if} whose condition is constant with the branch it always takes,</li>
+ * <li>merges identical definitions in {@code $defs} (or {@code definitions}) and redirects references to them,</li>
+ * <li>moves large {@code enum} lists that occur more than once into {@code $defs}, so they are compiled once.</li>
+ * </ul>
+ *
+ * <p>
+ * Validity is never affected. Subschemas that are targets of references are never moved, and schemas with references
+ * the optimizer cannot follow (such as {@code $dynamicRef}, or embedded resources with their own {@code $id}) are left
+ * as they are. The errors reported against the rewritten schema may differ, though: errors of removed branches
+ * disappear, and schema locations point into the rewritten schema. The rewritten schema is therefore only used where
+ * validity alone is reported.
+ * </p>
+ */
+public final class SchemaOptimizer {
+
+	private static final Set<String> DEFINITION_KEYWORDS = Set.of("$defs", "definitions");
+
+	/**
+	 * Keywords that identify a schema resource or its location, which must therefore not be moved.
+	 */
+	private static final Set<String> IDENTIFYING_KEYWORDS = Set.of("$id", "$schema", "$anchor", "$dynamicAnchor", "$defs", "definitions");
+
+	/**
+	 * Keywords whose outcome depends on adjacent keywords. A subschema is never merged into its parent if both use
+	 * keywords of the same group.
+	 */
+	private static final List<Set<String>> ADJACENT_KEYWORDS = List.of(
+		Set.of("properties", "patternProperties", "additionalProperties"),
+		Set.of("prefixItems", "items"),
+		Set.of("contains", "minContains", "maxContains"),
+		Set.of("if", "then", "else"));
+	private static final Set<String> UNEVALUATED_KEYWORDS = Set.of("unevaluatedProperties", "unevaluatedItems");
+	private static final Set<String> UNSUPPORTED_REFERENCE_KEYWORDS = Set.of("$dynamicRef", "$recursiveRef");
+
+	private static final int HOISTED_ENUM_MINIMUM_SIZE = 16;
+	private static final String HOISTED_ENUM_PREFIX = "enum-";
+
+	private final Set<String> references = new HashSet<>();
+
+	private SchemaOptimizer() {}
+
+	/**
+	 * Optimizes a schema. The supplied schema is not modified.
+	 *
+	 * @param  schema the schema document
+	 * @return        the optimized schema, which is the supplied schema if it cannot be optimized
+	 */
+	public static OptimizedSchema optimize(JsonNode schema) {
+		final var nodesBefore = countNodes(schema);
+		if (!(schema instanceof final ObjectNode root) || !isSupported(root)) {
+			return new OptimizedSchema(schema, nodesBefore, nodesBefore);
+		}
+
+		final var optimizer = new SchemaOptimizer();
+		final var optimized = (ObjectNode) root.deepCopy();
+
+		optimizer.collectReferences(optimized);
+		Subschemas.forEach(optimized, true, optimizer::simplify);
+		optimizer.deduplicateDefinitions(optimized);
+		optimizer.hoistEnums(optimized);
+
+		return new OptimizedSchema(optimized, nodesBefore, countNodes(optimized));
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static boolean isSupported(ObjectNode root) {
+		final var dialect = root.get("$schema");
+		if (dialect != null && !(dialect.isString() && DialectId.DRAFT_2020_12.equals(dialect.asString().replaceFirst("#$", "")))) {
+			return false;
+		}
+
+		final var supported = new boolean[] {
+			true
+		};
+		Subschemas.forEach(root, false, (schema, pointer) -> {
+			final var reference = schema.get("$ref");
+			if ((!pointer.isEmpty() && schema.has("$id"))
+				|| UNSUPPORTED_REFERENCE_KEYWORDS.stream().anyMatch(schema::has)
+				|| (reference != null && !isLocalReference(reference))) {
+				supported[0] = false;
+			}
+		});
+		return supported[0];
+	}
+
+	private void collectReferences(ObjectNode root) {
+		references.clear();
+		Subschemas.forEach(root, false, (schema, _) -> {
+			if (schema.has("$ref")) {
+				references.add(schema.get("$ref").asString().substring(1));
+			}
+		});
+	}
+
+	/**
+	 * Returns whether the subschema at the pointer, or anything within it, is the target of a reference.
+	 */
+	private boolean isReferenced(String pointer) {
+		return references.stream().anyMatch(reference -> reference.equals(pointer) || reference.startsWith(pointer + "/"));
+	}
+
+	private void simplify(ObjectNode schema, String pointer) {
+		simplifyConditional(schema, pointer);
+		flattenAllOf(schema, pointer);
+		removeImpossibleBranches(schema, "anyOf", pointer);
+		removeImpossibleBranches(schema, "oneOf", pointer);
+	}
+
+	private void simplifyConditional(ObjectNode schema, String pointer) {
+		final var condition = schema.get("if");
+		if (condition == null || !(isAlwaysValid(condition) || isNeverValid(condition))) {
+			return;
+		}
+		if (schema.has("allOf") && !schema.get("allOf").isArray()) {
+			return;
+		}
+
+		final var taken = isAlwaysValid(condition) ? "then" : "else";
+		final var skipped = isAlwaysValid(condition) ? "else" : "then";
+		if (isReferenced(pointer + "/if") || isReferenced(pointer + "/" + taken) || isReferenced(pointer + "/" + skipped)) {
+			return;
+		}
+
+		schema.remove("if");
+		schema.remove(skipped);
+		final var branch = schema.remove(taken);
+		if (branch != null) {
+			final var allOf = schema.has("allOf") ? (ArrayNode) schema.get("allOf") : schema.putArray("allOf");
+			allOf.add(branch);
+		}
+	}
+
+	private void flattenAllOf(ObjectNode schema, String pointer) {
+		if (!(schema.get("allOf") instanceof final ArrayNode allOf)) {
+			return;
+		}
+
+		final var allOfPointer = pointer + "/allOf";
+		final var elements = new ArrayList<JsonNode>();
+		final var origins = new ArrayList<String>();
+		final var removed = new ArrayList<String>();
+		for (var index = 0; index < allOf.size(); index++) {
+			final var element = allOf.get(index);
+			final var elementPointer = allOfPointer + "/" + index;
+			if (isAlwaysValid(element)) {
+				removed.add(elementPointer);
+			} else if (element.isObject() && element.size() == 1 && element.get("allOf") instanceof final ArrayNode nested) {
+				removed.add(elementPointer);
+				for (var nestedIndex = 0; nestedIndex < nested.size(); nestedIndex++) {
+					elements.add(nested.get(nestedIndex));
+					origins.add(elementPointer + "/allOf/" + nestedIndex);
+				}
+			} else {
+				elements.add(element);
+				origins.add(elementPointer);
+			}
+		}
+
+		if (!removed.isEmpty()) {
+			final var movedReferenced = IntStream.range(0, origins.size()).anyMatch(index -> !origins.get(index).equals(allOfPointer + "/" + index) && isReferenced(origins.get(index)));
+			if (removed.stream().anyMatch(this::isReferenced) || movedReferenced) {
+				return;
+			}
+
+			allOf.removeAll();
+			elements.forEach(allOf::add);
+		}
+
+		if (allOf.isEmpty()) {
+			schema.remove("allOf");
+		} else if (allOf.size() == 1 && allOf.get(0) instanceof final ObjectNode element && isMergeable(schema, element) && !isReferenced(allOfPointer + "/0")) {
+			schema.remove("allOf");
+			Subschemas.names(element).forEach(name -> schema.set(name, element.get(name)));
+		}
+	}
+
+	/**
+	 * A subschema can be merged into its parent when they share no keyword, and no keyword of one depends on a keyword of
+	 * the other.
+	 */
+	private static boolean isMergeable(ObjectNode parent, ObjectNode element) {
+		final var parentNames = new HashSet<>(Subschemas.names(parent));
+		parentNames.remove("allOf");
+		final var elementNames = Subschemas.names(element);
+
+		return elementNames.stream().noneMatch(name -> parentNames.contains(name) || IDENTIFYING_KEYWORDS.contains(name) || UNEVALUATED_KEYWORDS.contains(name))
+			&& parentNames.stream().noneMatch(UNEVALUATED_KEYWORDS::contains)
+			&& ADJACENT_KEYWORDS.stream().noneMatch(group -> elementNames.stream().anyMatch(group::contains) && parentNames.stream().anyMatch(group::contains));
+	}
+
+	private void removeImpossibleBranches(ObjectNode schema, String keyword, String pointer) {
+		if (!(schema.get(keyword) instanceof final ArrayNode branches)) {
+			return;
+		}
+
+		final var keywordPointer = pointer + "/" + keyword;
+		final var kept = IntStream.range(0, branches.size()).filter(index -> !isNeverValid(branches.get(index))).boxed().toList();
+		if (kept.isEmpty() || kept.size() == branches.size()) {
+			return;
+		}
+
+		// Every branch from the first removed one is either removed or moved
+		final var firstRemoved = IntStream.range(0, branches.size()).filter(index -> !kept.contains(index)).findFirst().orElseThrow();
+		if (IntStream.range(firstRemoved, branches.size()).anyMatch(index -> isReferenced(keywordPointer + "/" + index))) {
+			return;
+		}
+
+		final var elements = kept.stream().map(branches::get).toList();
+		branches.removeAll();
+		elements.forEach(branches::add);
+	}
+
+	/**
+	 * Merges identical definitions, and redirects all references to the first of them.
+	 */
+	private void deduplicateDefinitions(ObjectNode root) {
+		for (final var keyword : DEFINITION_KEYWORDS) {
+			if (!(root.get(keyword) instanceof final ObjectNode definitions)) {
+				continue;
+			}
+
+			final var first = new HashMap<JsonNode, String>();
+			final var redirects = new LinkedHashMap<String, String>();
+			for (final var name : Subschemas.names(definitions)) {
+				final var existing = first.putIfAbsent(definitions.get(name), name);
+				if (existing != null) {
+					redirects.put("/" + keyword + "/" + Subschemas.escape(name), "/" + keyword + "/" + Subschemas.escape(existing));
+				}
+			}
+			if (redirects.isEmpty()) {
+				continue;
+			}
+
+			redirects.keySet().forEach(pointer -> definitions.remove(unescape(pointer.substring(keyword.length() + 2))));
+			Subschemas.forEach(root, false, (schema, _) -> {
+				if (schema.has("$ref")) {
+					final var reference = schema.get("$ref").asString().substring(1);
+					redirects.forEach((from, to) -> {
+						if (reference.equals(from) || reference.startsWith(from + "/")) {
+							schema.put("$ref", "#" + to + reference.substring(from.length()));
+						}
+					});
+				}
+			});
+		}
+		collectReferences(root);
+	}
+
+	/**
+	 * Moves large enum lists that occur more than once into {@code $defs}, and references them instead.
+	 */
+	private void hoistEnums(ObjectNode root) {
+		if (root.has("$defs") && !root.get("$defs").isObject()) {
+			return;
+		}
+
+		final var occurrences = new LinkedHashMap<JsonNode, List<ObjectNode>>();
+		Subschemas.forEach(root, false, (schema, pointer) -> {
+			final var values = schema.get("enum");
+			if (values != null && values.isArray() && values.size() >= HOISTED_ENUM_MINIMUM_SIZE && !schema.has("$ref") && !isReferenced(pointer + "/enum")) {
+				occurrences.computeIfAbsent(values, _ -> new ArrayList<>()).add(schema);
+			}
+		});
+
+		var sequence = 0;
+		for (final var entry : occurrences.entrySet()) {
+			if (entry.getValue().size() < 2) {
+				continue;
+			}
+
+			final var definitions = root.has("$defs") ? (ObjectNode) root.get("$defs") : root.putObject("$defs");
+			while (definitions.has(HOISTED_ENUM_PREFIX + sequence)) {
+				sequence++;
+			}
+			final var name = HOISTED_ENUM_PREFIX + sequence;
+			definitions.putObject(name).set("enum", entry.getKey());
+			entry.getValue().forEach(occurrence -> {
+				occurrence.remove("enum");
+				occurrence.put("$ref", "#/$defs/" + name);
+			});
+		}
+	}
+
+	private static boolean isAlwaysValid(JsonNode schema) {
+		return (schema.isBoolean() && schema.booleanValue()) || (schema.isObject() && schema.isEmpty());
+	}
+
+	private static boolean isNeverValid(JsonNode schema) {
+		return (schema.isBoolean() && !schema.booleanValue()) || (schema.isObject() && schema.size() == 1 && schema.has("not") && isAlwaysValid(schema.get("not")));
+	}
+
+	private static boolean isLocalReference(JsonNode reference) {
+		return reference.isString()
+			&& (reference.asString().equals("#") || reference.asString().startsWith("#/"))
+			&& !reference.asString().contains("%");
+	}
+
+	private static int countNodes(JsonNode node) {
+		var count = 1;
+		for (final var child : node) {
+			count += countNodes(child);
+		}
+		return count;
+	}
+
+	private static String unescape(String token) {
+		return token.replace("~1", "/").replace("~0", "~");
+	}
+}
@@ -0,0 +1,18 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Validator specialized for one schema by the {@link SchemaCompiler}.
+ */
+@FunctionalInterface
+public interface SpecializedValidator {
+
+	/**
+	 * Validates an instance.
+	 *
+	 * @param  instance the instance to validate
+	 * @return          the verdict, which is {@link Verdict#UNKNOWN} when the interpreter must decide
+	 */
+	Verdict validate(JsonNode instance);
+}
@@ -0,0 +1,85 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.node.ObjectNode;
+
+/**
+ * Traversal of the subschemas of a 2020-12 schema, i.e. of every value of a keyword that takes a schema, but of no
+ * other values such as those of {@code enum} or {@code const}.
+ */
+public final class Subschemas {
+
+	private static final Set<String> SUBSCHEMA_KEYWORDS = Set.of("additionalProperties", "items", "contains", "propertyNames", "not", "if", "then", "else",
+		"unevaluatedItems", "unevaluatedProperties", "contentSchema");
+	private static final Set<String> SUBSCHEMA_MAP_KEYWORDS = Set.of("properties", "patternProperties", "$defs", "definitions", "dependentSchemas");
+	private static final Set<String> SUBSCHEMA_ARRAY_KEYWORDS = Set.of("allOf", "anyOf", "oneOf", "prefixItems");
+
+	private Subschemas() {}
+
+	/**
+	 * Visits a schema and all its subschemas, that are objects, together with their JSON Pointers.
+	 *
+	 * @param schema    the schema
+	 * @param postOrder if true, subschemas are visited before the schema they belong to, otherwise after
+	 * @param action    the action to perform for each subschema, which may modify the subschema it is passed
+	 */
+	public static void forEach(JsonNode schema, boolean postOrder, BiConsumer<ObjectNode, String> action) {
+		forEach(schema, "", postOrder, action);
+	}
+
+	/**
+	 * Visits the subschemas that are direct children of a schema, together with their JSON Pointers relative to the
+	 * schema. Boolean subschemas are visited as well.
+	 *
+	 * @param schema the schema
+	 * @param action the action to perform for each child subschema
+	 */
+	static void forEachChild(ObjectNode schema, BiConsumer<JsonNode, String> action) {
+		for (final var name : names(schema)) {
+			final var value = schema.get(name);
+			final var keywordPointer = "/" + escape(name);
+			if (SUBSCHEMA_KEYWORDS.contains(name)) {
+				action.accept(value, keywordPointer);
+			} else if (SUBSCHEMA_MAP_KEYWORDS.contains(name) && value.isObject()) {
+				names(value).forEach(property -> action.accept(value.get(property), keywordPointer + "/" + escape(property)));
+			} else if (SUBSCHEMA_ARRAY_KEYWORDS.contains(name) && value.isArray()) {
+				IntStream.range(0, value.size()).forEach(index -> action.accept(value.get(index), keywordPointer + "/" + index));
+			}
+		}
+	}
+
+	/**
+	 * Returns the property names of an object node.
+	 */
+	static List<String> names(JsonNode object) {
+		return object.properties().stream().map(Map.Entry::getKey).toList();
+	}
+
+	/**
+	 * Escapes a property name for use as a JSON Pointer reference token.
+	 */
+	static String escape(String name) {
+		return name.replace("~", "~0").replace("/", "~1");
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static void forEach(JsonNode schema, String pointer, boolean postOrder, BiConsumer<ObjectNode, String> action) {
+		if (!(schema instanceof final ObjectNode object)) {
+			return;
+		}
+
+		if (!postOrder) {
+			action.accept(object, pointer);
+		}
+		forEachChild(object, (child, relativePointer) -> forEach(child, pointer + relativePointer, postOrder, action));
+		if (postOrder) {
+			action.accept(object, pointer);
+		}
+	}
+}
@@ -0,0 +1,28 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+/**
+ * Outcome of validating an instance with a {@link SpecializedValidator}.
+ */
+public enum Verdict {
+
+	/** The instance is valid. */
+	VALID,
+
+	/** The instance is invalid. */
+	INVALID,
+
+	/** The outcome depends on keywords the specialized validator does not support, and must be decided by the interpreter. */
+	UNKNOWN;
+
+	static Verdict of(boolean valid) {
+		return valid ? VALID : INVALID;
+	}
+
+	Verdict negate() {
+		return switch (this) {
+			case VALID -> INVALID;
+			case INVALID -> VALID;
+			case UNKNOWN -> UNKNOWN;
+		};
+	}
+}
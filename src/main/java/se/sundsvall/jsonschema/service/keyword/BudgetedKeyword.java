@@ -0,0 +1,65 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * An applicator keyword that charges each of its evaluations to the {@link ValidationBudget} of the running validation,
+ * before evaluating it with the keyword it decorates.
+ *
+ * <p>
+ * Only applicators are decorated: every descent into a subschema passes through one, so they bound the work of a
+ * validation, while the cost of checking the budget is not paid by the far more frequent assertion keywords. The
+ * decorated keywords are preloaded along with the schema, so that their subschemas and references are still resolved
+ * when the schema is compiled.
+ * </p>
+ */
+final class BudgetedKeyword implements Keyword {
+
+	private final Keyword keyword;
+
+	BudgetedKeyword(Keyword keyword) {
+		this.keyword = keyword;
+	}
+
+	@Override
+	public String getValue() {
+		return keyword.getValue();
+	}
+
+	@Override
+	public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode, Schema parentSchema, SchemaContext schemaContext) {
+		return new Validator(this, schemaNode, schemaLocation, parentSchema, schemaContext, keyword.newValidator(schemaLocation, schemaNode, parentSchema, schemaContext));
+	}
+
+	private static final class Validator extends BaseKeywordValidator {
+
+		private final KeywordValidator validator;
+
+		private Validator(Keyword keyword, JsonNode schemaNode, SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext, KeywordValidator validator) {
+			super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+			this.validator = validator;
+		}
+
+		@Override
+		public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			ValidationBudget.charge(executionContext.getEvaluationPath().getNameCount());
+			validator.validate(executionContext, node, rootNode, instanceLocation);
+		}
+
+		/**
+		 * Lets the decorated keyword resolve its subschemas when the validators of the schema are initialized.
+		 */
+		@Override
+		public void preloadSchema() {
+			validator.preloadSchema();
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.networknt.schema.regex.RegularExpression;
+import com.networknt.schema.regex.RegularExpressionFactory;
+
+/**
+ * Factory of regular expressions that keeps compiled expressions in a bounded cache, so that a pattern used by many
+ * schemas, or by a schema that is recompiled, is only compiled once. Compiled expressions are immutable and may be
+ * shared between schemas and threads.
+ */
+public final class CachingRegularExpressionFactory implements RegularExpressionFactory {
+
+	private final RegularExpressionFactory delegate;
+	private final Cache<String, RegularExpression> expressions;
+
+	/**
+	 * @param delegate           the factory that compiles expressions which are not cached
+	 * @param maximumExpressions maximum number of cached expressions
+	 */
+	public CachingRegularExpressionFactory(RegularExpressionFactory delegate, long maximumExpressions) {
+		this.delegate = delegate;
+		this.expressions = Caffeine.newBuilder().maximumSize(maximumExpressions).build();
+	}
+
+	@Override
+	public RegularExpression getRegularExpression(String regex) {
+		return expressions.get(regex, delegate::getRegularExpression);
+	}
+}
@@ -0,0 +1,55 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The {@code const} keyword, implemented by comparing canonical values, see {@link JsonValues}. The canonical value of
+ * the constant is computed once, when the schema is compiled.
+ */
+final class ConstKeyword implements Keyword {
+
+	static final String KEYWORD = "const";
+
+	@Override
+	public String getValue() {
+		return KEYWORD;
+	}
+
+	@Override
+	public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode, Schema parentSchema, SchemaContext schemaContext) {
+		return new Validator(this, schemaNode, schemaLocation, parentSchema, schemaContext);
+	}
+
+	private static final class Validator extends BaseKeywordValidator {
+
+		private final Object value;
+		private final String constant;
+
+		private Validator(Keyword keyword, JsonNode schemaNode, SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext) {
+			super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+			this.value = JsonValues.canonical(schemaNode);
+			this.constant = schemaNode.isValueNode() ? schemaNode.asString() : schemaNode.toString();
+		}
+
+		@Override
+		public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			if (!value.equals(JsonValues.canonical(node))) {
+				executionContext.addError(error()
+					.instanceNode(node)
+					.instanceLocation(instanceLocation)
+					.evaluationPath(executionContext.getEvaluationPath())
+					.locale(executionContext.getExecutionConfig().getLocale())
+					.arguments(constant)
+					.build());
+			}
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordType;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The {@code oneOf} and {@code anyOf} keywords, with branches selected by a {@link Discriminator}.
+ *
+ * <p>
+ * When the branches are discriminated by a property, an object instance is first evaluated against the branches that
+ * can match its value of the property only. The remaining branches are known not to match, so when the candidates
+ * decide that the instance is valid, so would full evaluation. Each branch is compiled once, and shared by all values
+ * of the property.
+ * </p>
+ *
+ * <p>
+ * An instance that the candidates do not accept is invalid, and is evaluated by the stock implementation, so that its
+ * errors are exactly those of full evaluation. Both the branches and the stock implementation are preloaded along with
+ * the schema, so that references within the branches are resolved when the schema is compiled, and not by the first
+ * validation that reaches them. Keywords whose branches are not discriminated are evaluated by the stock
+ * implementation alone.
+ * </p>
+ */
+final class DiscriminatedKeyword implements Keyword {
+
+	private final KeywordType keywordType;
+
+	DiscriminatedKeyword(KeywordType keywordType) {
+		this.keywordType = keywordType;
+	}
+
+	@Override
+	public String getValue() {
+		return keywordType.getValue();
+	}
+
+	@Override
+	public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode, Schema parentSchema, SchemaContext schemaContext) {
+		final var discriminator = Discriminator.of(schemaNode, parentSchema.findSchemaResourceRoot().getSchemaNode());
+		if (discriminator.isEmpty()) {
+			return keywordType.newValidator(schemaLocation, schemaNode, parentSchema, schemaContext);
+		}
+
+		final var branches = IntStream.range(0, schemaNode.size())
+			.mapToObj(index -> schemaContext.newSchema(schemaLocation.append(index), schemaNode.get(index), parentSchema))
+			.toList();
+		final Supplier<KeywordValidator> stockValidatorFactory = () -> keywordType.newValidator(schemaLocation, schemaNode, parentSchema, schemaContext);
+		return new Validator(this, schemaNode, schemaLocation, parentSchema, schemaContext, discriminator.get(), branches, stockValidatorFactory);
+	}
+
+	private static final class Validator extends BaseKeywordValidator {
+
+		private final KeywordType keywordType;
+		private final Discriminator discriminator;
+		private final List<Schema> branches;
+		private final List<Integer> allBranches;
+		private final Supplier<KeywordValidator> stockValidatorFactory;
+		private volatile KeywordValidator stockValidator;
+
+		private Validator(DiscriminatedKeyword keyword, JsonNode schemaNode, SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext,
+			Discriminator discriminator, List<Schema> branches, Supplier<KeywordValidator> stockValidatorFactory) {
+			super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+			this.keywordType = keyword.keywordType;
+			this.discriminator = discriminator;
+			this.branches = branches;
+			this.allBranches = IntStream.range(0, branches.size()).boxed().toList();
+			this.stockValidatorFactory = stockValidatorFactory;
+		}
+
+		@Override
+		public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			final var candidates = node.isObject() ? discriminator.candidatesFor(node) : allBranches;
+			if (!acceptedByCandidates(candidates, executionContext, node, rootNode, instanceLocation)) {
+				stockValidator().validate(executionContext, node, rootNode, instanceLocation);
+			}
+		}
+
+		/**
+		 * Evaluates the candidate branches, without reporting their errors, and returns whether they accept the instance.
+		 */
+		private boolean acceptedByCandidates(List<Integer> candidates, ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			final var oneOf = keywordType == KeywordType.ONE_OF;
+			// Annotations of all matching anyOf branches are collected, so anyOf only stops early without them
+			final var stopAtFirstMatch = !oneOf && !executionContext.getExecutionConfig().isAnnotationCollectionEnabled();
+			final var errors = executionContext.getErrors();
+			final var failFast = executionContext.isFailFast();
+			var matches = 0;
+
+			// A failing branch must not fail the validation
+			executionContext.setFailFast(false);
+			try {
+				for (final int index : candidates) {
+					final var branchErrors = new ArrayList<Error>();
+					executionContext.setErrors(branchErrors);
+					executionContext.evaluationPathAddLast(index);
+					try {
+						branches.get(index).validate(executionContext, node, rootNode, instanceLocation);
+					} finally {
+						executionContext.evaluationPathRemoveLast();
+					}
+
+					if (branchErrors.isEmpty()) {
+						matches++;
+						if (stopAtFirstMatch || (oneOf && matches > 1)) {
+							break;
+						}
+					}
+				}
+			} finally {
+				executionContext.setErrors(errors);
+				executionContext.setFailFast(failFast);
+			}
+			return oneOf ? matches == 1 : matches > 0;
+		}
+
+		@Override
+		public void preloadSchema() {
+			branches.forEach(Schema::initializeValidators);
+			stockValidator().preloadSchema();
+		}
+
+		private KeywordValidator stockValidator() {
+			var validator = stockValidator;
+			if (validator == null) {
+				synchronized (this) {
+					validator = stockValidator;
+					if (validator == null) {
+						validator = stockValidatorFactory.get();
+						stockValidator = validator;
+					}
+				}
+			}
+			return validator;
+		}
+	}
+}
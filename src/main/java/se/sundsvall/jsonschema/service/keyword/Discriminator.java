@@ -0,0 +1,174 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Lookup table from the value of a discriminating property to the {@code oneOf} or {@code anyOf} branches that can
+ * match an object with that value.
+ *
+ * <p>
+ * A branch is discriminated by a property if it requires the property and restricts it by {@code const} or
+ * {@code enum}, directly or through local {@code $ref}s. Such a branch can never match an object that lacks the
+ * property, or that has a value outside of the restriction, so only the remaining branches need to be evaluated.
+ * Branches that are not discriminated are always candidates. So are branches that are, or contain, an embedded schema
+ * resource with its own {@code $id}, as their references are not resolved against the root of the keyword.
+ * </p>
+ *
+ * @param property        name of the discriminating property
+ * @param candidates      indices of the candidate branches per canonical value of the property, see {@link JsonValues}
+ * @param undiscriminated indices of the branches that are candidates regardless of the value
+ */
+record Discriminator(String property, Map<Object, List<Integer>> candidates, List<Integer> undiscriminated) {
+
+	private static final int MAXIMUM_REFERENCE_DEPTH = 16;
+
+	/**
+	 * Analyses the branches of a {@code oneOf} or {@code anyOf} keyword.
+	 *
+	 * @param  branches     the value of the keyword
+	 * @param  resourceRoot the root of the schema resource the keyword belongs to, against which local references are
+	 *                      resolved
+	 * @return              the discriminator, or empty if fewer than two branches are discriminated by the same property
+	 */
+	static Optional<Discriminator> of(JsonNode branches, JsonNode resourceRoot) {
+		if (!branches.isArray() || branches.size() < 2) {
+			return Optional.empty();
+		}
+
+		// The values each branch allows, per property that discriminates the branch
+		final var restrictions = new ArrayList<Map<String, List<Object>>>(branches.size());
+		final var discriminated = new HashMap<String, Integer>();
+		for (final var branch : branches) {
+			final var restriction = new LinkedHashMap<String, List<Object>>();
+			if (!containsId(branch)) {
+				collectRestrictions(branch, resourceRoot, restriction, 0);
+			}
+			restriction.keySet().forEach(property -> discriminated.merge(property, 1, Integer::sum));
+			restrictions.add(restriction);
+		}
+
+		return discriminated.entrySet().stream()
+			.filter(entry -> entry.getValue() >= 2)
+			.max(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+			.map(Map.Entry::getKey)
+			.map(property -> create(property, restrictions));
+	}
+
+	/**
+	 * Returns the indices of the branches that can match the instance, in ascending order.
+	 *
+	 * @param  instance an object instance
+	 * @return          the candidate branch indices
+	 */
+	List<Integer> candidatesFor(JsonNode instance) {
+		final var value = instance.get(property);
+		if (value == null) {
+			return undiscriminated;
+		}
+		return candidates.getOrDefault(JsonValues.canonical(value), undiscriminated);
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static Discriminator create(String property, List<Map<String, List<Object>>> restrictions) {
+		final var undiscriminated = new ArrayList<Integer>();
+		final var branchesByValue = new HashMap<Object, TreeSet<Integer>>();
+		for (var index = 0; index < restrictions.size(); index++) {
+			final var values = restrictions.get(index).get(property);
+			if (values == null) {
+				undiscriminated.add(index);
+			} else {
+				final var branch = index;
+				values.forEach(value -> branchesByValue.computeIfAbsent(value, _ -> new TreeSet<>()).add(branch));
+			}
+		}
+
+		final var candidates = new HashMap<Object, List<Integer>>();
+		branchesByValue.forEach((value, branches) -> {
+			branches.addAll(undiscriminated);
+			candidates.put(value, List.copyOf(branches));
+		});
+		return new Discriminator(property, Map.copyOf(candidates), List.copyOf(undiscriminated));
+	}
+
+	/**
+	 * Collects the properties a schema requires and restricts to constant values, including those of the schemas it
+	 * references. All of them apply, so the restriction of a property is narrowed to the values allowed by each.
+	 */
+	private static void collectRestrictions(JsonNode schema, JsonNode resourceRoot, Map<String, List<Object>> restriction, int depth) {
+		if (!schema.isObject() || depth > MAXIMUM_REFERENCE_DEPTH) {
+			return;
+		}
+
+		final var required = schema.get("required");
+		final var properties = schema.get("properties");
+		if (required != null && required.isArray() && properties != null && properties.isObject()) {
+			for (final var name : required) {
+				final var values = name.isString() ? allowedValues(properties.get(name.asString())) : null;
+				if (values != null) {
+					restriction.merge(name.asString(), values, (existing, added) -> existing.stream().filter(added::contains).toList());
+				}
+			}
+		}
+
+		final var reference = schema.get("$ref");
+		if (reference != null && reference.isString() && reference.asString().startsWith("#/") && !reference.asString().contains("%")) {
+			final var pointer = reference.asString().substring(1);
+			final var target = resourceRoot.at(pointer);
+			if (!target.isMissingNode() && !isWithinEmbeddedResource(pointer, resourceRoot)) {
+				collectRestrictions(target, resourceRoot, restriction, depth + 1);
+			}
+		}
+	}
+
+	/**
+	 * Returns whether the location, or any location on the way to it, is the root of an embedded schema resource, in
+	 * which case references within it are not resolved against the supplied root.
+	 */
+	private static boolean isWithinEmbeddedResource(String pointer, JsonNode resourceRoot) {
+		for (var end = pointer.indexOf('/', 1); ; end = pointer.indexOf('/', end + 1)) {
+			final var location = resourceRoot.at(end < 0 ? pointer : pointer.substring(0, end));
+			if (location.has("$id")) {
+				return true;
+			}
+			if (end < 0) {
+				return false;
+			}
+		}
+	}
+
+	private static boolean containsId(JsonNode schema) {
+		if (schema.isObject() && schema.has("$id")) {
+			return true;
+		}
+		for (final var child : schema) {
+			if (containsId(child)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static List<Object> allowedValues(JsonNode propertySchema) {
+		if (propertySchema == null || !propertySchema.isObject()) {
+			return null;
+		}
+		if (propertySchema.has("const")) {
+			return List.of(JsonValues.canonical(propertySchema.get("const")));
+		}
+		final var enumeration = propertySchema.get("enum");
+		if (enumeration != null && enumeration.isArray()) {
+			final var values = new ArrayList<>(enumeration.size());
+			enumeration.forEach(value -> values.add(JsonValues.canonical(value)));
+			return values;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,62 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The {@code enum} keyword, implemented by a lookup in a set of the canonical values of the enumeration, see
+ * {@link JsonValues}.
+ */
+final class EnumKeyword implements Keyword {
+
+	static final String KEYWORD = "enum";
+
+	@Override
+	public String getValue() {
+		return KEYWORD;
+	}
+
+	@Override
+	public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode, Schema parentSchema, SchemaContext schemaContext) {
+		return new Validator(this, schemaNode, schemaLocation, parentSchema, schemaContext);
+	}
+
+	private static final class Validator extends BaseKeywordValidator {
+
+		private final Set<Object> values;
+		private final String enumeration;
+
+		private Validator(Keyword keyword, JsonNode schemaNode, SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext) {
+			super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+			this.values = HashSet.newHashSet(schemaNode.size());
+			schemaNode.forEach(value -> values.add(JsonValues.canonical(value)));
+			this.enumeration = StreamSupport.stream(schemaNode.spliterator(), false)
+				.map(JsonNode::toString)
+				.collect(Collectors.joining(", ", "[", "]"));
+		}
+
+		@Override
+		public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			if (!values.contains(JsonValues.canonical(node))) {
+				executionContext.addError(error()
+					.instanceNode(node)
+					.instanceLocation(instanceLocation)
+					.evaluationPath(executionContext.getEvaluationPath())
+					.locale(executionContext.getExecutionConfig().getLocale())
+					.arguments(enumeration)
+					.build());
+			}
+		}
+	}
+}
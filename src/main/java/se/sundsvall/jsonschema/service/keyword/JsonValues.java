@@ -0,0 +1,61 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * Canonical representations of JSON values, with {@code equals} and {@code hashCode} that follow JSON Schema equality:
+ * numbers are equal if they are mathematically equal (e.g. {@code 1} and {@code 1.0}), objects are equal regardless of
+ * the order of their properties, and arrays are equal if their items are pairwise equal.
+ *
+ * <p>
+ * The canonical values can be kept in hash based collections, which lets the keyword implementations in this package
+ * decide equality in constant time per value instead of comparing candidates one by one.
+ * </p>
+ */
+final class JsonValues {
+
+	private static final Object NULL = new Object();
+
+	private JsonValues() {}
+
+	/**
+	 * Returns the canonical representation of a JSON value.
+	 *
+	 * @param  node the JSON value
+	 * @return      the canonical representation
+	 */
+	static Object canonical(JsonNode node) {
+		if (node.isNumber()) {
+			return canonicalNumber(node);
+		}
+		if (node.isString()) {
+			return node.asString();
+		}
+		if (node.isBoolean()) {
+			return node.booleanValue();
+		}
+		if (node.isArray()) {
+			final var items = new ArrayList<>(node.size());
+			node.forEach(item -> items.add(canonical(item)));
+			return items;
+		}
+		if (node.isObject()) {
+			final var properties = HashMap.<String, Object>newHashMap(node.size());
+			node.properties().forEach(property -> properties.put(property.getKey(), canonical(property.getValue())));
+			return properties;
+		}
+		return NULL;
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static Object canonicalNumber(JsonNode node) {
+		// Infinite values, i.e. out of range floating point numbers, have no decimal representation
+		if (node.isFloatingPointNumber() && !Double.isFinite(node.doubleValue())) {
+			return node.doubleValue();
+		}
+		return node.decimalValue().stripTrailingZeros();
+	}
+}
@@ -0,0 +1,27 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.google.re2j.Pattern;
+import com.networknt.schema.regex.RegularExpression;
+import com.networknt.schema.regex.RegularExpressionFactory;
+
+/**
+ * Factory of regular expressions evaluated by RE2/J, which matches in time linear to the length of the input regardless
+ * of the pattern. Patterns that can only be evaluated by backtracking, such as those with backreferences or lookaround,
+ * are rejected with a {@link com.google.re2j.PatternSyntaxException}.
+ */
+public final class LinearRegularExpressionFactory implements RegularExpressionFactory {
+
+	private static final LinearRegularExpressionFactory INSTANCE = new LinearRegularExpressionFactory();
+
+	private LinearRegularExpressionFactory() {}
+
+	public static LinearRegularExpressionFactory getInstance() {
+		return INSTANCE;
+	}
+
+	@Override
+	public RegularExpression getRegularExpression(String regex) {
+		final var pattern = Pattern.compile(regex);
+		return value -> pattern.matcher(value).find();
+	}
+}
@@ -0,0 +1,76 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.SchemaRegistryConfig;
+import com.networknt.schema.dialect.Dialect;
+import com.networknt.schema.dialect.Dialects;
+import com.networknt.schema.keyword.KeywordType;
+import com.networknt.schema.regex.JDKRegularExpressionFactory;
+import com.networknt.schema.regex.RegularExpressionFactory;
+import java.util.List;
+
+/**
+ * Factory of the {@link SchemaRegistry} instances used by the service.
+ *
+ * <p>
+ * The registries use the draft 2020-12 dialect, with the {@code enum}, {@code const} and {@code uniqueItems} keywords
+ * replaced by hash based implementations. These decide equality in constant time per value, instead of comparing
+ * candidates one by one, while following JSON Schema equality (e.g. {@code 1} equals {@code 1.0}).
+ * </p>
+ *
+ * <p>
+ * The {@code oneOf} and {@code anyOf} keywords are replaced by implementations that only evaluate the branches that can
+ * match an object's value of a discriminating property, see {@link DiscriminatedKeyword}.
+ * </p>
+ *
+ * <p>
+ * All applicator keywords charge their evaluations to the {@link ValidationBudget} of the running validation, if any,
+ * see {@link BudgetedKeyword}.
+ * </p>
+ */
+public final class SchemaRegistries {
+
+	/**
+	 * The applicator keywords of draft 2020-12, except for {@code oneOf} and {@code anyOf}, which are replaced.
+	 */
+	private static final List<KeywordType> APPLICATOR_KEYWORDS = List.of(KeywordType.REF, KeywordType.DYNAMIC_REF, KeywordType.ALL_OF, KeywordType.NOT,
+		KeywordType.IF_THEN_ELSE, KeywordType.PROPERTIES, KeywordType.PATTERN_PROPERTIES, KeywordType.ADDITIONAL_PROPERTIES, KeywordType.PROPERTYNAMES,
+		KeywordType.DEPENDENT_SCHEMAS, KeywordType.PREFIX_ITEMS, KeywordType.ITEMS_202012, KeywordType.CONTAINS, KeywordType.UNEVALUATED_ITEMS,
+		KeywordType.UNEVALUATED_PROPERTIES);
+
+	private SchemaRegistries() {}
+
+	/**
+	 * Creates a registry with draft 2020-12 as default dialect, that evaluates {@code pattern} and
+	 * {@code patternProperties} with the JDK regular expression engine.
+	 *
+	 * @return the registry
+	 */
+	public static SchemaRegistry draft202012() {
+		return draft202012(JDKRegularExpressionFactory.getInstance());
+	}
+
+	/**
+	 * Creates a registry with draft 2020-12 as default dialect.
+	 *
+	 * @param  regularExpressionFactory the factory of the regular expressions used by {@code pattern} and
+	 *                                  {@code patternProperties}
+	 * @return                          the registry
+	 */
+	public static SchemaRegistry draft202012(RegularExpressionFactory regularExpressionFactory) {
+		final var builder = Dialect.builder(Dialects.getDraft202012())
+			.keyword(new EnumKeyword())
+			.keyword(new ConstKeyword())
+			.keyword(new UniqueItemsKeyword())
+			.keyword(new BudgetedKeyword(new DiscriminatedKeyword(KeywordType.ONE_OF)))
+			.keyword(new BudgetedKeyword(new DiscriminatedKeyword(KeywordType.ANY_OF)));
+		APPLICATOR_KEYWORDS.forEach(keyword -> builder.keyword(new BudgetedKeyword(keyword)));
+		final var dialect = builder.build();
+
+		final var config = SchemaRegistryConfig.builder()
+			.regularExpressionFactory(regularExpressionFactory)
+			.build();
+
+		return SchemaRegistry.withDefaultDialect(dialect, builder -> builder.schemaRegistryConfig(config));
+	}
+}
@@ -0,0 +1,61 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import com.networknt.schema.ExecutionContext;
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaContext;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.keyword.BaseKeywordValidator;
+import com.networknt.schema.keyword.Keyword;
+import com.networknt.schema.keyword.KeywordValidator;
+import com.networknt.schema.path.NodePath;
+import java.util.HashSet;
+import tools.jackson.databind.JsonNode;
+
+/**
+ * The {@code uniqueItems} keyword, implemented by collecting the canonical values of the items in a set, see
+ * {@link JsonValues}. Duplicates are found in a single pass over the array, instead of by comparing all pairs of items.
+ */
+final class UniqueItemsKeyword implements Keyword {
+
+	static final String KEYWORD = "uniqueItems";
+
+	@Override
+	public String getValue() {
+		return KEYWORD;
+	}
+
+	@Override
+	public KeywordValidator newValidator(SchemaLocation schemaLocation, JsonNode schemaNode, Schema parentSchema, SchemaContext schemaContext) {
+		return new Validator(this, schemaNode, schemaLocation, parentSchema, schemaContext);
+	}
+
+	private static final class Validator extends BaseKeywordValidator {
+
+		private final boolean unique;
+
+		private Validator(Keyword keyword, JsonNode schemaNode, SchemaLocation schemaLocation, Schema parentSchema, SchemaContext schemaContext) {
+			super(keyword, schemaNode, schemaLocation, parentSchema, schemaContext);
+			this.unique = schemaNode.isBoolean() && schemaNode.booleanValue();
+		}
+
+		@Override
+		public void validate(ExecutionContext executionContext, JsonNode node, JsonNode rootNode, NodePath instanceLocation) {
+			if (!unique || !node.isArray()) {
+				return;
+			}
+
+			final var items = HashSet.newHashSet(node.size());
+			for (final var item : node) {
+				if (!items.add(JsonValues.canonical(item))) {
+					executionContext.addError(error()
+						.instanceNode(node)
+						.instanceLocation(instanceLocation)
+						.evaluationPath(executionContext.getEvaluationPath())
+						.locale(executionContext.getExecutionConfig().getLocale())
+						.build());
+					return;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Limits on the work done by one validation: the number of evaluated applicator keywords (those that apply subschemas,
+ * such as {@code $ref}, {@code properties} or {@code anyOf}), the depth of the evaluation path, and the elapsed time.
+ *
+ * <p>
+ * The budget is charged by the keywords themselves, see {@link BudgetedKeyword}, and by the applicators of specialized
+ * validators, see {@link #enter(int)}, while the validation runs on the thread that called {@link #apply(Supplier)}.
+ * When the budget is exhausted, or the thread is interrupted, the validation is aborted by a
+ * {@link ValidationBudgetExhaustedException}. Instances are used by one thread only.
+ * </p>
+ */
+public final class ValidationBudget {
+
+	private static final ThreadLocal<ValidationBudget> CURRENT = new ThreadLocal<>();
+
+	/**
+	 * The clock and the interrupt flag are only read once per this many evaluations, which must be a power of two.
+	 */
+	private static final int CHECK_INTERVAL = 64;
+
+	private final long maximumEvaluations;
+	private final int maximumDepth;
+	private final long timeoutNanos;
+	private long deadline;
+	private long evaluations;
+	private int depth;
+
+	/**
+	 * @param maximumEvaluations maximum number of evaluated applicator keywords
+	 * @param maximumDepth       maximum depth of the evaluation path, in keywords, property names and indexes
+	 * @param timeout            maximum time the validation may take
+	 */
+	public ValidationBudget(long maximumEvaluations, int maximumDepth, Duration timeout) {
+		this.maximumEvaluations = maximumEvaluations;
+		this.maximumDepth = maximumDepth;
+		this.timeoutNanos = timeout.toNanos();
+	}
+
+	/**
+	 * Runs a validation within this budget. The elapsed time is measured from this call.
+	 *
+	 * @param  <T>                                the result type
+	 * @param  validation                         the validation
+	 * @return                                    the result of the validation
+	 * @throws ValidationBudgetExhaustedException if the validation ran out of budget or was cancelled
+	 */
+	public <T> T apply(Supplier<T> validation) {
+		final var previous = CURRENT.get();
+		deadline = System.nanoTime() + timeoutNanos;
+		CURRENT.set(this);
+		try {
+			return validation.get();
+		} finally {
+			if (previous == null) {
+				CURRENT.remove();
+			} else {
+				CURRENT.set(previous);
+			}
+		}
+	}
+
+	/**
+	 * Charges one keyword evaluation to the budget of the validation running on the current thread, if any.
+	 *
+	 * @param  depth                              the depth of the evaluation path of the keyword
+	 * @throws ValidationBudgetExhaustedException if the budget is exhausted, or the thread has been interrupted
+	 */
+	static void charge(int depth) {
+		final var budget = CURRENT.get();
+		if (budget != null) {
+			budget.chargeEvaluation(depth);
+		}
+	}
+
+	/**
+	 * Charges one applicator evaluation of a specialized validator, see
+	 * {@link se.sundsvall.jsonschema.service.compiler.SchemaCompiler}, to the budget of the validation running on the
+	 * current thread, if any. Specialized validators have no evaluation path, so the depth is tracked by the budget: the
+	 * evaluation descends the given number of path segments, until the matching {@link #exit(int)}.
+	 *
+	 * @param  segments                           the number of evaluation path segments the applicator descends
+	 * @throws ValidationBudgetExhaustedException if the budget is exhausted, or the thread has been interrupted
+	 */
+	public static void enter(int segments) {
+		final var budget = CURRENT.get();
+		if (budget != null) {
+			budget.depth += segments;
+			budget.chargeEvaluation(budget.depth);
+		}
+	}
+
+	/**
+	 * Ends an applicator evaluation of a specialized validator, started by {@link #enter(int)}.
+	 *
+	 * @param segments the number of evaluation path segments the applicator descended
+	 */
+	public static void exit(int segments) {
+		final var budget = CURRENT.get();
+		if (budget != null) {
+			budget.depth -= segments;
+		}
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void chargeEvaluation(int depth) {
+		if (++evaluations > maximumEvaluations) {
+			throw new ValidationBudgetExhaustedException(ValidationBudgetExhaustedException.Reason.EVALUATIONS, maximumEvaluations);
+		}
+		if (depth > maximumDepth) {
+			throw new ValidationBudgetExhaustedException(ValidationBudgetExhaustedException.Reason.DEPTH, maximumDepth);
+		}
+		if ((evaluations & (CHECK_INTERVAL - 1)) == 0) {
+			if (System.nanoTime() - deadline > 0) {
+				throw new ValidationBudgetExhaustedException(ValidationBudgetExhaustedException.Reason.DEADLINE, Duration.ofNanos(timeoutNanos).toMillis());
+			}
+			if (Thread.currentThread().isInterrupted()) {
+				throw new ValidationBudgetExhaustedException(ValidationBudgetExhaustedException.Reason.CANCELLED, 0);
+			}
+		}
+	}
+}
@@ -0,0 +1,37 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+/**
+ * Thrown by the keywords of a validation that has exhausted its {@link ValidationBudget}. As it only aborts the
+ * validation, it carries no stack trace.
+ */
+public final class ValidationBudgetExhaustedException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Why a validation was aborted.
+	 */
+	public enum Reason {
+		EVALUATIONS("the maximum of %d keyword evaluations was exceeded"),
+		DEPTH("the maximum evaluation depth of %d was exceeded"),
+		DEADLINE("the time limit of %d ms was exceeded"),
+		CANCELLED("the validation was cancelled");
+
+		private final String message;
+
+		Reason(String message) {
+			this.message = message;
+		}
+	}
+
+	private final Reason reason;
+
+	ValidationBudgetExhaustedException(Reason reason, long limit) {
+		super(reason.message.formatted(limit), null, false, false);
+		this.reason = reason;
+	}
+
+	public Reason getReason() {
+		return reason;
+	}
+}
@@ -0,0 +1,78 @@
+package se.sundsvall.jsonschema.service.mapper;
+
+import java.util.Optional;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * Mapper for JSON instances that are to be validated against a compiled schema.
+ *
+ * <p>
+ * The networknt validator operates on Jackson 3 ({@code tools.jackson}) trees, while the rest of the service uses
+ * Jackson 2. Parsing raw request bytes directly into a Jackson 3 tree lets the validator consume the instance without
+ * an intermediate String representation. Likewise, a Jackson 2 tree that has already been parsed, such as a schema in
+ * a request body, is copied node by node rather than serialized and parsed again.
+ * </p>
+ */
+public final class InstanceMapper {
+
+	private static final ObjectMapper OBJECT_MAPPER = JsonMapper.builder().build();
+	private static final JsonNodeFactory NODE_FACTORY = JsonNodeFactory.instance;
+
+	private InstanceMapper() {}
+
+	/**
+	 * Parses raw JSON bytes into a JsonNode, throwing a {@link tools.jackson.core.JacksonException} on error.
+	 */
+	public static JsonNode toInstanceNode(byte[] json) {
+		return Optional.ofNullable(json)
+			.map(OBJECT_MAPPER::readTree)
+			.filter(node -> !node.isMissingNode())
+			.orElse(null);
+	}
+
+	/**
+	 * Copies a parsed Jackson 2 tree into a Jackson 3 tree, without serializing it.
+	 */
+	public static JsonNode treeToInstanceNode(com.fasterxml.jackson.databind.JsonNode tree) {
+		return Optional.ofNullable(tree)
+			.filter(node -> !node.isMissingNode())
+			.map(InstanceMapper::copy)
+			.orElse(null);
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static JsonNode copy(com.fasterxml.jackson.databind.JsonNode node) {
+		return switch (node.getNodeType()) {
+			case OBJECT -> {
+				final var object = NODE_FACTORY.objectNode();
+				node.properties().forEach(property -> object.set(property.getKey(), copy(property.getValue())));
+				yield object;
+			}
+			case ARRAY -> {
+				final var array = NODE_FACTORY.arrayNode(node.size());
+				node.forEach(element -> array.add(copy(element)));
+				yield array;
+			}
+			case NUMBER -> copyNumber(node);
+			case BOOLEAN -> NODE_FACTORY.booleanNode(node.booleanValue());
+			case NULL, MISSING -> NODE_FACTORY.nullNode();
+			// Binary and POJO nodes are never produced by parsing JSON text, and are copied as their text
+			case STRING, BINARY, POJO -> NODE_FACTORY.stringNode(node.asText());
+		};
+	}
+
+	private static JsonNode copyNumber(com.fasterxml.jackson.databind.JsonNode node) {
+		return switch (node.numberType()) {
+			case INT -> NODE_FACTORY.numberNode(node.intValue());
+			case LONG -> NODE_FACTORY.numberNode(node.longValue());
+			case BIG_INTEGER -> NODE_FACTORY.numberNode(node.bigIntegerValue());
+			case FLOAT -> NODE_FACTORY.numberNode(node.floatValue());
+			case DOUBLE -> NODE_FACTORY.numberNode(node.doubleValue());
+			case BIG_DECIMAL -> NODE_FACTORY.numberNode(node.decimalValue());
+		};
+	}
+}
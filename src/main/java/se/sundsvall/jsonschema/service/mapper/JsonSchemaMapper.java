@@ -7,6 +7,7 @@ import static se.sundsvall.jsonschema.service.mapper.JsonMapper.toJsonString;
 import java.util.List;
 import java.util.Optional;
 import se.sundsvall.jsonschema.api.model.JsonSchema;
+import se.sundsvall.jsonschema.api.model.JsonSchemaComplexity;
 import se.sundsvall.jsonschema.api.model.JsonSchemaRequest;
 import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
 
@@ -19,6 +20,7 @@ public final class JsonSchemaMapper {
 	public static JsonSchema toJsonSchema(JsonSchemaEntity entity) {
 		return Optional.ofNullable(entity)
 			.map(e -> JsonSchema.create()
+				.withComplexity(toJsonSchemaComplexity(e))
 				.withCreated(e.getCreated())
 				.withDescription(e.getDescription())
 				.withId(e.getId())
@@ -46,4 +48,18 @@ public final class JsonSchemaMapper {
 			.withValue(toJsonString(request.getValue()))
 			.withVersion(request.getVersion());
 	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private static JsonSchemaComplexity toJsonSchemaComplexity(JsonSchemaEntity entity) {
+		if (entity.getComplexityNodeCount() == null) {
+			return null;
+		}
+		return JsonSchemaComplexity.create()
+			.withEstimatedEvaluations(entity.getComplexityEstimatedEvaluations())
+			.withMaxBranching(entity.getComplexityMaxBranching())
+			.withMaxDepth(entity.getComplexityMaxDepth())
+			.withNodeCount(entity.getComplexityNodeCount())
+			.withRecursive(entity.getComplexityRecursive());
+	}
 }
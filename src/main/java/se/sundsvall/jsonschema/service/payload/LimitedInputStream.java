@@ -0,0 +1,59 @@
+package se.sundsvall.jsonschema.service.payload;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream that fails as soon as more than a maximum number of bytes have been read from it, so that no more
+ * than that is ever buffered by its reader.
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+	private final long maximumSize;
+	private long size;
+
+	LimitedInputStream(InputStream input, long maximumSize) {
+		super(input);
+		this.maximumSize = maximumSize;
+	}
+
+	@Override
+	public int read() throws IOException {
+		final var b = super.read();
+		if (b != -1) {
+			count(1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] buffer, int offset, int length) throws IOException {
+		final var read = super.read(buffer, offset, length);
+		if (read > 0) {
+			count(read);
+		}
+		return read;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		final var skipped = super.skip(n);
+		count(skipped);
+		return skipped;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private void count(long bytes) {
+		size += bytes;
+		if (size > maximumSize) {
+			throw new PayloadLimitExceededException(PayloadLimitExceededException.Limit.SIZE, maximumSize);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package se.sundsvall.jsonschema.service.payload;
+
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.SerializableString;
+import tools.jackson.core.util.JsonParserDelegate;
+
+/**
+ * A parser that tracks the nesting depth and the number of properties of each open object as tokens are read, and fails
+ * on the token that exceeds either limit, before its value is read.
+ */
+final class LimitedParser extends JsonParserDelegate {
+
+	private final int maximumDepth;
+	private final int maximumProperties;
+
+	/**
+	 * The number of properties read so far of each open object, by depth. Unused for arrays.
+	 */
+	private final int[] properties;
+	private int depth;
+
+	LimitedParser(JsonParser parser, int maximumDepth, int maximumProperties) {
+		super(parser);
+		this.maximumDepth = maximumDepth;
+		this.maximumProperties = maximumProperties;
+		this.properties = new int[maximumDepth + 1];
+	}
+
+	@Override
+	public JsonToken nextToken() {
+		return track(super.nextToken());
+	}
+
+	@Override
+	public JsonToken nextValue() {
+		// Reads the property name, if any, as a separate token, so that it is counted
+		final var token = nextToken();
+		return token == JsonToken.PROPERTY_NAME ? nextToken() : token;
+	}
+
+	@Override
+	public String nextName() {
+		return nextToken() == JsonToken.PROPERTY_NAME ? currentName() : null;
+	}
+
+	@Override
+	public boolean nextName(SerializableString name) {
+		return nextToken() == JsonToken.PROPERTY_NAME && name.getValue().equals(currentName());
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private JsonToken track(JsonToken token) {
+		if (token == null) {
+			return null;
+		}
+		switch (token) {
+			case START_OBJECT, START_ARRAY -> {
+				if (++depth > maximumDepth) {
+					throw new PayloadLimitExceededException(PayloadLimitExceededException.Limit.DEPTH, maximumDepth);
+				}
+				properties[depth] = 0;
+			}
+			case END_OBJECT, END_ARRAY -> depth--;
+			case PROPERTY_NAME -> {
+				if (++properties[depth] > maximumProperties) {
+					throw new PayloadLimitExceededException(PayloadLimitExceededException.Limit.PROPERTIES, maximumProperties);
+				}
+			}
+			default -> {
+				// Scalar values are limited by the stream read constraints of the underlying parser
+			}
+		}
+		return token;
+	}
+}
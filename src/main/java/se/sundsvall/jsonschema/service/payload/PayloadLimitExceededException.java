@@ -0,0 +1,37 @@
+package se.sundsvall.jsonschema.service.payload;
+
+/**
+ * Thrown while a JSON document is read, as soon as it exceeds one of the limits of its {@link PayloadParser}. As it
+ * only aborts the read, it carries no stack trace.
+ */
+public final class PayloadLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Which limit was exceeded.
+	 */
+	public enum Limit {
+		SIZE("the document is larger than %d bytes"),
+		DEPTH("objects and arrays are nested deeper than %d levels"),
+		STRING_LENGTH("a string, property name or number is longer than %d characters"),
+		PROPERTIES("an object has more than %d properties");
+
+		private final String message;
+
+		Limit(String message) {
+			this.message = message;
+		}
+	}
+
+	private final Limit limit;
+
+	PayloadLimitExceededException(Limit limit, long maximum) {
+		super(limit.message.formatted(maximum), null, false, false);
+		this.limit = limit;
+	}
+
+	public Limit getLimit() {
+		return limit;
+	}
+}
@@ -0,0 +1,127 @@
+package se.sundsvall.jsonschema.service.payload;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Function;
+import se.sundsvall.jsonschema.configuration.JsonSchemaPayloadProperties;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.StreamReadConstraints;
+import tools.jackson.core.exc.StreamConstraintsException;
+import tools.jackson.core.json.JsonFactory;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.exc.MismatchedInputException;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Parses JSON documents within a set of {@link JsonSchemaPayloadProperties.Limits}, as Jackson 3 trees, like
+ * {@link se.sundsvall.jsonschema.service.mapper.InstanceMapper}.
+ *
+ * <p>
+ * The limits are enforced while the document is read, so a document that exceeds one is rejected before more of it is
+ * buffered: the size by the input stream, the nesting depth and the number of properties by the parser, see
+ * {@link LimitedParser}, and the length of strings, property names and numbers by the stream read constraints of the
+ * parser. Instances are thread safe.
+ * </p>
+ */
+public final class PayloadParser {
+
+	private final JsonSchemaPayloadProperties.Limits limits;
+	private final ObjectMapper mapper;
+
+	public PayloadParser(JsonSchemaPayloadProperties.Limits limits) {
+		this.limits = limits;
+		this.mapper = JsonMapper.builder(JsonFactory.builder()
+			.streamReadConstraints(StreamReadConstraints.builder()
+				// The nesting depth is enforced by the LimitedParser, which tells it apart from the other constraints
+				.maxNestingDepth(Integer.MAX_VALUE)
+				.maxStringLength(limits.maximumStringLength())
+				.maxNameLength(limits.maximumStringLength())
+				.maxNumberLength(limits.maximumStringLength())
+				.build())
+			.build())
+			.build();
+	}
+
+	/**
+	 * Parses one JSON document from a stream.
+	 *
+	 * @param  input                               the JSON document
+	 * @return                                     the parsed document, or null if the input has no content
+	 * @throws PayloadLimitExceededException       if the document exceeds a limit
+	 * @throws tools.jackson.core.JacksonException if the document is not valid JSON
+	 */
+	public JsonNode readTree(InputStream input) {
+		return read(mapper.createParser(new LimitedInputStream(input, limits.maximumSize().toBytes())), this::readTree);
+	}
+
+	/**
+	 * Parses one JSON document from raw bytes.
+	 *
+	 * @param  input                               the JSON document
+	 * @return                                     the parsed document, or null if the input has no content
+	 * @throws PayloadLimitExceededException       if the document exceeds a limit
+	 * @throws tools.jackson.core.JacksonException if the document is not valid JSON
+	 */
+	public JsonNode readTree(byte[] input) {
+		if (input.length > limits.maximumSize().toBytes()) {
+			throw new PayloadLimitExceededException(PayloadLimitExceededException.Limit.SIZE, limits.maximumSize().toBytes());
+		}
+		return read(mapper.createParser(input), this::readTree);
+	}
+
+	/**
+	 * Reads a JSON document from a stream, and checks it against the limits without building a tree, for documents that
+	 * are to be bound by another parser. Syntax errors are left to that parser to report, as the document is only checked
+	 * up to the first one.
+	 *
+	 * @param  input                         the JSON document
+	 * @return                               the raw bytes of the document
+	 * @throws IOException                   if the stream could not be read
+	 * @throws PayloadLimitExceededException if the document exceeds a limit
+	 */
+	public byte[] readChecked(InputStream input) throws IOException {
+		final var bytes = new LimitedInputStream(input, limits.maximumSize().toBytes()).readAllBytes();
+
+		return read(mapper.createParser(bytes), parser -> {
+			try {
+				for (var token = parser.nextToken(); token != null; token = parser.nextToken()) {
+					if (token == JsonToken.VALUE_STRING) {
+						// String values are read lazily, so their length is only checked once they are read
+						parser.getString();
+					}
+				}
+			} catch (final StreamConstraintsException e) {
+				throw e;
+			} catch (final JacksonException _) {
+				// Not valid JSON, which the binding parser reports
+			}
+			return bytes;
+		});
+	}
+
+	// ---- Private helpers ------------------------------------------------------
+
+	private <T> T read(JsonParser parser, Function<JsonParser, T> reader) {
+		try (final var limitedParser = new LimitedParser(parser, limits.maximumDepth(), limits.maximumProperties())) {
+			return reader.apply(limitedParser);
+		} catch (final StreamConstraintsException _) {
+			throw new PayloadLimitExceededException(PayloadLimitExceededException.Limit.STRING_LENGTH, limits.maximumStringLength());
+		}
+	}
+
+	private JsonNode readTree(JsonParser parser) {
+		final JsonNode node = mapper.readTree(parser);
+		if (node == null || node.isMissingNode()) {
+			return null;
+		}
+
+		final var trailingToken = parser.nextToken();
+		if (trailingToken != null) {
+			throw MismatchedInputException.from(parser, JsonNode.class, "Trailing token (of type %s) found after value".formatted(trailingToken));
+		}
+		return node;
+	}
+}
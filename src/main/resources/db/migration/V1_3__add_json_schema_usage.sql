@@ -0,0 +1,21 @@
+    create table if not exists json_schema_usage (
+        last_used_for_validation datetime(6),
+        validation_usage_count bigint not null,
+        json_schema_id varchar(255) not null,
+        primary key (json_schema_id)
+    ) engine=InnoDB;
+
+    alter table if exists json_schema_usage
+       add constraint fk_json_schema_usage_json_schema
+       foreign key (json_schema_id)
+       references json_schema (id);
+
+    insert into json_schema_usage (json_schema_id, validation_usage_count, last_used_for_validation)
+       select id, validation_usage_count, last_used_for_validation
+       from json_schema;
+
+    alter table if exists json_schema
+       drop column if exists validation_usage_count;
+
+    alter table if exists json_schema
+       drop column if exists last_used_for_validation;
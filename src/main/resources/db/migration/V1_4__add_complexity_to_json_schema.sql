@@ -0,0 +1,14 @@
+    alter table if exists json_schema
+       add column if not exists complexity_node_count integer;
+
+    alter table if exists json_schema
+       add column if not exists complexity_max_depth integer;
+
+    alter table if exists json_schema
+       add column if not exists complexity_max_branching integer;
+
+    alter table if exists json_schema
+       add column if not exists complexity_recursive bit;
+
+    alter table if exists json_schema
+       add column if not exists complexity_estimated_evaluations bigint;
@@ -0,0 +1,2 @@
+    alter table if exists json_schema
+       add column if not exists compilation_time_micros bigint;
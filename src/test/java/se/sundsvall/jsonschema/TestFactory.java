@@ -16,6 +16,11 @@ public final class TestFactory {
 
 	public static JsonSchemaEntity getJsonSchemaEntity() {
 		return JsonSchemaEntity.create()
+			.withComplexityEstimatedEvaluations(1L)
+			.withComplexityMaxBranching(0)
+			.withComplexityMaxDepth(1)
+			.withComplexityNodeCount(1)
+			.withComplexityRecursive(false)
 			.withCreated(now())
 			.withDescription("description")
 			.withId("2281_person_schema_1.0.0")
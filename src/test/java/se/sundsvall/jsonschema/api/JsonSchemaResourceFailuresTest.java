@@ -5,6 +5,7 @@ import static org.assertj.core.groups.Tuple.tuple;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.zalando.problem.Status.BAD_REQUEST;
+import static org.zalando.problem.Status.REQUEST_ENTITY_TOO_LARGE;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -13,6 +14,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.zalando.problem.Problem;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import org.zalando.problem.violations.Violation;
 import se.sundsvall.jsonschema.Application;
@@ -20,7 +22,7 @@ import se.sundsvall.jsonschema.api.model.JsonSchemaRequest;
 import se.sundsvall.jsonschema.service.JsonSchemaStorageService;
 
 @ActiveProfiles("junit")
-@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT)
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT, properties = "jsonschema.payload.municipalities.2262.maximum-depth=3")
 class JsonSchemaResourceFailuresTest {
 
 	private static final String MUNICIPALITY_ID = "2281";
@@ -229,6 +231,35 @@ class JsonSchemaResourceFailuresTest {
 		verifyNoInteractions(jsonSchemaStorageServiceMock);
 	}
 
+	@Test
+	void createSchemaExceedingPayloadLimits() throws Exception {
+
+		// Arrange
+		final var schemaRequest = JsonSchemaRequest.create()
+			.withDescription("description")
+			.withName("name")
+			.withValue(new ObjectMapper().readTree("{\"properties\": {\"name\": {\"type\": \"string\"}}}"))
+			.withVersion("1.0");
+
+		// Act
+		final var response = webTestClient.post()
+			.uri("/{municipalityId}/schemas", "2262")
+			.bodyValue(schemaRequest)
+			.exchange()
+			.expectStatus().isEqualTo(REQUEST_ENTITY_TOO_LARGE.getStatusCode())
+			.expectBody(Problem.class)
+			.returnResult()
+			.getResponseBody();
+
+		// Assert
+		assertThat(response).isNotNull();
+		assertThat(response.getTitle()).isEqualTo("Request Entity Too Large");
+		assertThat(response.getStatus()).isEqualTo(REQUEST_ENTITY_TOO_LARGE);
+		assertThat(response.getDetail()).isEqualTo("Request body exceeds the payload limits: objects and arrays are nested deeper than 3 levels");
+
+		verifyNoInteractions(jsonSchemaStorageServiceMock);
+	}
+
 	@Test
 	void deleteSchemaInvalidMunicipalityId() {
 
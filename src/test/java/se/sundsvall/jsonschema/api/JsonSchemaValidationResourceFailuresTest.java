@@ -2,11 +2,16 @@ package se.sundsvall.jsonschema.api;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
 import static org.zalando.problem.Status.BAD_REQUEST;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FULL;
 
+import java.io.InputStream;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -89,6 +94,10 @@ class JsonSchemaValidationResourceFailuresTest {
 	@Test
 	void validateJsonNullBody() {
 
+		// Arrange – the body is streamed to the service, which rejects it when it has no content
+		doThrow(Problem.valueOf(BAD_REQUEST, "Request body is not valid JSON: no content"))
+			.when(validationServiceMock).validateAndThrow(eq(MUNICIPALITY_ID), any(InputStream.class), eq("schema_1.0"), eq(FULL));
+
 		// Act
 		final var response = webTestClient.post()
 			.uri("/{municipalityId}/schemas/{id}/validation", MUNICIPALITY_ID, "schema_1.0")
@@ -105,9 +114,6 @@ class JsonSchemaValidationResourceFailuresTest {
 
 		assertThat(response.getTitle()).isEqualTo(BAD_REQUEST.getReasonPhrase());
 		assertThat(response.getStatus()).isEqualTo(BAD_REQUEST);
-		assertThat(response.getDetail()).isEqualTo(
-			"Required request body is missing: public org.springframework.http.ResponseEntity<java.lang.Void> se.sundsvall.jsonschema.api.JsonSchemaValidationResource.validateJson(java.lang.String,java.lang.String,com.fasterxml.jackson.databind.JsonNode)");
-
-		verifyNoInteractions(validationServiceMock);
+		assertThat(response.getDetail()).isEqualTo("Request body is not valid JSON: no content");
 	}
 }
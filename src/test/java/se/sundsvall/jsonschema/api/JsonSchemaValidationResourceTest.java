@@ -1,18 +1,29 @@
 package se.sundsvall.jsonschema.api;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 import static org.springframework.http.MediaType.APPLICATION_JSON;
-import static se.sundsvall.jsonschema.service.mapper.JsonMapper.toJsonNode;
-import static se.sundsvall.jsonschema.service.mapper.JsonMapper.toJsonString;
+import static org.springframework.http.MediaType.APPLICATION_NDJSON;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FIRST_ERROR;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FULL;
 
+import java.io.InputStream;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.zalando.problem.violations.Violation;
 import se.sundsvall.jsonschema.Application;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
 import se.sundsvall.jsonschema.service.JsonSchemaValidationService;
 
 @ActiveProfiles("junit")
@@ -39,19 +50,82 @@ class JsonSchemaValidationResourceTest {
 				"price": 12.5
 			}
 			""";
-		final var jsonNode = toJsonNode(json);
-		final var jsonString = toJsonString(jsonNode);
 
 		// Act
 		webTestClient.post()
 			.uri("/{municipalityId}/schemas/{id}/validation", MUNICIPALITY_ID, id)
 			.contentType(APPLICATION_JSON)
-			.bodyValue(jsonNode)
+			.bodyValue(json)
 			.exchange()
 			.expectStatus()
 			.isNoContent();
 
 		// Assert
-		verify(validationServiceMock).validateAndThrow(jsonString, id);
+		verify(validationServiceMock).validateAndThrow(eq(MUNICIPALITY_ID), any(InputStream.class), eq(id), eq(FULL));
+	}
+
+	@Test
+	void validateJsonBatch() {
+
+		// Arrange
+		final var id = "schema_1.0";
+		final var json = """
+			[
+				{ "productId": 1, "productName": "Ice sculpture", "price": 12.5 },
+				{ "productId": 2, "price": 12.5 }
+			]
+			""";
+		final var results = List.of(
+			ValidationResult.create().withIndex(0).withValid(true).withViolations(List.of()),
+			ValidationResult.create().withIndex(1).withValid(false).withViolations(List.of(new Violation("", "required property 'productName' not found"))));
+
+		when(validationServiceMock.validateBatch(eq(MUNICIPALITY_ID), any(InputStream.class), eq(id), eq(FLAG))).thenReturn(results);
+
+		// Act
+		webTestClient.post()
+			.uri("/{municipalityId}/schemas/{id}/validation/batch?output=FLAG", MUNICIPALITY_ID, id)
+			.contentType(APPLICATION_JSON)
+			.bodyValue(json)
+			.exchange()
+			.expectStatus().isOk()
+			.expectBody()
+			.jsonPath("$.length()").isEqualTo(2)
+			.jsonPath("$[0].index").isEqualTo(0)
+			.jsonPath("$[0].valid").isEqualTo(true)
+			.jsonPath("$[1].index").isEqualTo(1)
+			.jsonPath("$[1].valid").isEqualTo(false)
+			.jsonPath("$[1].violations[0].field").isEqualTo("")
+			.jsonPath("$[1].violations[0].message").isEqualTo("required property 'productName' not found");
+
+		// Assert
+		verify(validationServiceMock).validateBatch(eq(MUNICIPALITY_ID), any(InputStream.class), eq(id), eq(FLAG));
+	}
+
+	@Test
+	void validateJsonStream() {
+
+		// Arrange
+		final var id = "schema_1.0";
+		final var ndjson = """
+			{ "productId": 1, "productName": "Ice sculpture", "price": 12.5 }
+			{ "productId": 2, "price": 12.5 }
+			""";
+		final var result = "{\"index\":1,\"valid\":false,\"violations\":[]}\n";
+		final StreamingResponseBody body = output -> output.write(result.getBytes(UTF_8));
+
+		when(validationServiceMock.validateStream(eq(MUNICIPALITY_ID), any(InputStream.class), eq(id), eq(true), eq(FIRST_ERROR))).thenReturn(body);
+
+		// Act
+		webTestClient.post()
+			.uri("/{municipalityId}/schemas/{id}/validation/stream?failuresOnly=true&output=FIRST_ERROR", MUNICIPALITY_ID, id)
+			.contentType(APPLICATION_NDJSON)
+			.bodyValue(ndjson)
+			.exchange()
+			.expectStatus().isOk()
+			.expectHeader().contentTypeCompatibleWith(APPLICATION_NDJSON)
+			.expectBody(String.class).isEqualTo(result);
+
+		// Assert
+		verify(validationServiceMock).validateStream(eq(MUNICIPALITY_ID), any(InputStream.class), eq(id), eq(true), eq(FIRST_ERROR));
 	}
 }
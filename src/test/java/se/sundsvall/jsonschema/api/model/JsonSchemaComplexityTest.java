@@ -0,0 +1,55 @@
+package se.sundsvall.jsonschema.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+import org.junit.jupiter.api.Test;
+
+class JsonSchemaComplexityTest {
+
+	@Test
+	void testBean() {
+		assertThat(JsonSchemaComplexity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var estimatedEvaluations = 120L;
+		final var maxBranching = 3;
+		final var maxDepth = 5;
+		final var nodeCount = 42;
+		final var recursive = true;
+
+		final var bean = JsonSchemaComplexity.create()
+			.withEstimatedEvaluations(estimatedEvaluations)
+			.withMaxBranching(maxBranching)
+			.withMaxDepth(maxDepth)
+			.withNodeCount(nodeCount)
+			.withRecursive(recursive);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getEstimatedEvaluations()).isEqualTo(estimatedEvaluations);
+		assertThat(bean.getMaxBranching()).isEqualTo(maxBranching);
+		assertThat(bean.getMaxDepth()).isEqualTo(maxDepth);
+		assertThat(bean.getNodeCount()).isEqualTo(nodeCount);
+		assertThat(bean.getRecursive()).isEqualTo(recursive);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(JsonSchemaComplexity.create()).hasAllNullFieldsOrProperties();
+		assertThat(new JsonSchemaComplexity()).hasAllNullFieldsOrProperties();
+	}
+}
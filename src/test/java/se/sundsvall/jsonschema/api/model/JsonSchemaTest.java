@@ -36,6 +36,7 @@ class JsonSchemaTest {
 	@Test
 	void testBuilderMethods() throws Exception {
 
+		final var complexity = JsonSchemaComplexity.create().withNodeCount(42);
 		final var created = OffsetDateTime.now();
 		final var description = "description";
 		final var id = "id";
@@ -46,6 +47,7 @@ class JsonSchemaTest {
 		final var version = "version";
 
 		final var bean = JsonSchema.create()
+			.withComplexity(complexity)
 			.withCreated(created)
 			.withDescription(description)
 			.withId(id)
@@ -56,6 +58,7 @@ class JsonSchemaTest {
 			.withVersion(version);
 
 		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getComplexity()).isEqualTo(complexity);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getDescription()).isEqualTo(description);
 		assertThat(bean.getId()).isEqualTo(id);
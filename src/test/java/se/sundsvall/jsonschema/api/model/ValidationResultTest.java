@@ -0,0 +1,51 @@
+package se.sundsvall.jsonschema.api.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.violations.Violation;
+
+class ValidationResultTest {
+
+	@Test
+	void testBean() {
+		assertThat(ValidationResult.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var index = 1;
+		final var valid = false;
+		final var violations = List.of(new Violation("/field", "message"));
+
+		final var bean = ValidationResult.create()
+			.withIndex(index)
+			.withValid(valid)
+			.withViolations(violations);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getIndex()).isEqualTo(index);
+		assertThat(bean.getValid()).isEqualTo(valid);
+		assertThat(bean.getViolations()).isEqualTo(violations);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(ValidationResult.create()).hasAllNullFieldsOrProperties();
+		assertThat(new ValidationResult()).hasAllNullFieldsOrProperties();
+	}
+}
@@ -3,19 +3,20 @@ package se.sundsvall.jsonschema.api.validation.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Answers.CALLS_REAL_METHODS;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.treeToInstanceNode;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.networknt.schema.Schema;
 import jakarta.validation.ConstraintValidatorContext;
 import jakarta.validation.ConstraintValidatorContext.ConstraintViolationBuilder;
+import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -25,6 +26,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import se.sundsvall.dept44.test.annotation.resource.Load;
 import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
 import se.sundsvall.jsonschema.service.JsonSchemaValidationService;
+import se.sundsvall.jsonschema.service.RegularExpressions;
 
 @ExtendWith({
 	MockitoExtension.class, ResourceLoaderExtension.class
@@ -47,6 +49,9 @@ class ValidJsonSchemaConstraintValidatorTest {
 	@Mock(answer = CALLS_REAL_METHODS)
 	private JsonSchemaValidationService jsonSchemaValidationServiceMock;
 
+	@Mock
+	private RegularExpressions regularExpressionsMock;
+
 	@InjectMocks
 	private ValidJsonSchemaConstraintValidator validator;
 
@@ -61,10 +66,29 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isTrue();
-		verify(jsonSchemaValidationServiceMock).validate(eq(schemaJsonNode.toString()), any(Schema.class));
+		verify(jsonSchemaValidationServiceMock).validate(eq(treeToInstanceNode(schemaJsonNode)), any(Schema.class));
 		verifyNoInteractions(constraintValidatorContextMock, constraintViolationBuilderMock);
 	}
 
+	@Test
+	void validateJsonSchemaWithUnsupportedPattern(@Load(VALID_SCHEMA) final String schemaString) throws Exception {
+
+		// Arrange
+		final var schemaJsonNode = OBJECT_MAPPER.readTree(schemaString);
+
+		when(regularExpressionsMock.findUnsupportedPatterns(any())).thenReturn(List.of("/pattern: pattern '(?=a)' is not supported by the linear regular expression engine"));
+		when(constraintValidatorContextMock.buildConstraintViolationWithTemplate(any())).thenReturn(constraintViolationBuilderMock);
+
+		// Act
+		final var result = validator.isValid(schemaJsonNode, constraintValidatorContextMock);
+
+		// Assert
+		assertThat(result).isFalse();
+		verify(constraintValidatorContextMock).disableDefaultConstraintViolation();
+		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("/pattern: pattern '(?=a)' is not supported by the linear regular expression engine");
+		verify(constraintViolationBuilderMock).addConstraintViolation();
+	}
+
 	@Test
 	void validateWhenSchemaIsNullAndNullableIsTrueu() {
 
@@ -76,7 +100,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isTrue();
-		verify(jsonSchemaValidationServiceMock, never()).validate(any(), any(Schema.class));
+		verify(jsonSchemaValidationServiceMock, never()).validate(any(tools.jackson.databind.JsonNode.class), any(Schema.class));
 		verifyNoInteractions(constraintValidatorContextMock, constraintViolationBuilderMock);
 	}
 
@@ -93,7 +117,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock).validate(eq(schemaJsonNode.toString()), any(Schema.class));
+		verify(jsonSchemaValidationServiceMock).validate(eq(treeToInstanceNode(schemaJsonNode)), any(Schema.class));
 		verify(constraintValidatorContextMock, times(2)).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("/type: does not have a value in the enumeration [\"array\", \"boolean\", \"integer\", \"null\", \"number\", \"object\", \"string\"]");
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("/type: string found, array expected");
@@ -114,7 +138,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock).validate(eq(schemaJsonNode.toString()), any(Schema.class));
+		verify(jsonSchemaValidationServiceMock).validate(eq(treeToInstanceNode(schemaJsonNode)), any(Schema.class));
 		verify(constraintValidatorContextMock, times(8)).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock, times(8)).buildConstraintViolationWithTemplate("/additionalProperties: string found, [object, boolean] expected");
 		verify(constraintViolationBuilderMock, times(8)).addConstraintViolation();
@@ -134,7 +158,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock).validate(eq(schemaJsonNode.toString()), any(Schema.class));
+		verify(jsonSchemaValidationServiceMock).validate(eq(treeToInstanceNode(schemaJsonNode)), any(Schema.class));
 		verify(constraintValidatorContextMock, times(2)).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("/type: does not have a value in the enumeration [\"array\", \"boolean\", \"integer\", \"null\", \"number\", \"object\", \"string\"]");
 		verify(constraintViolationBuilderMock, times(2)).addConstraintViolation();
@@ -154,7 +178,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock, never()).validate(any(), anyString());
+		verify(jsonSchemaValidationServiceMock, never()).validate(any(tools.jackson.databind.JsonNode.class), any(Schema.class));
 		verify(constraintValidatorContextMock).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("Wrong value in $schema-node. Expected: 'https://json-schema.org/draft/2020-12/schema' Found: 'https://json-schema.org/draft/invalid/schema'");
 		verify(constraintViolationBuilderMock).addConstraintViolation();
@@ -173,7 +197,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock, never()).validate(any(), anyString());
+		verify(jsonSchemaValidationServiceMock, never()).validate(any(tools.jackson.databind.JsonNode.class), any(Schema.class));
 		verify(constraintValidatorContextMock).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("must be valid JSON, but was empty");
 		verify(constraintViolationBuilderMock).addConstraintViolation();
@@ -191,7 +215,7 @@ class ValidJsonSchemaConstraintValidatorTest {
 
 		// Assert
 		assertThat(result).isFalse();
-		verify(jsonSchemaValidationServiceMock, never()).validate(any(), anyString());
+		verify(jsonSchemaValidationServiceMock, never()).validate(any(tools.jackson.databind.JsonNode.class), any(Schema.class));
 		verify(constraintValidatorContextMock).disableDefaultConstraintViolation();
 		verify(constraintValidatorContextMock).buildConstraintViolationWithTemplate("must be valid JSON, but was blank");
 		verify(constraintViolationBuilderMock).addConstraintViolation();
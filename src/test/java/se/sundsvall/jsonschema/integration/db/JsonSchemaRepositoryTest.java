@@ -196,4 +196,30 @@ class JsonSchemaRepositoryTest {
 		assertThat(result.get().getUiSchema()).isNotNull();
 		assertThat(result.get().getUiSchema().getDescription()).isEqualTo("UI schema for rendering the person form");
 	}
+
+	@Test
+	void findByIdAndVerifyValidationUsage() {
+
+		// Act
+		final var withUsage = repository.findById(ID_OF_JSON_SCHEMA);
+		final var withoutUsage = repository.findById(ID_OF_JSON_SCHEMA_WITH_UI_SCHEMA);
+
+		// Assert
+		assertThat(withUsage).isPresent();
+		assertThat(withUsage.get().getValidationUsageCount()).isEqualTo(5);
+		assertThat(withUsage.get().getLastUsedForValidation()).isNotNull();
+		assertThat(withoutUsage).isPresent();
+		assertThat(withoutUsage.get().getValidationUsageCount()).isZero();
+		assertThat(withoutUsage.get().getLastUsedForValidation()).isNull();
+	}
+
+	@Test
+	void findValueById() {
+
+		// Act
+		final var result = repository.findValueById(ID_OF_JSON_SCHEMA);
+
+		// Assert
+		assertThat(result).hasValueSatisfying(value -> assertThat(value).contains("\"firstName\""));
+	}
 }
@@ -0,0 +1,116 @@
+package se.sundsvall.jsonschema.integration.db;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.MILLIS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase.Replace.NONE;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.jdbc.Sql;
+import se.sundsvall.jsonschema.integration.db.model.JsonSchemaUsageEntity;
+
+/**
+ * JsonSchemaUsage repository tests.
+ *
+ * @see src/test/resources/db/scripts/jsonSchemaRepositoryTest.sql for data setup.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = NONE)
+@ActiveProfiles("junit")
+@Sql(scripts = {
+	"/db/scripts/truncate.sql",
+	"/db/scripts/jsonSchemaRepositoryTest.sql"
+})
+class JsonSchemaUsageRepositoryTest {
+
+	private static final String ID_OF_JSON_SCHEMA = "2281_schema_1.0.0";
+
+	@Autowired
+	private JsonSchemaUsageRepository repository;
+
+	@Test
+	void testCreate() {
+
+		// Arrange
+		final var entity = JsonSchemaUsageEntity.create()
+			.withJsonSchemaId("2281_schema_with_uischema_1.0.0");
+
+		// Act
+		final var persistedEntity = repository.save(entity);
+
+		// Assert
+		assertThat(repository.findById(entity.getJsonSchemaId())).isPresent();
+		assertThat(persistedEntity).usingRecursiveComparison().isEqualTo(entity);
+	}
+
+	@Test
+	void incrementValidationUsage() {
+
+		// Arrange
+		final var lastUsed = now().truncatedTo(MILLIS);
+
+		// Act
+		final var updated = repository.incrementValidationUsage(ID_OF_JSON_SCHEMA, 3, lastUsed);
+
+		// Assert
+		assertThat(updated).isOne();
+		assertThat(repository.findById(ID_OF_JSON_SCHEMA)).hasValueSatisfying(entity -> {
+			assertThat(entity.getValidationUsageCount()).isEqualTo(8);
+			assertThat(entity.getLastUsedForValidation()).isEqualTo(lastUsed);
+		});
+	}
+
+	@Test
+	void incrementValidationUsageDoesNotMoveLastUsedBackwards() {
+
+		// Arrange
+		final var lastUsed = now().truncatedTo(MILLIS);
+		repository.incrementValidationUsage(ID_OF_JSON_SCHEMA, 1, lastUsed);
+
+		// Act
+		repository.incrementValidationUsage(ID_OF_JSON_SCHEMA, 1, lastUsed.minusHours(1));
+
+		// Assert
+		assertThat(repository.findById(ID_OF_JSON_SCHEMA)).hasValueSatisfying(entity -> {
+			assertThat(entity.getValidationUsageCount()).isEqualTo(7);
+			assertThat(entity.getLastUsedForValidation()).isEqualTo(lastUsed);
+		});
+	}
+
+	@Test
+	void incrementValidationUsageForUnknownSchema() {
+
+		// Act
+		final var updated = repository.incrementValidationUsage("unknown", 1, now());
+
+		// Assert
+		assertThat(updated).isZero();
+	}
+
+	@Test
+	void findIdsOfMostUsed() {
+
+		// Arrange
+		repository.save(JsonSchemaUsageEntity.create()
+			.withJsonSchemaId("2281_schema_with_uischema_1.0.0")
+			.withValidationUsageCount(10)
+			.withLastUsedForValidation(OffsetDateTime.of(2025, 1, 3, 10, 0, 0, 0, ZoneOffset.UTC)));
+
+		// Act
+		final var all = repository.findIdsOfMostUsed(OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC), Limit.of(10));
+		final var limited = repository.findIdsOfMostUsed(OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC), Limit.of(1));
+		final var recent = repository.findIdsOfMostUsed(OffsetDateTime.of(2025, 1, 3, 0, 0, 0, 0, ZoneOffset.UTC), Limit.of(10));
+
+		// Assert
+		assertThat(all).containsExactly("2281_schema_with_uischema_1.0.0", ID_OF_JSON_SCHEMA);
+		assertThat(limited).containsExactly("2281_schema_with_uischema_1.0.0");
+		assertThat(recent).containsExactly("2281_schema_with_uischema_1.0.0");
+	}
+}
@@ -38,6 +38,12 @@ class JsonSchemaEntityTest {
 	@Test
 	void testBuilderMethods() {
 
+		final var compilationTimeMicros = 1500L;
+		final var complexityEstimatedEvaluations = 120L;
+		final var complexityMaxBranching = 3;
+		final var complexityMaxDepth = 5;
+		final var complexityNodeCount = 42;
+		final var complexityRecursive = true;
 		final var created = now().minusDays(1);
 		final var description = "description";
 		final var id = "id";
@@ -50,6 +56,12 @@ class JsonSchemaEntityTest {
 		final var version = "version";
 
 		final var bean = JsonSchemaEntity.create()
+			.withCompilationTimeMicros(compilationTimeMicros)
+			.withComplexityEstimatedEvaluations(complexityEstimatedEvaluations)
+			.withComplexityMaxBranching(complexityMaxBranching)
+			.withComplexityMaxDepth(complexityMaxDepth)
+			.withComplexityNodeCount(complexityNodeCount)
+			.withComplexityRecursive(complexityRecursive)
 			.withCreated(created)
 			.withDescription(description)
 			.withId(id)
@@ -62,6 +74,12 @@ class JsonSchemaEntityTest {
 			.withVersion(version);
 
 		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getCompilationTimeMicros()).isEqualTo(compilationTimeMicros);
+		assertThat(bean.getComplexityEstimatedEvaluations()).isEqualTo(complexityEstimatedEvaluations);
+		assertThat(bean.getComplexityMaxBranching()).isEqualTo(complexityMaxBranching);
+		assertThat(bean.getComplexityMaxDepth()).isEqualTo(complexityMaxDepth);
+		assertThat(bean.getComplexityNodeCount()).isEqualTo(complexityNodeCount);
+		assertThat(bean.getComplexityRecursive()).isEqualTo(complexityRecursive);
 		assertThat(bean.getCreated()).isEqualTo(created);
 		assertThat(bean.getDescription()).isEqualTo(description);
 		assertThat(bean.getId()).isEqualTo(id);
@@ -0,0 +1,59 @@
+package se.sundsvall.jsonschema.integration.db.model;
+
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanConstructor;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanEquals;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanHashCode;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidBeanToString;
+import static com.google.code.beanmatchers.BeanMatchers.hasValidGettersAndSetters;
+import static com.google.code.beanmatchers.BeanMatchers.registerValueGenerator;
+import static java.time.OffsetDateTime.now;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.AllOf.allOf;
+
+import java.time.OffsetDateTime;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class JsonSchemaUsageEntityTest {
+
+	@BeforeAll
+	static void setup() {
+		registerValueGenerator(() -> now().plusDays(new Random().nextInt()), OffsetDateTime.class);
+	}
+
+	@Test
+	void testBean() {
+		assertThat(JsonSchemaUsageEntity.class, allOf(
+			hasValidBeanConstructor(),
+			hasValidGettersAndSetters(),
+			hasValidBeanHashCode(),
+			hasValidBeanEquals(),
+			hasValidBeanToString()));
+	}
+
+	@Test
+	void testBuilderMethods() {
+
+		final var jsonSchemaId = "jsonSchemaId";
+		final var lastUsedForValidation = now();
+		final var validationUsageCount = 42L;
+
+		final var bean = JsonSchemaUsageEntity.create()
+			.withJsonSchemaId(jsonSchemaId)
+			.withLastUsedForValidation(lastUsedForValidation)
+			.withValidationUsageCount(validationUsageCount);
+
+		assertThat(bean).isNotNull().hasNoNullFieldsOrProperties();
+		assertThat(bean.getJsonSchemaId()).isEqualTo(jsonSchemaId);
+		assertThat(bean.getLastUsedForValidation()).isEqualTo(lastUsedForValidation);
+		assertThat(bean.getValidationUsageCount()).isEqualTo(validationUsageCount);
+	}
+
+	@Test
+	void testNoDirtOnCreatedBean() {
+		assertThat(JsonSchemaUsageEntity.create()).hasAllNullFieldsOrPropertiesExcept("validationUsageCount");
+		assertThat(new JsonSchemaUsageEntity()).hasAllNullFieldsOrPropertiesExcept("validationUsageCount");
+	}
+}
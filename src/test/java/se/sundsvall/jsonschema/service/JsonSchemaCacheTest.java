@@ -1,22 +1,56 @@
 package se.sundsvall.jsonschema.service;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.zalando.problem.Status.BAD_REQUEST;
+import static org.zalando.problem.Status.NOT_FOUND;
+import static org.zalando.problem.Status.SERVICE_UNAVAILABLE;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FULL;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
 
+import com.networknt.schema.Error;
 import com.networknt.schema.Schema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.util.unit.DataSize;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
 import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
+import se.sundsvall.jsonschema.service.keyword.SchemaRegistries;
 
 @SpringBootTest(classes = {
 	JsonSchemaCache.class,
-	CacheAutoConfiguration.class
+	RegularExpressions.class,
+	SimpleMeterRegistry.class
 })
-@EnableCaching
 @ActiveProfiles("junit")
 class JsonSchemaCacheTest {
 
@@ -30,9 +64,20 @@ class JsonSchemaCacheTest {
 		}
 		""";
 
+	private static final JsonSchemaCacheProperties.Warmup WARMUP_DISABLED = new JsonSchemaCacheProperties.Warmup(false, 0, Duration.ZERO, 1,
+		new JsonSchemaCacheProperties.ValidationWarmup(false, 0, Duration.ZERO));
+	private static final JsonSchemaCacheProperties.Optimization OPTIMIZATION_ENABLED = new JsonSchemaCacheProperties.Optimization(true);
+	private static final JsonSchemaCacheProperties.Regex JDK_REGEX = new JsonSchemaCacheProperties.Regex(JsonSchemaCacheProperties.RegexEngine.JDK, 100);
+
+	@MockitoBean
+	private JsonSchemaRepository jsonSchemaRepositoryMock;
+
 	@Autowired
 	private JsonSchemaCache cache;
 
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	private JsonSchemaEntity entity;
 
 	@BeforeEach
@@ -120,4 +165,422 @@ class JsonSchemaCacheTest {
 		// Assert – both calls must return the same cached instance
 		assertThat(schema1).isSameAs(schema2);
 	}
+
+	@Test
+	void cacheShouldResolveSchemaByIdWithoutRepeatedDatabaseLookups() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("schema44")).thenReturn(Optional.of(SCHEMA_VALUE));
+
+		// Act
+		var schema1 = cache.getSchema("schema44");
+		var schema2 = cache.getSchema("schema44");
+
+		// Assert – only the first call reaches the database
+		assertThat(schema1)
+			.isNotNull()
+			.isSameAs(schema2);
+		verify(jsonSchemaRepositoryMock).findValueById("schema44");
+	}
+
+	@Test
+	void cacheShouldShareEntriesBetweenEntityAndIdLookups() {
+		var e1 = new JsonSchemaEntity();
+		e1.setId("schema55");
+		e1.setValue(SCHEMA_VALUE);
+
+		// Act
+		Schema schema1 = cache.getSchema(e1);
+		Schema schema2 = cache.getSchema("schema55");
+
+		// Assert – the ID lookup is served by the entry created by the entity lookup
+		assertThat(schema1).isSameAs(schema2);
+		verify(jsonSchemaRepositoryMock, never()).findValueById("schema55");
+	}
+
+	@Test
+	void cacheShouldRecordWhetherAnnotationCollectionIsRequired() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("schema66")).thenReturn(Optional.of(SCHEMA_VALUE));
+		when(jsonSchemaRepositoryMock.findValueById("schema77")).thenReturn(Optional.of("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "properties": {
+			    "name": { "type": "string" }
+			  },
+			  "unevaluatedProperties": false
+			}
+			"""));
+
+		// Act
+		var compiled1 = cache.getCompiledSchema("schema66");
+		var compiled2 = cache.getCompiledSchema("schema77");
+
+		// Assert
+		assertThat(compiled1.annotationCollectionRequired()).isFalse();
+		assertThat(compiled2.annotationCollectionRequired()).isTrue();
+		assertThat(compiled1.schema()).isSameAs(cache.getSchema("schema66"));
+	}
+
+	@Test
+	void cacheShouldOptimizeSchemaBeforeCompilation() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("schema111")).thenReturn(Optional.of("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "allOf": [ { "allOf": [ { "type": "object" } ] }, true ]
+			}
+			"""));
+
+		// Act
+		var compiled = cache.getCompiledSchema("schema111");
+
+		// Assert – errors are still reported against the stored schema
+		assertThat(compiled.optimization().nodesAfter()).isLessThan(compiled.optimization().nodesBefore());
+		assertThat(compiled.schemaFor(FLAG).getSchemaNode().has("allOf")).isFalse();
+		assertThat(compiled.schemaFor(FULL)).isSameAs(compiled.schema());
+		assertThat(compiled.schema().getSchemaNode().has("allOf")).isTrue();
+		assertThat(compiled.weight()).isGreaterThan(compiled.schema().getSchemaNode().toString().length());
+		assertThat(meterRegistry.get(JsonSchemaCache.OPTIMIZATION_METRIC).tag("schemaId", "schema111").summary().totalAmount()).isPositive();
+	}
+
+	@Test
+	void optimizationShouldNotChangeFullOutput() {
+
+		// Arrange
+		final var values = IntStream.range(0, 20).mapToObj(index -> "\"value" + index + "\"").collect(joining(", ", "[", "]"));
+		final var value = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "properties": {
+			    "from": { "enum": %s },
+			    "to": { "enum": %s },
+			    "kind": { "anyOf": [ false, { "type": "string" }, { "not": {} }, { "type": "integer" } ] }
+			  }
+			}
+			""".formatted(values, values);
+		final var document = toInstanceNode("{ \"from\": \"other\", \"to\": 1, \"kind\": true }".getBytes(UTF_8));
+		when(jsonSchemaRepositoryMock.findValueById("schema125")).thenReturn(Optional.of(value));
+
+		// Act
+		final var compiled = cache.getCompiledSchema("schema125");
+
+		// Assert – the removed branches and the moved enums are only left out of FLAG output
+		assertThat(compiled.schemaFor(FLAG)).isNotSameAs(compiled.schemaFor(FULL));
+		assertThat(compiled.schemaFor(FLAG).validate(document)).isNotEmpty();
+		assertThat(describe(compiled.schemaFor(FULL).validate(document))).isEqualTo(describe(SchemaRegistries.draft202012().getSchema(value).validate(document)));
+	}
+
+	@Test
+	void cacheShouldRememberMisses() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("unknown")).thenReturn(Optional.empty());
+
+		// Act
+		var exception1 = assertThrows(ThrowableProblem.class, () -> cache.getSchema("unknown"));
+		var exception2 = assertThrows(ThrowableProblem.class, () -> cache.getSchema("unknown"));
+
+		// Assert – the second lookup is answered by the miss cache
+		assertThat(exception1.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception2.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception2.getMessage()).isEqualTo("Not Found: No JsonSchema with ID 'unknown' was found!");
+		verify(jsonSchemaRepositoryMock).findValueById("unknown");
+	}
+
+	@Test
+	void forgetMissShouldAllowNewLookup() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("created-later")).thenReturn(Optional.empty(), Optional.of(SCHEMA_VALUE));
+		assertThrows(ThrowableProblem.class, () -> cache.getSchema("created-later"));
+
+		// Act
+		cache.forgetMiss("created-later");
+		var schema = cache.getSchema("created-later");
+
+		// Assert
+		assertThat(schema).isNotNull();
+		verify(jsonSchemaRepositoryMock, times(2)).findValueById("created-later");
+	}
+
+	@Test
+	void compileShouldCompileSchemaWithoutCachingIt() {
+
+		// Arrange
+		entity.setId("schema121");
+
+		// Act
+		var compiled = cache.compile(entity);
+
+		// Assert
+		assertThat(compiled.id()).isEqualTo("schema121");
+		assertThat(compiled.compilationTime()).isPositive();
+		assertThat(meterRegistry.get(JsonSchemaCache.COMPILATION_METRIC).timer().count()).isPositive();
+		assertThat(cache.getSchema(entity)).isNotSameAs(compiled.schema());
+	}
+
+	@Test
+	void compileShouldRejectSchemaThatCannotBeCompiled() {
+
+		// Arrange
+		entity.setId("schema122");
+		entity.setValue("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "$ref": "#/$defs/missing"
+			}
+			""");
+
+		// Act
+		var exception = assertThrows(ThrowableProblem.class, () -> cache.compile(entity));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getDetail()).startsWith("JsonSchema with ID 'schema122' could not be compiled: ");
+	}
+
+	@Test
+	void compileShouldRejectSchemaWithDanglingReferenceInSubschema() {
+
+		// Arrange
+		entity.setId("schema124");
+		entity.setValue("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "properties": {
+			    "items": { "type": "array", "items": { "allOf": [ { "$ref": "#/$defs/missing" } ] } }
+			  }
+			}
+			""");
+
+		// Act
+		var exception = assertThrows(ThrowableProblem.class, () -> cache.compile(entity));
+
+		// Assert – references behind applicators charged to the validation budget are resolved at compile time
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getDetail()).startsWith("JsonSchema with ID 'schema124' could not be compiled: ");
+	}
+
+	@Test
+	void onCompiledShouldPutCompiledSchemaIntoCacheAndForgetMiss() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("schema123")).thenReturn(Optional.empty());
+		assertThrows(ThrowableProblem.class, () -> cache.getSchema("schema123"));
+		entity.setId("schema123");
+		final var compiled = cache.compile(entity);
+
+		// Act
+		cache.onCompiled(new JsonSchemaCompiledEvent(compiled));
+
+		// Assert – the compiled schema is served without another database lookup
+		assertThat(cache.getCompiledSchema("schema123")).isSameAs(compiled);
+		verify(jsonSchemaRepositoryMock).findValueById("schema123");
+	}
+
+	@Test
+	void evictShouldRemoveCompiledSchemaAndCountEviction() {
+
+		// Arrange
+		when(jsonSchemaRepositoryMock.findValueById("schema99")).thenReturn(Optional.of(SCHEMA_VALUE));
+		final var schema1 = cache.getSchema("schema99");
+		final var evictionsBefore = invalidatedEvictions();
+
+		// Act
+		cache.onInvalidated(new JsonSchemaInvalidatedEvent("schema99"));
+		cache.onInvalidated(new JsonSchemaInvalidatedEvent("schema99"));
+		final var schema2 = cache.getSchema("schema99");
+
+		// Assert – the schema is compiled anew, and only the actual removal is counted
+		assertThat(schema2).isNotSameAs(schema1);
+		assertThat(invalidatedEvictions()).isEqualTo(evictionsBefore + 1);
+		verify(jsonSchemaRepositoryMock, times(2)).findValueById("schema99");
+	}
+
+	@Test
+	void cacheShouldEvictBySizeWithinMemoryBudgetExceptPinnedSchemas() {
+
+		// Arrange – the budget fits one unpinned schema only
+		final var repositoryMock = mock(JsonSchemaRepository.class);
+		final var properties = new JsonSchemaCacheProperties(DataSize.ofBytes(SCHEMA_VALUE.length()), Duration.ofDays(7), Set.of("pinned"), Duration.ofSeconds(30),
+			new JsonSchemaCacheProperties.Compilation(false, 2, Duration.ofSeconds(5)), WARMUP_DISABLED, OPTIMIZATION_ENABLED, JDK_REGEX);
+		final var boundedCache = new JsonSchemaCache(repositoryMock, properties, new SimpleMeterRegistry(), mock(ApplicationEventPublisher.class), new RegularExpressions(properties));
+		when(repositoryMock.findValueById(any())).thenReturn(Optional.of(SCHEMA_VALUE));
+
+		// Act
+		final var pinned = boundedCache.getSchema("pinned");
+		boundedCache.getSchema("schema-a");
+		boundedCache.getSchema("schema-b");
+		boundedCache.cleanUp();
+		boundedCache.getSchema("schema-a");
+		boundedCache.getSchema("schema-b");
+		boundedCache.cleanUp();
+
+		// Assert – the pinned schema survives, while the unpinned ones compete for the budget
+		assertThat(boundedCache.getSchema("pinned")).isSameAs(pinned);
+		verify(repositoryMock).findValueById("pinned");
+		verify(repositoryMock, atLeast(3)).findValueById(argThat(schemaId -> schemaId.startsWith("schema-")));
+	}
+
+	@Test
+	void cacheShouldCompileSchemaOnceForConcurrentLookups() throws Exception {
+
+		// Arrange
+		final var numberOfCallers = 16;
+		final var start = new CountDownLatch(1);
+		when(jsonSchemaRepositoryMock.findValueById("schema66")).thenAnswer(_ -> {
+			Thread.sleep(200);
+			return Optional.of(SCHEMA_VALUE);
+		});
+
+		// Act
+		try (final var executor = Executors.newFixedThreadPool(numberOfCallers)) {
+			final var futures = IntStream.range(0, numberOfCallers)
+				.mapToObj(_ -> executor.submit(() -> {
+					start.await();
+					return cache.getSchema("schema66");
+				}))
+				.toList();
+			start.countDown();
+
+			// Assert – all callers share the result of one single compilation
+			final var first = futures.getFirst().get();
+			for (final Future<Schema> future : futures) {
+				assertThat(future.get()).isSameAs(first);
+			}
+		}
+		verify(jsonSchemaRepositoryMock).findValueById("schema66");
+	}
+
+	@Test
+	void asyncCompilationShouldReturnCompiledSchema() {
+
+		// Arrange
+		final var repositoryMock = mock(JsonSchemaRepository.class);
+		final var asyncCache = new JsonSchemaCache(repositoryMock, asyncProperties(Duration.ofSeconds(5)), new SimpleMeterRegistry(), mock(ApplicationEventPublisher.class), new RegularExpressions(asyncProperties(Duration.ofSeconds(5))));
+		when(repositoryMock.findValueById("schema77")).thenReturn(Optional.of(SCHEMA_VALUE));
+
+		try {
+			// Act
+			final var schema1 = asyncCache.getSchema("schema77");
+			final var schema2 = asyncCache.getSchema("schema77");
+
+			// Assert
+			assertThat(schema1)
+				.isNotNull()
+				.isSameAs(schema2);
+			verify(repositoryMock).findValueById("schema77");
+		} finally {
+			asyncCache.shutdown();
+		}
+	}
+
+	@Test
+	void asyncCompilationShouldRejectCallersWhenTimeoutIsExceeded() throws Exception {
+
+		// Arrange
+		final var repositoryMock = mock(JsonSchemaRepository.class);
+		final var asyncCache = new JsonSchemaCache(repositoryMock, asyncProperties(Duration.ofMillis(50)), new SimpleMeterRegistry(), mock(ApplicationEventPublisher.class), new RegularExpressions(asyncProperties(Duration.ofMillis(50))));
+		final var release = new CountDownLatch(1);
+		when(repositoryMock.findValueById("schema88")).thenAnswer(_ -> {
+			release.await();
+			return Optional.of(SCHEMA_VALUE);
+		});
+
+		try {
+			// Act
+			final var exception = assertThrows(ThrowableProblem.class, () -> asyncCache.getSchema("schema88"));
+			release.countDown();
+
+			// Assert – the compilation continues in the background and is served once finished
+			assertThat(exception.getStatus()).isEqualTo(SERVICE_UNAVAILABLE);
+			assertThat(exception.getMessage()).isEqualTo("Service Unavailable: JsonSchema with ID 'schema88' is being compiled, please try again later!");
+			await(() -> assertThat(asyncCache.getSchema("schema88")).isNotNull());
+			verify(repositoryMock).findValueById("schema88");
+		} finally {
+			asyncCache.shutdown();
+		}
+	}
+
+	@Test
+	void asyncCompilationShouldLetOtherCallersWaitForSharedCompilation() throws Exception {
+
+		// Arrange
+		final var repositoryMock = mock(JsonSchemaRepository.class);
+		final var asyncCache = new JsonSchemaCache(repositoryMock, asyncProperties(Duration.ofSeconds(30)), new SimpleMeterRegistry(), mock(ApplicationEventPublisher.class), new RegularExpressions(asyncProperties(Duration.ofSeconds(30))));
+		final var compiling = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		when(repositoryMock.findValueById("schema99")).thenAnswer(_ -> {
+			compiling.countDown();
+			release.await();
+			return Optional.of(SCHEMA_VALUE);
+		});
+
+		try (final var executor = Executors.newFixedThreadPool(2)) {
+			final var first = executor.submit(() -> asyncCache.getSchema("schema99"));
+			compiling.await();
+			final var second = executor.submit(() -> asyncCache.getSchema("schema99"));
+
+			// Act
+			release.countDown();
+
+			// Assert – both callers get the result of the one compilation
+			assertThat(first.get()).isNotNull().isSameAs(second.get());
+			verify(repositoryMock).findValueById("schema99");
+		} finally {
+			asyncCache.shutdown();
+		}
+	}
+
+	@Test
+	void evictShouldPublishEvictedEvent() {
+
+		// Arrange
+		final var repositoryMock = mock(JsonSchemaRepository.class);
+		final var eventPublisherMock = mock(ApplicationEventPublisher.class);
+		final var publishingCache = new JsonSchemaCache(repositoryMock, asyncProperties(Duration.ofSeconds(5)), new SimpleMeterRegistry(), eventPublisherMock, new RegularExpressions(asyncProperties(Duration.ofSeconds(5))));
+		when(repositoryMock.findValueById("schema1")).thenReturn(Optional.of(SCHEMA_VALUE));
+		publishingCache.getSchema("schema1");
+
+		// Act
+		publishingCache.evict("schema1");
+
+		// Assert – removal notifications are delivered asynchronously
+		verify(eventPublisherMock, timeout(5000)).publishEvent(new JsonSchemaEvictedEvent("schema1"));
+		publishingCache.shutdown();
+	}
+
+	private static List<String> describe(List<Error> errors) {
+		return errors.stream()
+			.map(error -> error.getInstanceLocation() + " " + error.getSchemaLocation() + " " + error.getMessage())
+			.toList();
+	}
+
+	private double invalidatedEvictions() {
+		return meterRegistry.counter(JsonSchemaCache.EVICTIONS_METRIC, "cause", JsonSchemaCache.CAUSE_INVALIDATED).count();
+	}
+
+	private static JsonSchemaCacheProperties asyncProperties(Duration timeout) {
+		return new JsonSchemaCacheProperties(DataSize.ofMegabytes(64), Duration.ofDays(7), Set.of(), Duration.ofSeconds(30), new JsonSchemaCacheProperties.Compilation(true, 2, timeout), WARMUP_DISABLED,
+			OPTIMIZATION_ENABLED, JDK_REGEX);
+	}
+
+	private static void await(Runnable assertion) throws InterruptedException {
+		for (var attempt = 0;; attempt++) {
+			try {
+				assertion.run();
+				return;
+			} catch (final ThrowableProblem e) {
+				if (attempt == 100) {
+					throw e;
+				}
+				Thread.sleep(50);
+			}
+		}
+	}
 }
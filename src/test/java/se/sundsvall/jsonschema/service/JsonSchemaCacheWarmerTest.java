@@ -0,0 +1,150 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+import static org.zalando.problem.Status.NOT_FOUND;
+
+import com.networknt.schema.Schema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.util.unit.DataSize;
+import org.zalando.problem.Problem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
+import tools.jackson.databind.JsonNode;
+
+@ExtendWith(MockitoExtension.class)
+class JsonSchemaCacheWarmerTest {
+
+	// The generic documents, and a sample instance of the schema
+	private static final int NUMBER_OF_SYNTHETIC_DOCUMENTS = 9;
+
+	@Mock
+	private JsonSchemaUsageRepository jsonSchemaUsageRepositoryMock;
+
+	@Mock
+	private JsonSchemaCache jsonSchemaCacheMock;
+
+	@Mock
+	private JsonSchemaValidationService jsonSchemaValidationServiceMock;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> usedSinceCaptor;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	void warmUp() {
+
+		// Arrange
+		final var warmer = createWarmer(true, false, Duration.ofSeconds(30));
+		when(jsonSchemaUsageRepositoryMock.findIdsOfMostUsed(any(), eq(Limit.of(50)))).thenReturn(List.of("schema-1", "schema-2", "schema-3"));
+		when(jsonSchemaCacheMock.getCompiledSchema("schema-2")).thenThrow(Problem.valueOf(NOT_FOUND));
+
+		// Act
+		warmer.warmUp();
+
+		// Assert – a failing schema does not prevent the others from being preloaded
+		verify(jsonSchemaUsageRepositoryMock).findIdsOfMostUsed(usedSinceCaptor.capture(), eq(Limit.of(50)));
+		verify(jsonSchemaCacheMock).getCompiledSchema("schema-1");
+		verify(jsonSchemaCacheMock).getCompiledSchema("schema-2");
+		verify(jsonSchemaCacheMock).getCompiledSchema("schema-3");
+		verifyNoMoreInteractions(jsonSchemaUsageRepositoryMock, jsonSchemaCacheMock);
+		verifyNoInteractions(jsonSchemaValidationServiceMock);
+		assertThat(usedSinceCaptor.getValue()).isCloseTo(now().minusDays(14), within(5, SECONDS));
+		assertThat(meterRegistry.timer(JsonSchemaCacheWarmer.WARMUP_METRIC).count()).isOne();
+	}
+
+	@Test
+	void warmUpWithSyntheticValidations() {
+
+		// Arrange
+		final var warmer = createWarmer(true, true, Duration.ofSeconds(30));
+		final var schema = new CompiledSchema("schema-1", mock(Schema.class), null, false, 0, null, Duration.ZERO);
+		when(jsonSchemaUsageRepositoryMock.findIdsOfMostUsed(any(), any())).thenReturn(List.of("schema-1"));
+		when(jsonSchemaCacheMock.getCompiledSchema("schema-1")).thenReturn(schema);
+
+		// Act
+		warmer.warmUp();
+
+		// Assert – every synthetic document is validated once per round, without registering usage
+		verify(jsonSchemaValidationServiceMock, times(3 * NUMBER_OF_SYNTHETIC_DOCUMENTS)).validate(any(JsonNode.class), eq(schema));
+		verifyNoMoreInteractions(jsonSchemaValidationServiceMock);
+		assertThat(meterRegistry.timer(JsonSchemaCacheWarmer.VALIDATION_WARMUP_METRIC).count()).isOne();
+	}
+
+	@Test
+	void warmUpWithSyntheticValidationsStopsAtTimeLimit() {
+
+		// Arrange
+		final var warmer = createWarmer(true, true, Duration.ZERO);
+		when(jsonSchemaUsageRepositoryMock.findIdsOfMostUsed(any(), any())).thenReturn(List.of("schema-1"));
+		when(jsonSchemaCacheMock.getCompiledSchema("schema-1")).thenReturn(new CompiledSchema("schema-1", mock(Schema.class), null, false, 0, null, Duration.ZERO));
+
+		// Act
+		warmer.warmUp();
+
+		// Assert
+		verifyNoInteractions(jsonSchemaValidationServiceMock);
+		assertThat(meterRegistry.timer(JsonSchemaCacheWarmer.VALIDATION_WARMUP_METRIC).count()).isOne();
+	}
+
+	@Test
+	void warmUpWhenFindingMostUsedSchemasFails() {
+
+		// Arrange
+		final var warmer = createWarmer(true, true, Duration.ofSeconds(30));
+		when(jsonSchemaUsageRepositoryMock.findIdsOfMostUsed(any(), any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+		// Act
+		warmer.warmUp();
+
+		// Assert – the failure does not prevent the application from starting
+		verifyNoInteractions(jsonSchemaCacheMock, jsonSchemaValidationServiceMock);
+		assertThat(meterRegistry.timer(JsonSchemaCacheWarmer.WARMUP_METRIC).count()).isZero();
+	}
+
+	@Test
+	void warmUpWhenDisabled() {
+
+		// Arrange
+		final var warmer = createWarmer(false, true, Duration.ofSeconds(30));
+
+		// Act
+		warmer.warmUp();
+
+		// Assert
+		verifyNoInteractions(jsonSchemaUsageRepositoryMock, jsonSchemaCacheMock, jsonSchemaValidationServiceMock);
+		assertThat(meterRegistry.timer(JsonSchemaCacheWarmer.WARMUP_METRIC).count()).isZero();
+	}
+
+	private JsonSchemaCacheWarmer createWarmer(boolean warmupEnabled, boolean validationWarmupEnabled, Duration timeLimit) {
+		final var properties = new JsonSchemaCacheProperties(DataSize.ofMegabytes(64), Duration.ofDays(7), Set.of(), Duration.ofSeconds(30),
+			new JsonSchemaCacheProperties.Compilation(false, 2, Duration.ofSeconds(5)),
+			new JsonSchemaCacheProperties.Warmup(warmupEnabled, 50, Duration.ofDays(14), 2,
+				new JsonSchemaCacheProperties.ValidationWarmup(validationWarmupEnabled, 3, timeLimit)),
+			new JsonSchemaCacheProperties.Optimization(true), new JsonSchemaCacheProperties.Regex(JsonSchemaCacheProperties.RegexEngine.JDK, 100));
+
+		return new JsonSchemaCacheWarmer(jsonSchemaUsageRepositoryMock, jsonSchemaCacheMock, jsonSchemaValidationServiceMock, properties, meterRegistry);
+	}
+}
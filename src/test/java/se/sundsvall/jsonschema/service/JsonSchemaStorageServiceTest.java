@@ -4,15 +4,24 @@ import static java.util.Collections.emptyList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.data.domain.Pageable.unpaged;
+import static org.zalando.problem.Status.BAD_REQUEST;
 import static org.zalando.problem.Status.CONFLICT;
 import static org.zalando.problem.Status.NOT_FOUND;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.treeToInstanceNode;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.networknt.schema.Schema;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,22 +29,47 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.zalando.problem.Problem;
 import org.zalando.problem.ThrowableProblem;
 import se.sundsvall.jsonschema.TestFactory;
+import se.sundsvall.jsonschema.configuration.JsonSchemaComplexityProperties;
 import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
 import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
+import se.sundsvall.jsonschema.integration.db.model.JsonSchemaUsageEntity;
 
 @ExtendWith(MockitoExtension.class)
 class JsonSchemaStorageServiceTest {
 
 	private static final String MUNICIPALITY_ID = "2281";
+	private static final String RESTRICTED_MUNICIPALITY_ID = "2262";
 
 	@Mock
 	private JsonSchemaRepository jsonSchemaRepositoryMock;
 
+	@Mock
+	private JsonSchemaUsageRepository jsonSchemaUsageRepositoryMock;
+
+	@Mock
+	private JsonSchemaCache jsonSchemaCacheMock;
+
+	@Mock
+	private ApplicationEventPublisher eventPublisherMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	@Spy
+	private JsonSchemaComplexityProperties complexityProperties = new JsonSchemaComplexityProperties(
+		new JsonSchemaComplexityProperties.Budget(10000, 128, 1000, true, 1000000),
+		Map.of(RESTRICTED_MUNICIPALITY_ID, new JsonSchemaComplexityProperties.Budget(10000, 128, 1, false, 1000000)));
+
 	@Captor
 	private ArgumentCaptor<JsonSchemaEntity> entityCaptor;
 
@@ -123,9 +157,11 @@ class JsonSchemaStorageServiceTest {
 		final var pageable = unpaged();
 		final var jsonSchemaCreateRequest = TestFactory.getJsonSchemaCreateRequest();
 		final var entity = TestFactory.getJsonSchemaEntity();
+		final var compiled = new CompiledSchema(entity.getId(), mock(Schema.class), null, false, 0, null, Duration.ofNanos(1_234_567));
 
 		when(jsonSchemaRepositoryMock.existsById(any())).thenReturn(false);
 		when(jsonSchemaRepositoryMock.findAllByMunicipalityIdAndName(any(), any(), any())).thenReturn(new PageImpl<>(emptyList(), pageable, 1));
+		when(jsonSchemaCacheMock.compile(any(), any())).thenReturn(compiled);
 		when(jsonSchemaRepositoryMock.save(any())).thenReturn(entity);
 
 		// Act
@@ -141,8 +177,18 @@ class JsonSchemaStorageServiceTest {
 
 		verify(jsonSchemaRepositoryMock).findAllByMunicipalityIdAndName(MUNICIPALITY_ID, jsonSchemaCreateRequest.getName().toLowerCase(), pageable);
 		verify(jsonSchemaRepositoryMock).existsById("%s_%s_%s".formatted(MUNICIPALITY_ID, jsonSchemaCreateRequest.getName(), jsonSchemaCreateRequest.getVersion()).toLowerCase());
+		verify(jsonSchemaCacheMock).compile(any(), eq(treeToInstanceNode(jsonSchemaCreateRequest.getValue())));
 		verify(jsonSchemaRepositoryMock).save(entityCaptor.capture());
-		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verify(jsonSchemaUsageRepositoryMock).save(JsonSchemaUsageEntity.create().withJsonSchemaId(entity.getId()));
+		verify(eventPublisherMock).publishEvent(new JsonSchemaCompiledEvent(compiled));
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock, jsonSchemaUsageRepositoryMock, jsonSchemaCacheMock, eventPublisherMock);
+
+		// Assert – the schema is compiled before the transaction that stores it is opened
+		final var inOrder = inOrder(jsonSchemaCacheMock, transactionManagerMock, jsonSchemaRepositoryMock);
+		inOrder.verify(jsonSchemaCacheMock).compile(any(), any());
+		inOrder.verify(transactionManagerMock).getTransaction(any());
+		inOrder.verify(jsonSchemaRepositoryMock).save(any());
+		inOrder.verify(transactionManagerMock).commit(any());
 
 		final var capturedValue = entityCaptor.getValue();
 		assertThat(capturedValue.getCreated()).isNull();
@@ -156,6 +202,64 @@ class JsonSchemaStorageServiceTest {
 			.isLowerCase();
 		assertThat(capturedValue.getValue()).isEqualTo(jsonSchemaCreateRequest.getValue().toString());
 		assertThat(capturedValue.getVersion()).isEqualTo(jsonSchemaCreateRequest.getVersion());
+		assertThat(capturedValue.getComplexityNodeCount()).isOne();
+		assertThat(capturedValue.getComplexityMaxDepth()).isOne();
+		assertThat(capturedValue.getComplexityMaxBranching()).isZero();
+		assertThat(capturedValue.getComplexityRecursive()).isFalse();
+		assertThat(capturedValue.getComplexityEstimatedEvaluations()).isOne();
+		assertThat(capturedValue.getCompilationTimeMicros()).isEqualTo(1234);
+	}
+
+	@Test
+	void createSchemaWhenCompilationFails() {
+
+		// Arrange
+		final var pageable = unpaged();
+		final var jsonSchemaCreateRequest = TestFactory.getJsonSchemaCreateRequest();
+
+		when(jsonSchemaRepositoryMock.existsById(any())).thenReturn(false);
+		when(jsonSchemaRepositoryMock.findAllByMunicipalityIdAndName(any(), any(), any())).thenReturn(new PageImpl<>(emptyList(), pageable, 1));
+		when(jsonSchemaCacheMock.compile(any(), any())).thenThrow(Problem.valueOf(BAD_REQUEST, "JsonSchema with ID '2281_person_schema_1.0' could not be compiled: broken $ref"));
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.create(MUNICIPALITY_ID, jsonSchemaCreateRequest));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+
+		verify(jsonSchemaRepositoryMock).existsById(any());
+		verify(jsonSchemaRepositoryMock).findAllByMunicipalityIdAndName(any(), any(), any());
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verifyNoInteractions(jsonSchemaUsageRepositoryMock, eventPublisherMock, transactionManagerMock);
+	}
+
+	@Test
+	void createSchemaWhenComplexityBudgetIsExceeded() throws Exception {
+
+		// Arrange
+		final var pageable = unpaged();
+		final var jsonSchemaCreateRequest = TestFactory.getJsonSchemaCreateRequest()
+			.withValue(new ObjectMapper().readTree("""
+				{
+				  "$schema": "https://json-schema.org/draft/2020-12/schema",
+				  "anyOf": [ { "type": "string" }, { "$ref": "#" } ]
+				}
+				"""));
+
+		when(jsonSchemaRepositoryMock.existsById(any())).thenReturn(false);
+		when(jsonSchemaRepositoryMock.findAllByMunicipalityIdAndName(any(), any(), any())).thenReturn(new PageImpl<>(emptyList(), pageable, 1));
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> service.create(RESTRICTED_MUNICIPALITY_ID, jsonSchemaCreateRequest));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getMessage()).isEqualTo("Bad Request: JsonSchema exceeds the complexity budget: branching is 2, the maximum is 1, schema is recursive, which is not allowed");
+
+		verify(jsonSchemaRepositoryMock).existsById(any());
+		verify(jsonSchemaRepositoryMock).findAllByMunicipalityIdAndName(any(), any(), any());
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verifyNoInteractions(jsonSchemaUsageRepositoryMock, jsonSchemaCacheMock, transactionManagerMock);
 	}
 
 	@Test
@@ -218,8 +322,10 @@ class JsonSchemaStorageServiceTest {
 
 		// Assert
 		verify(jsonSchemaRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, id);
+		verify(jsonSchemaUsageRepositoryMock).deleteById(id);
 		verify(jsonSchemaRepositoryMock).deleteById(id);
-		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verify(eventPublisherMock).publishEvent(new JsonSchemaInvalidatedEvent(id));
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock, jsonSchemaUsageRepositoryMock, eventPublisherMock);
 	}
 
 	@Test
@@ -238,6 +344,6 @@ class JsonSchemaStorageServiceTest {
 		assertThat(exception.getMessage()).isEqualTo("Not Found: No JsonSchema with ID 'some-id' was found!");
 
 		verify(jsonSchemaRepositoryMock).findByMunicipalityIdAndId(MUNICIPALITY_ID, id);
-		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock, eventPublisherMock);
 	}
 }
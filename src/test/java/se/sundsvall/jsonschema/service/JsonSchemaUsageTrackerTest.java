@@ -0,0 +1,212 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.time.OffsetDateTime.now;
+import static java.time.temporal.ChronoUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import se.sundsvall.jsonschema.integration.db.JsonSchemaUsageRepository;
+
+@ExtendWith(MockitoExtension.class)
+class JsonSchemaUsageTrackerTest {
+
+	@Mock
+	private JsonSchemaUsageRepository jsonSchemaUsageRepositoryMock;
+
+	@Mock
+	private PlatformTransactionManager transactionManagerMock;
+
+	@Captor
+	private ArgumentCaptor<OffsetDateTime> lastUsedCaptor;
+
+	private JsonSchemaUsageTracker tracker;
+
+	@BeforeEach
+	void setup() {
+		tracker = new JsonSchemaUsageTracker(jsonSchemaUsageRepositoryMock, transactionManagerMock);
+	}
+
+	@Test
+	void flushAggregatesRegistrationsPerSchema() {
+
+		// Arrange
+		IntStream.range(0, 1000).parallel().forEach(_ -> tracker.register("schema-1"));
+		IntStream.range(0, 5).forEach(_ -> tracker.register("schema-2"));
+
+		// Act
+		tracker.flush();
+
+		// Assert
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-1"), eq(1000L), lastUsedCaptor.capture());
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-2"), eq(5L), any(OffsetDateTime.class));
+		verifyNoMoreInteractions(jsonSchemaUsageRepositoryMock);
+		assertThat(lastUsedCaptor.getValue()).isCloseTo(now(), within(2, SECONDS));
+	}
+
+	@Test
+	void flushOnlyWritesNewRegistrations() {
+
+		// Arrange
+		tracker.register("schema-1");
+		tracker.flush();
+
+		// Act
+		tracker.flush();
+		tracker.register("schema-1");
+		tracker.register("schema-1");
+		tracker.flush();
+
+		// Assert
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-1"), eq(1L), any(OffsetDateTime.class));
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-1"), eq(2L), any(OffsetDateTime.class));
+		verifyNoMoreInteractions(jsonSchemaUsageRepositoryMock);
+	}
+
+	@Test
+	void flushDropsEntriesWithNothingLeftToWrite() {
+
+		// Arrange
+		tracker.register("schema-1");
+		tracker.register("schema-2");
+
+		// Act
+		tracker.flush();
+
+		// Assert
+		assertThat(usages()).isEmpty();
+	}
+
+	@Test
+	void failedFlushKeepsEntries() {
+
+		// Arrange
+		tracker.register("schema-1");
+		when(jsonSchemaUsageRepositoryMock.incrementValidationUsage(eq("schema-1"), anyLong(), any(OffsetDateTime.class))).thenThrow(new IllegalStateException("Database unavailable"));
+
+		// Act
+		tracker.flush();
+
+		// Assert
+		assertThat(usages()).containsOnlyKeys("schema-1");
+	}
+
+	@Test
+	void registrationsDuringFlushAreNotLost() throws Exception {
+
+		// Arrange
+		final var registrations = 10_000;
+		try (final var executor = Executors.newSingleThreadExecutor()) {
+			final var registering = executor.submit(() -> IntStream.range(0, registrations).forEach(_ -> tracker.register("schema-1")));
+
+			// Act
+			while (!registering.isDone()) {
+				tracker.flush();
+			}
+			registering.get();
+		}
+		tracker.flush();
+
+		// Assert – every registration is written exactly once, across all flushes
+		final var countCaptor = ArgumentCaptor.forClass(Long.class);
+		verify(jsonSchemaUsageRepositoryMock, atLeastOnce()).incrementValidationUsage(eq("schema-1"), countCaptor.capture(), any(OffsetDateTime.class));
+		assertThat(countCaptor.getAllValues().stream().mapToLong(Long::longValue).sum()).isEqualTo(registrations);
+		assertThat(usages()).isEmpty();
+	}
+
+	@Test
+	void flushWithoutRegistrations() {
+
+		// Act
+		tracker.flush();
+
+		// Assert
+		verifyNoInteractions(jsonSchemaUsageRepositoryMock, transactionManagerMock);
+	}
+
+	@Test
+	void failedFlushIsRetried() {
+
+		// Arrange
+		tracker.register("schema-1");
+		when(jsonSchemaUsageRepositoryMock.incrementValidationUsage(eq("schema-1"), anyLong(), any(OffsetDateTime.class)))
+			.thenThrow(new IllegalStateException("Database unavailable"))
+			.thenReturn(1);
+
+		// Act
+		tracker.flush();
+		tracker.flush();
+
+		// Assert
+		verify(jsonSchemaUsageRepositoryMock, times(2)).incrementValidationUsage(eq("schema-1"), eq(1L), any(OffsetDateTime.class));
+	}
+
+	@Test
+	void concurrentFlushesWriteCountsOnce() throws Exception {
+
+		// Arrange
+		final var writing = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		tracker.register("schema-1");
+		when(jsonSchemaUsageRepositoryMock.incrementValidationUsage(eq("schema-1"), anyLong(), any(OffsetDateTime.class))).thenAnswer(_ -> {
+			writing.countDown();
+			release.await();
+			return 1;
+		});
+
+		try (final var executor = Executors.newFixedThreadPool(2)) {
+			final var scheduled = executor.submit(tracker::flush);
+			writing.await();
+
+			// Act
+			final var shutdown = executor.submit(tracker::flushOnShutdown);
+			Thread.sleep(100);
+			release.countDown();
+			scheduled.get();
+			shutdown.get();
+		}
+
+		// Assert – the second flush waits for the first, and finds nothing left to write
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-1"), eq(1L), any(OffsetDateTime.class));
+		verifyNoMoreInteractions(jsonSchemaUsageRepositoryMock);
+	}
+
+	@Test
+	void flushOnShutdown() {
+
+		// Arrange
+		tracker.register("schema-1");
+
+		// Act
+		tracker.flushOnShutdown();
+
+		// Assert
+		verify(jsonSchemaUsageRepositoryMock).incrementValidationUsage(eq("schema-1"), eq(1L), any(OffsetDateTime.class));
+	}
+
+	private Map<?, ?> usages() {
+		return (Map<?, ?>) ReflectionTestUtils.getField(tracker, "usages");
+	}
+}
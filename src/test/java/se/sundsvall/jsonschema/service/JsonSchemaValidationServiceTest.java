@@ -1,14 +1,29 @@
 package se.sundsvall.jsonschema.service;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
+import static org.zalando.problem.Status.BAD_REQUEST;
+import static org.zalando.problem.Status.NOT_FOUND;
+import static org.zalando.problem.Status.REQUEST_ENTITY_TOO_LARGE;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FIRST_ERROR;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FULL;
 
 import com.networknt.schema.Error;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,21 +31,34 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.zalando.problem.ThrowableProblem;
 import org.zalando.problem.violations.ConstraintViolationProblem;
 import org.zalando.problem.violations.Violation;
 import se.sundsvall.dept44.test.annotation.resource.Load;
 import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
 import se.sundsvall.jsonschema.integration.db.JsonSchemaRepository;
-import se.sundsvall.jsonschema.integration.db.model.JsonSchemaEntity;
 
 @SpringBootTest(classes = {
 	JsonSchemaCache.class,
-	JsonSchemaValidationService.class
+	JsonSchemaValidationService.class,
+	PayloadLimits.class,
+	RegularExpressions.class,
+	ValidationBudgets.class,
+	ValidationResultCache.class,
+	ValidatorTiering.class,
+	SimpleMeterRegistry.class
+}, properties = {
+	"jsonschema.validation.batch.maximum-size=300",
+	"jsonschema.payload.municipalities.2262.maximum-size=100B",
+	"jsonschema.payload.municipalities.2262.maximum-depth=2"
 })
 @ActiveProfiles(value = "junit")
 @ExtendWith(ResourceLoaderExtension.class)
 class JsonSchemaValidationServiceTest {
 
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String RESTRICTED_MUNICIPALITY_ID = "2262";
 	private static final String VALID_SCHEMA = "files/jsonschema/valid_schema.json";
 	private static final String VALID_JSON = "files/jsonschema/valid_json.json";
 	private static final String INVALID_JSON_MISSING_ALL_PROPERTIES = "files/jsonschema/invalid_json_missing_all_properties.json";
@@ -44,6 +72,9 @@ class JsonSchemaValidationServiceTest {
 	@MockitoSpyBean
 	private JsonSchemaCache jsonSchemaCacheMock;
 
+	@MockitoBean
+	private JsonSchemaUsageTracker jsonSchemaUsageTrackerMock;
+
 	@Autowired
 	private JsonSchemaValidationService jsonSchemaValidationService;
 
@@ -52,11 +83,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		final var validationMessages = jsonSchemaValidationService.validate(json, schemaId);
@@ -64,8 +92,9 @@ class JsonSchemaValidationServiceTest {
 		// Assert
 		assertThat(validationMessages).isEmpty();
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
 	}
 
 	@Test
@@ -73,11 +102,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		final var validationMessages = jsonSchemaValidationService.validate(json, schemaId);
 
@@ -93,8 +119,9 @@ class JsonSchemaValidationServiceTest {
 				tuple("", "required property 'productName' not found"),
 				tuple("", "required property 'price' not found"));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
 	}
 
 	@Test
@@ -102,11 +129,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		final var validationMessages = jsonSchemaValidationService.validate(json, schemaId);
@@ -121,8 +145,9 @@ class JsonSchemaValidationServiceTest {
 			.containsExactly(
 				tuple("/productId", "string found, integer expected"));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
 	}
 
 	@Test
@@ -130,11 +155,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		final var validationMessages = jsonSchemaValidationService.validate(json, schemaId);
@@ -148,8 +170,9 @@ class JsonSchemaValidationServiceTest {
 				Error::getMessage)
 			.containsExactly(tuple("/tags", "must have only unique items in the array"));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
 	}
 
 	@Test
@@ -157,11 +180,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		final var validationMessages = jsonSchemaValidationService.validate(json, schemaId);
@@ -179,8 +199,39 @@ class JsonSchemaValidationServiceTest {
 				tuple("/tags", "must have only unique items in the array"),
 				tuple("", "required property 'productName' not found"));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
+	}
+
+	@Test
+	void validateWithSchemaRequiringAnnotationCollection() {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var schema = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "allOf": [ { "properties": { "name": { "type": "string" } } } ],
+			  "unevaluatedProperties": false
+			}
+			""";
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var validationMessages = jsonSchemaValidationService.validate("""
+			{ "name": "Joe", "age": 42 }
+			""", schemaId);
+
+		// Assert – "name" is evaluated by the subschema, "age" is not
+		assertThat(validationMessages)
+			.extracting(Error::getKeyword)
+			.containsExactly("unevaluatedProperties");
+		assertThat(jsonSchemaValidationService.validate("""
+			{ "name": "Joe" }
+			""", schemaId)).isEmpty();
 	}
 
 	@Test
@@ -188,11 +239,8 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		final var exception = assertThrows(ConstraintViolationProblem.class, () -> jsonSchemaValidationService.validateAndThrow(json, schemaId));
@@ -211,8 +259,9 @@ class JsonSchemaValidationServiceTest {
 				tuple("/tags", "must have only unique items in the array"),
 				tuple("", "required property 'productName' not found"));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
 	}
 
 	@Test
@@ -220,16 +269,320 @@ class JsonSchemaValidationServiceTest {
 
 		// Arrange
 		final var schemaId = "schemaId";
-		final var jsonSchemaEntity = JsonSchemaEntity.create()
-			.withId(schemaId)
-			.withValue(schema);
 
-		when(jsonSchemaRepositoryMock.findById(schemaId)).thenReturn(Optional.of(jsonSchemaEntity));
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
 
 		// Act
 		assertDoesNotThrow(() -> jsonSchemaValidationService.validateAndThrow(json, schemaId));
 
-		verify(jsonSchemaRepositoryMock).findById(schemaId);
-		verify(jsonSchemaCacheMock).getSchema(jsonSchemaEntity);
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
+	}
+
+	@Test
+	void validateAndThrowRawBytesWithValidJson(@Load(VALID_SCHEMA) final String schema, @Load(VALID_JSON) final String json) {
+
+		// Arrange
+		final var schemaId = "schemaId";
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		assertDoesNotThrow(() -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(json.getBytes(UTF_8)), schemaId, FULL));
+
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
+	}
+
+	@Test
+	void validateAndThrowRawBytesWithFirstError(@Load(VALID_SCHEMA) final String schema, @Load(INVALID_JSON_MISC_ERRORS) final String json) {
+
+		// Arrange
+		final var schemaId = "schemaId";
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var exception = assertThrows(ConstraintViolationProblem.class, () -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(json.getBytes(UTF_8)), schemaId, FIRST_ERROR));
+
+		// Assert – validation stops at the first failure
+		assertThat(exception.getViolations()).hasSize(1);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+	}
+
+	@Test
+	void validateAndThrowRawBytesWithFlag(@Load(VALID_SCHEMA) final String schema, @Load(INVALID_JSON_MISC_ERRORS) final String invalidJson, @Load(VALID_JSON) final String validJson) {
+
+		// Arrange
+		final var schemaId = "schemaId";
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var exception = assertThrows(ConstraintViolationProblem.class, () -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(invalidJson.getBytes(UTF_8)), schemaId, FLAG));
+
+		// Assert – invalid without any violations
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getViolations()).isEmpty();
+		assertDoesNotThrow(() -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(validJson.getBytes(UTF_8)), schemaId, FLAG));
+	}
+
+	@Test
+	void validateBatchWithFlag(@Load(VALID_SCHEMA) final String schema, @Load(VALID_JSON) final String validJson, @Load(INVALID_JSON_MISC_ERRORS) final String invalidJson) {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var input = "[%s, %s]".formatted(validJson, invalidJson).getBytes(UTF_8);
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var results = jsonSchemaValidationService.validateBatch(MUNICIPALITY_ID, new ByteArrayInputStream(input), schemaId, FLAG);
+
+		// Assert
+		assertThat(results)
+			.extracting(ValidationResult::getIndex, ValidationResult::getValid, ValidationResult::getViolations)
+			.containsExactly(
+				tuple(0, true, List.of()),
+				tuple(1, false, List.of()));
+	}
+
+	@Test
+	void validateAndThrowRawBytesWithUnparseableJson() {
+
+		// Arrange
+		final var input = "{ \"productId\":".getBytes(UTF_8);
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(input), "schemaId", FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getMessage()).startsWith("Bad Request: Request body is not valid JSON: ");
+
+		verifyNoInteractions(jsonSchemaRepositoryMock);
+	}
+
+	@Test
+	void validateAndThrowWithNoContent() {
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateAndThrow(MUNICIPALITY_ID, new ByteArrayInputStream(new byte[0]), "schemaId", FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getMessage()).isEqualTo("Bad Request: Request body is not valid JSON: no content");
+
+		verifyNoInteractions(jsonSchemaRepositoryMock);
+	}
+
+	@Test
+	void validateAndThrowWhenPayloadLimitIsExceeded() {
+
+		// Arrange
+		final var input = "[[[1]]]".getBytes(UTF_8);
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateAndThrow(RESTRICTED_MUNICIPALITY_ID, new ByteArrayInputStream(input), "schemaId", FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(REQUEST_ENTITY_TOO_LARGE);
+		assertThat(exception.getMessage()).isEqualTo("Request Entity Too Large: Request body exceeds the payload limits: objects and arrays are nested deeper than 2 levels");
+
+		verifyNoInteractions(jsonSchemaRepositoryMock, jsonSchemaUsageTrackerMock);
+	}
+
+	@Test
+	void validateWithUnknownSchemaId(@Load(VALID_JSON) final String json) {
+
+		// Arrange
+		final var schemaId = "unknownSchemaId";
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.empty());
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validate(json, schemaId));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
+		assertThat(exception.getMessage()).isEqualTo("Not Found: No JsonSchema with ID 'unknownSchemaId' was found!");
+
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verifyNoMoreInteractions(jsonSchemaRepositoryMock);
+		verifyNoInteractions(jsonSchemaUsageTrackerMock);
+	}
+
+	@Test
+	void validateBatch(@Load(VALID_SCHEMA) final String schema, @Load(VALID_JSON) final String validJson, @Load(INVALID_JSON_NON_UNIQUE_TAGS) final String invalidJson) {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var input = "[%s, %s, %s]".formatted(validJson, invalidJson, validJson).getBytes(UTF_8);
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var results = jsonSchemaValidationService.validateBatch(MUNICIPALITY_ID, new ByteArrayInputStream(input), schemaId, FULL);
+
+		// Assert – results are indexed to the input, and the schema is resolved and registered once
+		assertThat(results)
+			.extracting(ValidationResult::getIndex, ValidationResult::getValid)
+			.containsExactly(
+				tuple(0, true),
+				tuple(1, false),
+				tuple(2, true));
+		assertThat(results.get(0).getViolations()).isEmpty();
+		assertThat(results.get(1).getViolations())
+			.extracting(Violation::getField, Violation::getMessage)
+			.containsExactly(tuple("/tags", "must have only unique items in the array"));
+
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
+	}
+
+	@Test
+	void validateBatchInParallel(@Load(VALID_SCHEMA) final String schema, @Load(VALID_JSON) final String validJson, @Load(INVALID_JSON_NON_UNIQUE_TAGS) final String invalidJson) {
+
+		// Arrange – large enough to be validated in parallel, where every third document is invalid
+		final var schemaId = "schemaId";
+		final var size = 300;
+		final var input = IntStream.range(0, size)
+			.mapToObj(index -> index % 3 == 0 ? invalidJson : validJson)
+			.collect(joining(",", "[", "]"))
+			.getBytes(UTF_8);
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		final var results = jsonSchemaValidationService.validateBatch(MUNICIPALITY_ID, new ByteArrayInputStream(input), schemaId, FULL);
+
+		// Assert – results are in input order
+		assertThat(results)
+			.extracting(ValidationResult::getIndex, ValidationResult::getValid)
+			.containsExactlyElementsOf(IntStream.range(0, size)
+				.mapToObj(index -> tuple(index, index % 3 != 0))
+				.toList());
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+	}
+
+	@Test
+	void validateBatchWhenNotAnArray(@Load(VALID_JSON) final String json) {
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateBatch(MUNICIPALITY_ID, new ByteArrayInputStream(json.getBytes(UTF_8)), "schemaId", FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getMessage()).isEqualTo("Bad Request: Request body must be a JSON array of documents");
+
+		verifyNoInteractions(jsonSchemaRepositoryMock, jsonSchemaUsageTrackerMock);
+	}
+
+	@Test
+	void validateBatchWhenTooLarge() {
+
+		// Arrange
+		final var input = IntStream.range(0, 301).mapToObj(_ -> "{}").collect(joining(",", "[", "]")).getBytes(UTF_8);
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateBatch(MUNICIPALITY_ID, new ByteArrayInputStream(input), "schemaId", FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(BAD_REQUEST);
+		assertThat(exception.getMessage()).isEqualTo("Bad Request: Batch contains 301 documents, the maximum is 300");
+
+		verifyNoInteractions(jsonSchemaRepositoryMock, jsonSchemaUsageTrackerMock);
+	}
+
+	@Test
+	void validateStream(@Load(VALID_SCHEMA) final String schema) throws Exception {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var input = """
+			{"productId": 1, "productName": "Ice sculpture", "price": 12.5}
+
+			{"productId": 2, "price": 12.5}
+			{"productId":
+			""";
+		final var output = new ByteArrayOutputStream();
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		jsonSchemaValidationService.validateStream(MUNICIPALITY_ID, new ByteArrayInputStream(input.getBytes(UTF_8)), schemaId, false, FULL).writeTo(output);
+
+		// Assert – one result per non-blank line, indexed by line number
+		final var lines = output.toString(UTF_8).lines().toList();
+		assertThat(lines).hasSize(3);
+		assertThat(lines.get(0)).isEqualTo("{\"index\":0,\"valid\":true,\"violations\":[]}");
+		assertThat(lines.get(1)).isEqualTo("{\"index\":2,\"valid\":false,\"violations\":[{\"field\":\"\",\"message\":\"required property 'productName' not found\"}]}");
+		assertThat(lines.get(2)).startsWith("{\"index\":3,\"valid\":false,\"violations\":[{\"field\":\"\",\"message\":\"Line is not valid JSON: ");
+
+		verify(jsonSchemaRepositoryMock).findValueById(schemaId);
+		verify(jsonSchemaUsageTrackerMock).register(schemaId);
+		verify(jsonSchemaCacheMock).getCompiledSchema(schemaId);
+	}
+
+	@Test
+	void validateStreamWithFailuresOnly(@Load(VALID_SCHEMA) final String schema) throws Exception {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var input = """
+			{"productId": 1, "productName": "Ice sculpture", "price": 12.5}
+			{"productId": 2, "price": 12.5}
+			""";
+		final var output = new ByteArrayOutputStream();
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		jsonSchemaValidationService.validateStream(MUNICIPALITY_ID, new ByteArrayInputStream(input.getBytes(UTF_8)), schemaId, true, FULL).writeTo(output);
+
+		// Assert
+		assertThat(output.toString(UTF_8).lines().toList()).containsExactly(
+			"{\"index\":1,\"valid\":false,\"violations\":[{\"field\":\"\",\"message\":\"required property 'productName' not found\"}]}");
+	}
+
+	@Test
+	void validateStreamWhenLineExceedsPayloadLimits(@Load(VALID_SCHEMA) final String schema) throws Exception {
+
+		// Arrange
+		final var schemaId = "schemaId";
+		final var validLine = "{\"productId\": 1, \"productName\": \"Ice sculpture\", \"price\": 12.5}";
+		final var input = String.join("\n", validLine, "{\"productName\": \"%s\"}".formatted("x".repeat(200)), validLine);
+		final var output = new ByteArrayOutputStream();
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.of(schema));
+
+		// Act
+		jsonSchemaValidationService.validateStream(RESTRICTED_MUNICIPALITY_ID, new ByteArrayInputStream(input.getBytes(UTF_8)), schemaId, false, FULL).writeTo(output);
+
+		// Assert – the oversized line is reported, and does not end the stream
+		assertThat(output.toString(UTF_8).lines().toList()).containsExactly(
+			"{\"index\":0,\"valid\":true,\"violations\":[]}",
+			"{\"index\":1,\"valid\":false,\"violations\":[{\"field\":\"\",\"message\":\"Request body exceeds the payload limits: the document is larger than 100 bytes\"}]}",
+			"{\"index\":2,\"valid\":true,\"violations\":[]}");
+	}
+
+	@Test
+	void validateStreamWithUnknownSchemaId() {
+
+		// Arrange
+		final var schemaId = "unknownSchemaId";
+		final var input = new ByteArrayInputStream(new byte[0]);
+
+		when(jsonSchemaRepositoryMock.findValueById(schemaId)).thenReturn(Optional.empty());
+
+		// Act – the schema is resolved before the stream is read
+		final var exception = assertThrows(ThrowableProblem.class, () -> jsonSchemaValidationService.validateStream(MUNICIPALITY_ID, input, schemaId, false, FULL));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(NOT_FOUND);
+		verifyNoInteractions(jsonSchemaUsageTrackerMock);
 	}
 }
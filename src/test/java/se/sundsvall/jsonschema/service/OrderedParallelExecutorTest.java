@@ -0,0 +1,82 @@
+package se.sundsvall.jsonschema.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class OrderedParallelExecutorTest {
+
+	@Test
+	void resultsAreHandedOverInSubmissionOrder() {
+
+		// Arrange
+		final var results = new ArrayList<Integer>();
+
+		// Act
+		try (final var executor = new OrderedParallelExecutor<Integer>(4, results::add)) {
+			IntStream.range(0, 200).forEach(index -> executor.submit(() -> {
+				sleep(ThreadLocalRandom.current().nextInt(3));
+				return index;
+			}));
+			executor.drain();
+		}
+
+		// Assert
+		assertThat(results).containsExactlyElementsOf(IntStream.range(0, 200).boxed().toList());
+	}
+
+	@Test
+	void parallelismIsCapped() {
+
+		// Arrange
+		final var running = new AtomicInteger();
+		final var maximumRunning = new AtomicInteger();
+
+		// Act
+		try (final var executor = new OrderedParallelExecutor<Integer>(3, _ -> {})) {
+			IntStream.range(0, 100).forEach(index -> executor.submit(() -> {
+				maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+				sleep(2);
+				running.decrementAndGet();
+				return index;
+			}));
+			executor.drain();
+		}
+
+		// Assert
+		assertThat(maximumRunning.get()).isBetween(1, 3);
+	}
+
+	@Test
+	void failureIsPropagated() {
+
+		// Arrange
+		final var results = new ArrayList<Integer>();
+
+		// Act & Assert
+		try (final var executor = new OrderedParallelExecutor<Integer>(2, results::add)) {
+			executor.submit(() -> 1);
+			executor.submit(() -> {
+				throw new IllegalArgumentException("Failure");
+			});
+
+			assertThatThrownBy(executor::drain)
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Failure");
+		}
+		assertThat(results).containsExactly(1);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (final InterruptedException _) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.zalando.problem.Status.REQUEST_ENTITY_TOO_LARGE;
+import static se.sundsvall.jsonschema.service.PayloadLimits.LIMIT_EXCEEDED_METRIC;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.util.unit.DataSize;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaPayloadProperties;
+import tools.jackson.core.JacksonException;
+
+class PayloadLimitsTest {
+
+	private static final String MUNICIPALITY_ID = "2281";
+	private static final String RESTRICTED_MUNICIPALITY_ID = "2262";
+
+	private SimpleMeterRegistry meterRegistry;
+	private PayloadLimits payloadLimits;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		payloadLimits = new PayloadLimits(new JsonSchemaPayloadProperties(new JsonSchemaPayloadProperties.Limits(DataSize.ofKilobytes(1), 10, 100, 10),
+			Map.of(RESTRICTED_MUNICIPALITY_ID, new JsonSchemaPayloadProperties.Limits(DataSize.ofBytes(10), 1, 5, 1))), meterRegistry);
+	}
+
+	@Test
+	void readWithinLimits() {
+
+		// Act
+		final var node = payloadLimits.read(MUNICIPALITY_ID, new ByteArrayInputStream("{\"a\": [1, {\"b\": \"c\"}]}".getBytes(UTF_8)));
+
+		// Assert
+		assertThat(node.path("a").path(1).path("b").asString()).isEqualTo("c");
+		assertThat(meterRegistry.find(LIMIT_EXCEEDED_METRIC).counters()).isEmpty();
+	}
+
+	@Test
+	void readWithNoContent() {
+
+		// Act
+		final var node = payloadLimits.read(MUNICIPALITY_ID, new ByteArrayInputStream(" ".getBytes(UTF_8)));
+
+		// Assert
+		assertThat(node).isNull();
+	}
+
+	@Test
+	void readWithTrailingTokens() {
+
+		// Arrange
+		final var input = new ByteArrayInputStream("{} {}".getBytes(UTF_8));
+
+		// Act & Assert
+		assertThrows(JacksonException.class, () -> payloadLimits.read(MUNICIPALITY_ID, input));
+	}
+
+	@ParameterizedTest
+	@MethodSource("exceedingPayloads")
+	void readWhenLimitIsExceeded(String json, String limit, String message) {
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> payloadLimits.read(MUNICIPALITY_ID, new ByteArrayInputStream(json.getBytes(UTF_8))));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(REQUEST_ENTITY_TOO_LARGE);
+		assertThat(exception.getDetail()).isEqualTo("Request body exceeds the payload limits: " + message);
+		assertThat(meterRegistry.counter(LIMIT_EXCEEDED_METRIC, "municipalityId", MUNICIPALITY_ID, "limit", limit).count()).isOne();
+	}
+
+	@Test
+	void readBytesWhenLimitIsExceeded() {
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> payloadLimits.read(RESTRICTED_MUNICIPALITY_ID, "[[]]".getBytes(UTF_8)));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Request body exceeds the payload limits: objects and arrays are nested deeper than 1 levels");
+		assertThat(meterRegistry.counter(LIMIT_EXCEEDED_METRIC, "municipalityId", RESTRICTED_MUNICIPALITY_ID, "limit", "depth").count()).isOne();
+	}
+
+	@Test
+	void readChecked() throws Exception {
+
+		// Arrange
+		final var json = "{\"a\": 1}".getBytes(UTF_8);
+
+		// Act
+		final var body = payloadLimits.readChecked(RESTRICTED_MUNICIPALITY_ID, new ByteArrayInputStream(json));
+
+		// Assert
+		assertThat(body).isEqualTo(json);
+	}
+
+	@Test
+	void readCheckedWithInvalidJson() throws Exception {
+
+		// Arrange – syntax errors are left to the parser that binds the body
+		final var json = "{\"a\": ".getBytes(UTF_8);
+
+		// Act
+		final var body = payloadLimits.readChecked(RESTRICTED_MUNICIPALITY_ID, new ByteArrayInputStream(json));
+
+		// Assert
+		assertThat(body).isEqualTo(json);
+	}
+
+	@Test
+	void readCheckedWhenLimitIsExceeded() {
+
+		// Arrange
+		final var input = new ByteArrayInputStream("{\"a\": 1, \"b\": 2}".getBytes(UTF_8));
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> payloadLimits.readChecked(RESTRICTED_MUNICIPALITY_ID, input));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Request body exceeds the payload limits: the document is larger than 10 bytes");
+		assertThat(meterRegistry.counter(LIMIT_EXCEEDED_METRIC, "municipalityId", RESTRICTED_MUNICIPALITY_ID, "limit", "size").count()).isOne();
+	}
+
+	@Test
+	void maximumSize() {
+		assertThat(payloadLimits.maximumSize(MUNICIPALITY_ID)).isEqualTo(1024);
+		assertThat(payloadLimits.maximumSize(RESTRICTED_MUNICIPALITY_ID)).isEqualTo(10);
+	}
+
+	private static Stream<Arguments> exceedingPayloads() {
+		return Stream.of(
+			Arguments.of("[\"" + "x".repeat(2000) + "\"]", "size", "the document is larger than 1024 bytes"),
+			Arguments.of("[".repeat(11) + "]".repeat(11), "depth", "objects and arrays are nested deeper than 10 levels"),
+			Arguments.of("[\"" + "x".repeat(101) + "\"]", "string_length", "a string, property name or number is longer than 100 characters"),
+			Arguments.of("{\"" + "x".repeat(101) + "\": 1}", "string_length", "a string, property name or number is longer than 100 characters"),
+			Arguments.of(IntStream.range(0, 11).mapToObj("\"p%d\": 1"::formatted).collect(joining(",", "{", "}")), "properties", "an object has more than 10 properties"));
+	}
+}
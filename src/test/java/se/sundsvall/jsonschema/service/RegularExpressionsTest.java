@@ -0,0 +1,75 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.google.re2j.PatternSyntaxException;
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import se.sundsvall.jsonschema.configuration.JsonSchemaCacheProperties;
+import se.sundsvall.jsonschema.service.keyword.SchemaRegistries;
+
+class RegularExpressionsTest {
+
+	private static final String SCHEMA = """
+		{
+		  "properties": {
+		    "name": { "type": "string", "pattern": "^(a+)+$" },
+		    "pattern": { "const": { "pattern": "(?=ignored)" } },
+		    "code": { "pattern": "^(\\\\d)\\\\1$" }
+		  },
+		  "patternProperties": { "^(?!x-)": { "type": "string" }, "^y-": true }
+		}
+		""";
+
+	@Test
+	void linearEngineMatchesInLinearTime() {
+
+		// Arrange
+		final var factory = createRegularExpressions(JsonSchemaCacheProperties.RegexEngine.LINEAR).factory();
+		final var schema = SchemaRegistries.draft202012(factory).getSchema("{ \"pattern\": \"^(a+)+$\" }");
+
+		// Act
+		final var errors = schema.validate(toInstanceNode(("\"" + "a".repeat(10_000) + "!\"").getBytes(UTF_8)));
+
+		// Assert
+		assertThat(errors).hasSize(1);
+		assertThat(factory.getRegularExpression("^(a+)+$")).isSameAs(factory.getRegularExpression("^(a+)+$"));
+		assertThat(factory.getRegularExpression("b").matches("abc")).isTrue();
+		assertThatExceptionOfType(PatternSyntaxException.class).isThrownBy(() -> factory.getRegularExpression("(?=a)"));
+	}
+
+	@Test
+	void findUnsupportedPatternsWithLinearEngine() {
+
+		// Act
+		final var unsupported = createRegularExpressions(JsonSchemaCacheProperties.RegexEngine.LINEAR).findUnsupportedPatterns(toInstanceNode(SCHEMA.getBytes(UTF_8)));
+
+		// Assert – values of const are not patterns
+		assertThat(unsupported).containsExactlyInAnyOrder(
+			"/properties/code/pattern: pattern '^(\\d)\\1$' is not supported by the linear regular expression engine",
+			"/patternProperties: pattern '^(?!x-)' is not supported by the linear regular expression engine");
+	}
+
+	@Test
+	void findUnsupportedPatternsWithJdkEngine() {
+
+		// Act
+		final var unsupported = createRegularExpressions(JsonSchemaCacheProperties.RegexEngine.JDK).findUnsupportedPatterns(toInstanceNode(SCHEMA.getBytes(UTF_8)));
+
+		// Assert
+		assertThat(unsupported).isEmpty();
+	}
+
+	private static RegularExpressions createRegularExpressions(JsonSchemaCacheProperties.RegexEngine engine) {
+		return new RegularExpressions(new JsonSchemaCacheProperties(DataSize.ofMegabytes(64), Duration.ofDays(7), Set.of(), Duration.ofSeconds(30),
+			new JsonSchemaCacheProperties.Compilation(false, 2, Duration.ofSeconds(5)),
+			new JsonSchemaCacheProperties.Warmup(false, 0, Duration.ZERO, 1, new JsonSchemaCacheProperties.ValidationWarmup(false, 0, Duration.ZERO)),
+			new JsonSchemaCacheProperties.Optimization(true),
+			new JsonSchemaCacheProperties.Regex(engine, 100)));
+	}
+}
@@ -0,0 +1,81 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import org.junit.jupiter.api.Test;
+
+class SchemaAnalyzerTest {
+
+	@Test
+	void requiresAnnotationCollectionWithoutDependentKeywords() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "$defs": { "name": { "type": "string" } },
+			  "type": "object",
+			  "properties": {
+			    "name": { "$ref": "#/$defs/name" },
+			    "tags": { "type": "array", "items": { "type": "string" } }
+			  },
+			  "additionalProperties": false
+			}
+			""";
+
+		// Act & Assert
+		assertThat(SchemaAnalyzer.requiresAnnotationCollection(toInstanceNode(schema.getBytes(UTF_8)))).isFalse();
+	}
+
+	@Test
+	void requiresAnnotationCollectionWithUnevaluatedProperties() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "type": "object",
+			  "allOf": [ { "properties": { "name": { "type": "string" } } } ],
+			  "unevaluatedProperties": false
+			}
+			""";
+
+		// Act & Assert
+		assertThat(SchemaAnalyzer.requiresAnnotationCollection(toInstanceNode(schema.getBytes(UTF_8)))).isTrue();
+	}
+
+	@Test
+	void requiresAnnotationCollectionWithNestedUnevaluatedItems() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "type": "object",
+			  "properties": {
+			    "tags": { "type": "array", "prefixItems": [ { "type": "string" } ], "unevaluatedItems": false }
+			  }
+			}
+			""";
+
+		// Act & Assert
+		assertThat(SchemaAnalyzer.requiresAnnotationCollection(toInstanceNode(schema.getBytes(UTF_8)))).isTrue();
+	}
+
+	@Test
+	void requiresAnnotationCollectionWithExternalReference() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "type": "object",
+			  "properties": {
+			    "address": { "$ref": "https://example.com/schemas/address.json" }
+			  }
+			}
+			""";
+
+		// Act & Assert
+		assertThat(SchemaAnalyzer.requiresAnnotationCollection(toInstanceNode(schema.getBytes(UTF_8)))).isTrue();
+	}
+}
@@ -0,0 +1,166 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.zalando.problem.Status.UNPROCESSABLE_ENTITY;
+import static se.sundsvall.jsonschema.service.ValidationBudgets.EXHAUSTED_METRIC;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.Schema;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zalando.problem.ThrowableProblem;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import se.sundsvall.jsonschema.service.compiler.SchemaCompiler;
+import se.sundsvall.jsonschema.service.keyword.SchemaRegistries;
+import tools.jackson.databind.JsonNode;
+
+class ValidationBudgetsTest {
+
+	private static final String SCHEMA_ID = "schema1";
+	private static final Schema RECURSIVE_SCHEMA = SchemaRegistries.draft202012().getSchema("{ \"items\": { \"$ref\": \"#\" } }");
+	private static final JsonNode NESTED_ARRAYS = toInstanceNode(("[".repeat(100) + "]".repeat(100)).getBytes(UTF_8));
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void runWithinBudget() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 1000, 1000, Duration.ofSeconds(5));
+
+		// Act
+		final var errors = budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS));
+
+		// Assert
+		assertThat(errors).isEmpty();
+		assertThat(meterRegistry.find(EXHAUSTED_METRIC).counters()).isEmpty();
+	}
+
+	@Test
+	void runWhenEvaluationsAreExhausted() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 10, 1000, Duration.ofSeconds(5));
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS)));
+
+		// Assert
+		assertThat(exception.getStatus()).isEqualTo(UNPROCESSABLE_ENTITY);
+		assertThat(exception.getMessage()).isEqualTo("Unprocessable Entity: Validation against JsonSchema with ID 'schema1' was aborted: the maximum of 10 keyword evaluations was exceeded");
+		assertThat(count("evaluations")).isOne();
+	}
+
+	@Test
+	void runWhenDepthIsExhausted() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 1000, 20, Duration.ofSeconds(5));
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS)));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Validation against JsonSchema with ID 'schema1' was aborted: the maximum evaluation depth of 20 was exceeded");
+		assertThat(count("depth")).isOne();
+	}
+
+	@Test
+	void runSpecializedValidatorWhenEvaluationsAreExhausted() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 10, 1000, Duration.ofSeconds(5));
+		final var validator = SchemaCompiler.compile(toInstanceNode("{ \"anyOf\": [ { \"items\": { \"$ref\": \"#\" } }, { \"items\": { \"$ref\": \"#\" } } ] }".getBytes(UTF_8))).orElseThrow();
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> validator.validate(NESTED_ARRAYS)));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Validation against JsonSchema with ID 'schema1' was aborted: the maximum of 10 keyword evaluations was exceeded");
+		assertThat(count("evaluations")).isOne();
+	}
+
+	@Test
+	void runSpecializedValidatorWhenDepthIsExhausted() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 1000, 20, Duration.ofSeconds(5));
+		final var validator = SchemaCompiler.compile(RECURSIVE_SCHEMA.getSchemaNode()).orElseThrow();
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> validator.validate(NESTED_ARRAYS)));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Validation against JsonSchema with ID 'schema1' was aborted: the maximum evaluation depth of 20 was exceeded");
+		assertThat(count("depth")).isOne();
+	}
+
+	@Test
+	void runWhenDeadlineHasPassed() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 1000, 1000, Duration.ZERO);
+
+		// Act
+		final var exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS)));
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Validation against JsonSchema with ID 'schema1' was aborted: the time limit of 0 ms was exceeded");
+		assertThat(count("deadline")).isOne();
+	}
+
+	@Test
+	void runWhenThreadIsInterrupted() {
+
+		// Arrange
+		final var budgets = createBudgets(true, 1000, 1000, Duration.ofSeconds(5));
+
+		// Act
+		Thread.currentThread().interrupt();
+		final ThrowableProblem exception;
+		try {
+			exception = assertThrows(ThrowableProblem.class, () -> budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS)));
+		} finally {
+			Thread.interrupted();
+		}
+
+		// Assert
+		assertThat(exception.getDetail()).isEqualTo("Validation against JsonSchema with ID 'schema1' was aborted: the validation was cancelled");
+		assertThat(count("cancelled")).isOne();
+	}
+
+	@Test
+	void runWhenDisabled() {
+
+		// Arrange
+		final var budgets = createBudgets(false, 1, 1, Duration.ZERO);
+
+		// Act
+		final var errors = budgets.run(SCHEMA_ID, () -> RECURSIVE_SCHEMA.validate(NESTED_ARRAYS));
+
+		// Assert
+		assertThat(errors).isEmpty();
+	}
+
+	private ValidationBudgets createBudgets(boolean enabled, long maximumEvaluations, int maximumDepth, Duration timeout) {
+		final var properties = new JsonSchemaValidationProperties(new JsonSchemaValidationProperties.Batch(1000),
+			new JsonSchemaValidationProperties.Parallel(false, 1, 0),
+			new JsonSchemaValidationProperties.ResultCache(false, 0, Duration.ZERO),
+			new JsonSchemaValidationProperties.Specialization(false, 1),
+			new JsonSchemaValidationProperties.Budget(enabled, maximumEvaluations, maximumDepth, timeout));
+		return new ValidationBudgets(properties, meterRegistry);
+	}
+
+	private double count(String reason) {
+		return meterRegistry.counter(EXHAUSTED_METRIC, "schemaId", SCHEMA_ID, "reason", reason).count();
+	}
+}
@@ -0,0 +1,255 @@
+package se.sundsvall.jsonschema.service;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FLAG;
+import static se.sundsvall.jsonschema.api.model.OutputMode.FULL;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.jsonschema.api.model.ValidationResult;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import tools.jackson.databind.JsonNode;
+
+class ValidationResultCacheTest {
+
+	private static final ValidationResult RESULT = ValidationResult.create().withValid(true).withViolations(List.of());
+
+	private SimpleMeterRegistry meterRegistry;
+	private AtomicInteger evaluations;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+		evaluations = new AtomicInteger();
+	}
+
+	@Test
+	void getShouldReuseResultForCanonicallyEqualDocuments() {
+
+		// Arrange
+		final var cache = createCache(true);
+
+		// Act
+		final var result1 = cache.get("schema1", FULL, node("{\"a\": 1, \"b\": [true, null]}"), this::evaluate);
+		final var result2 = cache.get("schema1", FULL, node("{ \"b\" : [ true, null ],\n \"a\" : 1 }"), this::evaluate);
+
+		// Assert – formatting and property order do not matter
+		assertThat(result1).isSameAs(result2).isSameAs(RESULT);
+		assertThat(evaluations).hasValue(1);
+		assertThat(count("hit")).isOne();
+		assertThat(count("miss")).isOne();
+	}
+
+	@Test
+	void getShouldKeepResultsApartPerSchemaOutputModeAndDocument() {
+
+		// Arrange
+		final var cache = createCache(true);
+
+		// Act
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema2", FULL, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema1", FLAG, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema1", FULL, node("{\"a\": 2}"), this::evaluate);
+
+		// Assert
+		assertThat(evaluations).hasValue(4);
+		assertThat(count("miss")).isEqualTo(4);
+	}
+
+	@Test
+	void getShouldKeepResultsApartForDocumentsWithEqualHashes() {
+
+		// Arrange
+		final var cache = createCache(true);
+		final var document1 = node("{\"a\": \"Aa\"}");
+		final var document2 = node("{\"a\": \"BB\"}");
+
+		// Act
+		cache.get("schema1", FULL, document1, this::evaluate);
+		cache.get("schema1", FULL, document2, this::evaluate);
+
+		// Assert – the hashes collide, the documents are told apart by comparing them
+		assertThat(document1.hashCode()).isEqualTo(document2.hashCode());
+		assertThat(evaluations).hasValue(2);
+		assertThat(count("hit")).isZero();
+	}
+
+	@Test
+	void getShouldAlwaysEvaluateWhenDisabled() {
+
+		// Arrange
+		final var cache = createCache(false);
+
+		// Act
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+
+		// Assert
+		assertThat(evaluations).hasValue(2);
+		assertThat(count("miss")).isZero();
+	}
+
+	@Test
+	void getShouldShareOneEvaluationBetweenConcurrentCallers() throws Exception {
+
+		// Arrange
+		final var cache = createCache(true);
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final Supplier<ValidationResult> slowEvaluation = () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return evaluate();
+		};
+
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var first = executor.submit(() -> cache.get("schema1", FULL, node("{\"a\": 1}"), slowEvaluation));
+			started.await();
+			final var second = executor.submit(() -> cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate));
+
+			// Act
+			release.countDown();
+
+			// Assert
+			assertThat(first.get()).isSameAs(second.get());
+		}
+		assertThat(evaluations).hasValue(1);
+	}
+
+	@Test
+	void getShouldNotCacheFailures() {
+
+		// Arrange
+		final var cache = createCache(true);
+
+		// Act
+		assertThrows(IllegalStateException.class, () -> cache.get("schema1", FULL, node("{\"a\": 1}"), () -> {
+			throw new IllegalStateException("Failure");
+		}));
+		final var result = cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+
+		// Assert
+		assertThat(result).isSameAs(RESULT);
+		assertThat(evaluations).hasValue(1);
+	}
+
+	@Test
+	void getShouldReevaluateForWaitersWhenSharedEvaluationFails() throws Exception {
+
+		// Arrange
+		final var cache = createCache(true);
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final Supplier<ValidationResult> failingEvaluation = () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			throw new IllegalStateException("Budget exhausted");
+		};
+
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var first = executor.submit(() -> cache.get("schema1", FULL, node("{\"a\": 1}"), failingEvaluation));
+			started.await();
+			final var second = executor.submit(() -> cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate));
+
+			// Act
+			release.countDown();
+
+			// Assert – the failure is not shared with the waiting caller
+			assertThat(assertThrows(ExecutionException.class, first::get)).hasCauseInstanceOf(IllegalStateException.class);
+			assertThat(second.get()).isSameAs(RESULT);
+		}
+		assertThat(evaluations).hasValue(1);
+	}
+
+	@Test
+	void onEvictedShouldNotLetInFlightResultBeReused() throws Exception {
+
+		// Arrange
+		final var cache = createCache(true);
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final Supplier<ValidationResult> slowEvaluation = () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (final InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return evaluate();
+		};
+
+		try (final var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			final var first = executor.submit(() -> cache.get("schema1", FULL, node("{\"a\": 1}"), slowEvaluation));
+			started.await();
+
+			// Act
+			cache.onEvicted(new JsonSchemaEvictedEvent("schema1"));
+			release.countDown();
+			first.get();
+		}
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+
+		// Assert – the result of the evaluation against the evicted schema is not reused
+		assertThat(evaluations).hasValue(2);
+	}
+
+	@Test
+	void onEvictedShouldDiscardResultsOfEvictedSchema() {
+
+		// Arrange
+		final var cache = createCache(true);
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema2", FULL, node("{\"a\": 1}"), this::evaluate);
+
+		// Act
+		cache.onEvicted(new JsonSchemaEvictedEvent("schema1"));
+		cache.get("schema1", FULL, node("{\"a\": 1}"), this::evaluate);
+		cache.get("schema2", FULL, node("{\"a\": 1}"), this::evaluate);
+
+		// Assert – only the evicted schema is evaluated again
+		assertThat(evaluations).hasValue(3);
+	}
+
+	private ValidationResult evaluate() {
+		evaluations.incrementAndGet();
+		return RESULT;
+	}
+
+	private double count(String result) {
+		return meterRegistry.counter(ValidationResultCache.RESULT_CACHE_METRIC, "result", result).count();
+	}
+
+	private ValidationResultCache createCache(boolean enabled) {
+		final var properties = new JsonSchemaValidationProperties(new JsonSchemaValidationProperties.Batch(1000),
+			new JsonSchemaValidationProperties.Parallel(false, 1, 0),
+			new JsonSchemaValidationProperties.ResultCache(enabled, 100, Duration.ofMinutes(10)),
+			new JsonSchemaValidationProperties.Specialization(false, 1),
+			new JsonSchemaValidationProperties.Budget(true, 1000000, 1000, Duration.ofSeconds(5)));
+
+		return new ValidationResultCache(properties, meterRegistry);
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,108 @@
+package se.sundsvall.jsonschema.service;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.Schema;
+import com.networknt.schema.SchemaRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import se.sundsvall.jsonschema.configuration.JsonSchemaValidationProperties;
+import se.sundsvall.jsonschema.service.compiler.Verdict;
+
+class ValidatorTieringTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+	private static final String SCHEMA = """
+		{ "type": "object", "required": ["name"] }
+		""";
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	void setup() {
+		meterRegistry = new SimpleMeterRegistry();
+	}
+
+	@Test
+	void getSpecializedValidatorAfterPromotionThreshold() {
+
+		// Arrange
+		final var tiering = createTiering(true, 3);
+		final var compiled = compiledSchema("schema1", SCHEMA);
+
+		// Act
+		final var beforeThreshold = IntStream.range(0, 2).mapToObj(_ -> tiering.getSpecializedValidator(compiled)).toList();
+		final var promoted = tiering.getSpecializedValidator(compiled);
+		final var afterThreshold = tiering.getSpecializedValidator(compiled);
+
+		// Assert
+		assertThat(beforeThreshold).allMatch(Optional::isEmpty);
+		assertThat(promoted).isPresent().isSameAs(afterThreshold);
+		assertThat(promoted.orElseThrow().validate(toInstanceNode("{\"name\": 1}".getBytes(UTF_8)))).isEqualTo(Verdict.VALID);
+		assertThat(promoted.orElseThrow().validate(toInstanceNode("{}".getBytes(UTF_8)))).isEqualTo(Verdict.INVALID);
+		assertThat(promotions("specialized")).isOne();
+	}
+
+	@Test
+	void getSpecializedValidatorForUnsupportedDialect() {
+
+		// Arrange
+		final var tiering = createTiering(true, 1);
+		final var schema = mock(Schema.class);
+		when(schema.getSchemaNode()).thenReturn(toInstanceNode("""
+			{ "$schema": "http://json-schema.org/draft-07/schema#", "type": "object" }
+			""".getBytes(UTF_8)));
+		final var compiled = new CompiledSchema("schema1", schema, null, false, 0, null, Duration.ZERO);
+
+		// Act
+		final var validator1 = tiering.getSpecializedValidator(compiled);
+		final var validator2 = tiering.getSpecializedValidator(compiled);
+
+		// Assert – the schema stays with the interpreter, and is only compiled once
+		assertThat(validator1).isEmpty();
+		assertThat(validator2).isEmpty();
+		assertThat(promotions("interpreted")).isOne();
+	}
+
+	@Test
+	void getSpecializedValidatorWhenDisabled() {
+
+		// Arrange
+		final var tiering = createTiering(false, 1);
+		final var compiled = compiledSchema("schema1", SCHEMA);
+
+		// Act
+		final var validator = tiering.getSpecializedValidator(compiled);
+
+		// Assert
+		assertThat(validator).isEmpty();
+		assertThat(meterRegistry.find(ValidatorTiering.PROMOTIONS_METRIC).counter()).isNull();
+	}
+
+	private double promotions(String outcome) {
+		return meterRegistry.counter(ValidatorTiering.PROMOTIONS_METRIC, "outcome", outcome).count();
+	}
+
+	private ValidatorTiering createTiering(boolean enabled, long promotionThreshold) {
+		final var properties = new JsonSchemaValidationProperties(new JsonSchemaValidationProperties.Batch(1000),
+			new JsonSchemaValidationProperties.Parallel(false, 1, 0),
+			new JsonSchemaValidationProperties.ResultCache(false, 0, Duration.ZERO),
+			new JsonSchemaValidationProperties.Specialization(enabled, promotionThreshold),
+			new JsonSchemaValidationProperties.Budget(true, 1000000, 1000, Duration.ofSeconds(5)));
+
+		return new ValidatorTiering(properties, meterRegistry);
+	}
+
+	private static CompiledSchema compiledSchema(String id, String value) {
+		return new CompiledSchema(id, REGISTRY.getSchema(value), null, false, value.length(), null, Duration.ZERO);
+	}
+}
@@ -0,0 +1,98 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.SchemaRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+import tools.jackson.databind.JsonNode;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class SampleInstanceGeneratorTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+
+	@Test
+	void generateProductSample(@Load("files/jsonschema/valid_schema.json") final String schema) {
+
+		// Act
+		final var sample = SampleInstanceGenerator.generate(node(schema));
+
+		// Assert
+		assertThat(sample.propertyNames()).containsExactlyInAnyOrder("productId", "productName", "price", "tags");
+		assertThat(REGISTRY.getSchema(schema).validate(sample)).isEmpty();
+	}
+
+	@Test
+	void generateDiscriminatedSample(@Load("files/jsonschema/discriminated_schema.json") final String schema) {
+
+		// Act
+		final var sample = SampleInstanceGenerator.generate(node(schema));
+
+		// Assert – the first branch of each oneOf and anyOf is used, following references
+		assertThat(sample.at("/case/type").asString()).isEqualTo("PARKING");
+		assertThat(sample.at("/contacts/0/kind").asString()).isEqualTo("EMAIL");
+		assertThat(REGISTRY.getSchema(schema).validate(sample)).isEmpty();
+	}
+
+	@Test
+	void generateFromBoundsAndFormats() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "properties": {
+			    "code": { "type": "string", "minLength": 3, "maxLength": 3 },
+			    "created": { "type": "string", "format": "date-time" },
+			    "count": { "type": "integer", "minimum": 5 },
+			    "ratio": { "type": "number", "maximum": 1 },
+			    "items": { "type": "array", "items": { "type": "boolean" }, "minItems": 2 }
+			  },
+			  "required": ["code", "undeclared"]
+			}
+			""";
+
+		// Act
+		final var sample = SampleInstanceGenerator.generate(node(schema));
+
+		// Assert
+		assertThat(sample.get("code").asString()).isEqualTo("xxx");
+		assertThat(sample.get("created").asString()).isEqualTo("2025-01-01T00:00:00Z");
+		assertThat(sample.get("count").longValue()).isEqualTo(5);
+		assertThat(sample.get("ratio").doubleValue()).isEqualTo(1.0);
+		assertThat(sample.get("items")).hasSize(2).allMatch(JsonNode::isBoolean);
+		assertThat(sample.get("undeclared").asString()).isEqualTo("value");
+	}
+
+	@Test
+	void generateRecursiveSample() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "properties": {
+			    "child": { "$ref": "#" }
+			  }
+			}
+			""";
+
+		// Act
+		final var sample = SampleInstanceGenerator.generate(node(schema));
+
+		// Assert – the generation ends at the depth limit
+		assertThat(sample.has("child")).isTrue();
+		assertThat(REGISTRY.getSchema(schema).validate(sample)).isNotEmpty();
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,201 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.compiler.Verdict.INVALID;
+import static se.sundsvall.jsonschema.service.compiler.Verdict.UNKNOWN;
+import static se.sundsvall.jsonschema.service.compiler.Verdict.VALID;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.SchemaRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+import tools.jackson.databind.JsonNode;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class SchemaCompilerTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+
+	@Test
+	void compileProductSchema(@Load("files/jsonschema/valid_schema.json") final String schema, @Load("files/jsonschema/valid_json.json") final String validJson,
+		@Load("files/jsonschema/invalid_json_missing_all_properties.json") final String missingProperties,
+		@Load("files/jsonschema/invalid_json_bad_datatype_on_property.json") final String badDatatype) {
+
+		// Act
+		final var validator = SchemaCompiler.compile(node(schema)).orElseThrow();
+
+		// Assert – uniqueItems is left to the interpreter
+		assertVerdict(schema, validator, validJson, UNKNOWN);
+		assertVerdict(schema, validator, missingProperties, INVALID);
+		assertVerdict(schema, validator, badDatatype, INVALID);
+		assertVerdict(schema, validator, """
+			{ "productId": 1, "productName": "Pen", "price": 1.5 }
+			""", VALID);
+		assertVerdict(schema, validator, """
+			{ "productId": 1, "productName": "Pen", "price": 0 }
+			""", INVALID);
+		assertVerdict(schema, validator, """
+			{ "productId": 1.0, "productName": "Pen", "price": 1 }
+			""", UNKNOWN);
+	}
+
+	@Test
+	void compileObjectKeywords() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "properties": {
+			    "name": { "type": "string", "minLength": 2, "maxLength": 4 },
+			    "kind": { "enum": ["a", "b", null] }
+			  },
+			  "additionalProperties": { "type": "boolean" },
+			  "minProperties": 1,
+			  "maxProperties": 3
+			}
+			""";
+
+		// Act
+		final var validator = SchemaCompiler.compile(node(schema)).orElseThrow();
+
+		// Assert
+		assertVerdict(schema, validator, "{ \"name\": \"ab\", \"kind\": null }", VALID);
+		assertVerdict(schema, validator, "{ \"name\": \"😀😀\" }", VALID);
+		assertVerdict(schema, validator, "{ \"name\": \"a\" }", INVALID);
+		assertVerdict(schema, validator, "{ \"name\": \"abcde\" }", INVALID);
+		assertVerdict(schema, validator, "{ \"kind\": \"c\" }", INVALID);
+		assertVerdict(schema, validator, "{ \"extra\": true }", VALID);
+		assertVerdict(schema, validator, "{ \"extra\": 1 }", INVALID);
+		assertVerdict(schema, validator, "{}", INVALID);
+		assertVerdict(schema, validator, "{ \"a\": true, \"b\": true, \"c\": true, \"d\": true }", INVALID);
+		assertVerdict(schema, validator, "[]", INVALID);
+	}
+
+	@Test
+	void compileApplicatorsAndReferences() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "$defs": {
+			    "node": {
+			      "type": "object",
+			      "properties": { "children": { "type": "array", "items": { "$ref": "#/$defs/node" }, "maxItems": 2 } }
+			    }
+			  },
+			  "oneOf": [ { "$ref": "#/$defs/node" }, { "type": "integer", "minimum": 10 } ],
+			  "not": { "const": 42 },
+			  "if": { "type": "integer" },
+			  "then": { "maximum": 100 },
+			  "else": { "required": ["children"] }
+			}
+			""";
+
+		// Act
+		final var validator = SchemaCompiler.compile(node(schema)).orElseThrow();
+
+		// Assert
+		assertVerdict(schema, validator, "{ \"children\": [ { \"children\": [] }, {} ] }", VALID);
+		assertVerdict(schema, validator, "{ \"children\": [ { \"children\": [ {}, {}, {} ] } ] }", INVALID);
+		assertVerdict(schema, validator, "{}", INVALID);
+		assertVerdict(schema, validator, "50", VALID);
+		assertVerdict(schema, validator, "5", INVALID);
+		assertVerdict(schema, validator, "500", INVALID);
+		assertVerdict(schema, validator, "42", INVALID);
+		assertVerdict(schema, validator, "\"text\"", INVALID);
+	}
+
+	@Test
+	void compileNonDescendingReferenceCycles() {
+
+		// Arrange
+		final var rootCycle = "{ \"$ref\": \"#\" }";
+		final var definitionCycle = """
+			{
+			  "$defs": {
+			    "a": { "anyOf": [ { "$ref": "#/$defs/b" } ] },
+			    "b": { "$ref": "#/$defs/a" }
+			  },
+			  "properties": { "child": { "$ref": "#/$defs/a" } }
+			}
+			""";
+
+		// Act
+		final var rootValidator = SchemaCompiler.compile(node(rootCycle)).orElseThrow();
+		final var definitionValidator = SchemaCompiler.compile(node(definitionCycle)).orElseThrow();
+
+		// Assert – the cycles are left to the interpreter instead of recursing endlessly
+		assertThat(rootValidator.validate(node("1"))).isEqualTo(UNKNOWN);
+		assertThat(definitionValidator.validate(node("{ \"child\": 1 }"))).isEqualTo(UNKNOWN);
+		assertThat(definitionValidator.validate(node("{ \"other\": 1 }"))).isEqualTo(VALID);
+	}
+
+	@Test
+	void compileInfiniteNumbers() {
+
+		// Arrange
+		final var integerSchema = "{ \"type\": \"integer\", \"minimum\": 0 }";
+		final var infiniteBoundSchema = "{ \"maximum\": 1e400, \"enum\": [ 1, 1e400 ] }";
+
+		// Act
+		final var integerValidator = SchemaCompiler.compile(node(integerSchema)).orElseThrow();
+		final var infiniteBoundValidator = SchemaCompiler.compile(node(infiniteBoundSchema)).orElseThrow();
+
+		// Assert – numbers out of the range of a double have no decimal value, and are left to the interpreter
+		assertThat(integerValidator.validate(node("1e400"))).isEqualTo(UNKNOWN);
+		assertThat(integerValidator.validate(node("-1e400"))).isEqualTo(UNKNOWN);
+		assertThat(infiniteBoundValidator.validate(node("1"))).isEqualTo(UNKNOWN);
+	}
+
+	@Test
+	void compileUnsupportedKeywords() {
+
+		// Arrange
+		final var schema = """
+			{
+			  "type": "object",
+			  "properties": { "email": { "type": "string", "format": "email" } },
+			  "required": ["email"]
+			}
+			""";
+
+		// Act
+		final var validator = SchemaCompiler.compile(node(schema)).orElseThrow();
+
+		// Assert – the interpreter decides wherever an unsupported keyword is reached
+		assertVerdict(schema, validator, "{ \"email\": \"joe@example.com\" }", UNKNOWN);
+		assertVerdict(schema, validator, "{ \"email\": 1 }", INVALID);
+		assertVerdict(schema, validator, "{}", INVALID);
+	}
+
+	@Test
+	void compileOtherDialect() {
+
+		// Act & Assert
+		assertThat(SchemaCompiler.compile(node("{ \"$schema\": \"http://json-schema.org/draft-07/schema#\", \"type\": \"object\" }"))).isEmpty();
+		assertThat(SchemaCompiler.compile(node("\"not a schema\""))).isEmpty();
+	}
+
+	/**
+	 * Asserts the verdict, and that any definite verdict agrees with the interpreter.
+	 */
+	private static void assertVerdict(String schema, SpecializedValidator validator, String json, Verdict expected) {
+		final var verdict = validator.validate(node(json));
+
+		assertThat(verdict).as(json).isEqualTo(expected);
+		if (verdict != UNKNOWN) {
+			final var errors = REGISTRY.getSchema(schema).validate(node(json), executionContext -> executionContext.executionConfig(config -> config.formatAssertionsEnabled(true)));
+			assertThat(errors.isEmpty()).as(json).isEqualTo(verdict == VALID);
+		}
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,205 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+
+class SchemaComplexityAnalyzerTest {
+
+	@Test
+	void analyzeSimpleSchema() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "type": "object",
+			  "properties": {
+			    "firstName": { "type": "string" },
+			    "lastName": { "type": "string", "maxLength": 64 }
+			  }
+			}
+			""");
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(schema);
+
+		// Assert
+		assertThat(complexity).isEqualTo(new SchemaComplexity(3, 2, 0, false, 6));
+	}
+
+	@Test
+	void analyzeFollowsReferenceChains() {
+
+		// Arrange – d0 refers to d1, which refers to d2 and so on, and one definition is never referenced
+		final var definitions = IntStream.range(0, 49)
+			.mapToObj(index -> "\"d%d\": { \"$ref\": \"#/$defs/d%d\" }".formatted(index, index + 1))
+			.collect(Collectors.joining(", "));
+		final var schema = node("""
+			{
+			  "$ref": "#/$defs/d0",
+			  "$defs": { %s, "d49": { "type": "string" }, "unused": { "type": "string" } }
+			}
+			""".formatted(definitions));
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(schema);
+
+		// Assert
+		assertThat(complexity).isEqualTo(new SchemaComplexity(52, 51, 0, false, 52));
+	}
+
+	@Test
+	void analyzeFollowsAnchorsAndReferencesByBaseUri() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "$id": "https://example.com/schema.json",
+			  "properties": {
+			    "a": { "$ref": "#node" },
+			    "b": { "$ref": "https://example.com/schema.json#/$defs/leaf" },
+			    "c": { "$ref": "other.json" }
+			  },
+			  "$defs": {
+			    "node": { "$anchor": "node", "type": "string" },
+			    "leaf": { "type": "integer" }
+			  }
+			}
+			""");
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(schema);
+
+		// Assert – the reference to another document is not followed
+		assertThat(complexity).isEqualTo(new SchemaComplexity(6, 3, 0, false, 9));
+	}
+
+	@Test
+	void analyzeDetectsRecursion() {
+
+		// Act
+		final var selfReference = SchemaComplexityAnalyzer.analyze(node("{ \"properties\": { \"children\": { \"items\": { \"$ref\": \"#\" } } } }"));
+		final var dynamicReference = SchemaComplexityAnalyzer.analyze(node("{ \"$dynamicAnchor\": \"node\", \"items\": { \"$dynamicRef\": \"#node\" } }"));
+		final var mutualReference = SchemaComplexityAnalyzer.analyze(node("""
+			{
+			  "$ref": "#/$defs/a",
+			  "$defs": { "a": { "items": { "$ref": "#/$defs/b" } }, "b": { "items": { "$ref": "#/$defs/a" } } }
+			}
+			"""));
+
+		// Assert
+		assertThat(selfReference.recursive()).isTrue();
+		assertThat(selfReference.maxDepth()).isEqualTo(3);
+		assertThat(dynamicReference.recursive()).isTrue();
+		assertThat(mutualReference.recursive()).isTrue();
+		assertThat(SchemaComplexityAnalyzer.analyze(node("{ \"items\": { \"type\": \"string\" } }")).recursive()).isFalse();
+	}
+
+	@Test
+	void analyzeEstimatesRecursionIndependentlyOfVisitOrder() {
+
+		// Arrange – the same mutually recursive definitions, entered through the properties in either order
+		final var schema = """
+			{
+			  "properties": { %s },
+			  "$defs": {
+			    "a": { "items": { "$ref": "#/$defs/b" } },
+			    "b": { "type": "array", "minItems": 1, "items": { "$ref": "#/$defs/a" } }
+			  }
+			}
+			""";
+		final var first = node(schema.formatted("\"x\": { \"$ref\": \"#/$defs/a\" }, \"y\": { \"$ref\": \"#/$defs/b\" }"));
+		final var second = node(schema.formatted("\"y\": { \"$ref\": \"#/$defs/b\" }, \"x\": { \"$ref\": \"#/$defs/a\" }"));
+
+		// Act
+		final var firstComplexity = SchemaComplexityAnalyzer.analyze(first);
+		final var secondComplexity = SchemaComplexityAnalyzer.analyze(second);
+
+		// Assert – each property passes the cycle once, wherever it enters it
+		assertThat(firstComplexity).isEqualTo(secondComplexity);
+		assertThat(firstComplexity.recursive()).isTrue();
+		assertThat(firstComplexity.estimatedEvaluations()).isEqualTo(16);
+	}
+
+	@Test
+	void analyzeSaturatesEstimatedEvaluationsOfCycleEnteredAlongManyPaths() {
+
+		// Arrange – every definition refers twice to the next one, and the last one refers back to the first
+		final var definitions = IntStream.range(0, 40)
+			.mapToObj(index -> "\"d%d\": { \"allOf\": [ { \"$ref\": \"#/$defs/d%d\" }, { \"$ref\": \"#/$defs/d%d\" } ] }".formatted(index, index + 1, index + 1))
+			.collect(Collectors.joining(", "));
+		final var schema = node("""
+			{
+			  "$ref": "#/$defs/d0",
+			  "$defs": { %s, "d40": { "$ref": "#/$defs/d0" } }
+			}
+			""".formatted(definitions));
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(schema);
+
+		// Assert
+		assertThat(complexity.estimatedEvaluations()).isEqualTo(Long.MAX_VALUE);
+		assertThat(complexity.recursive()).isTrue();
+	}
+
+	@Test
+	void analyzeMeasuresBranching() {
+
+		// Arrange
+		final var branches = IntStream.range(0, 10_000)
+			.mapToObj("{ \"const\": %d }"::formatted)
+			.collect(Collectors.joining(", "));
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(node("{ \"anyOf\": [ %s ], \"oneOf\": [ true, false ] }".formatted(branches)));
+
+		// Assert – boolean subschemas are not counted as nodes
+		assertThat(complexity.maxBranching()).isEqualTo(10_000);
+		assertThat(complexity.nodeCount()).isEqualTo(10_001);
+		assertThat(complexity.estimatedEvaluations()).isEqualTo(10_002);
+	}
+
+	@Test
+	void analyzeSaturatesEstimatedEvaluations() {
+
+		// Arrange – every definition refers twice to the previous one, doubling the number of evaluations
+		final var definitions = IntStream.range(1, 70)
+			.mapToObj(index -> "\"d%d\": { \"allOf\": [ { \"$ref\": \"#/$defs/d%d\" }, { \"$ref\": \"#/$defs/d%d\" } ] }".formatted(index, index - 1, index - 1))
+			.collect(Collectors.joining(", "));
+		final var schema = node("""
+			{
+			  "$ref": "#/$defs/d69",
+			  "$defs": { "d0": { "type": "string" }, %s }
+			}
+			""".formatted(definitions));
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(schema);
+
+		// Assert
+		assertThat(complexity.estimatedEvaluations()).isEqualTo(Long.MAX_VALUE);
+		assertThat(complexity.recursive()).isFalse();
+		assertThat(complexity.maxBranching()).isEqualTo(2);
+	}
+
+	@Test
+	void analyzeBooleanSchema() {
+
+		// Act
+		final var complexity = SchemaComplexityAnalyzer.analyze(node("true"));
+
+		// Assert
+		assertThat(complexity).isEqualTo(new SchemaComplexity(0, 0, 0, false, 1));
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,189 @@
+package se.sundsvall.jsonschema.service.compiler;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.SchemaRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+
+class SchemaOptimizerTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+
+	@Test
+	void optimizeFlattensAllOf() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "type": "object",
+			  "allOf": [
+			    { "allOf": [ { "required": ["a"] }, true ] },
+			    {}
+			  ]
+			}
+			""");
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert
+		assertThat(optimized.schema()).isEqualTo(node("{ \"type\": \"object\", \"required\": [\"a\"] }"));
+		assertThat(optimized.nodesBefore()).isGreaterThan(optimized.nodesAfter());
+		assertEquivalent(schema, optimized, "{ \"a\": 1 }", "{}", "[]");
+	}
+
+	@Test
+	void optimizeKeepsAllOfWithInteractingKeywords() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "properties": { "a": true },
+			  "allOf": [ { "additionalProperties": false } ]
+			}
+			""");
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert – merging would make "a" an allowed property
+		assertThat(optimized.schema()).isEqualTo(schema);
+		assertEquivalent(schema, optimized, "{ \"a\": 1 }", "{}");
+	}
+
+	@Test
+	void optimizeRemovesImpossibleBranchesAndConstantConditions() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "anyOf": [ false, { "type": "string" }, { "not": {} }, { "type": "integer" } ],
+			  "if": true,
+			  "then": { "minLength": 2 },
+			  "else": { "maxLength": 0 }
+			}
+			""");
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert
+		assertThat(optimized.schema()).isEqualTo(node("""
+			{
+			  "anyOf": [ { "type": "string" }, { "type": "integer" } ],
+			  "minLength": 2
+			}
+			"""));
+		assertEquivalent(schema, optimized, "\"ab\"", "\"a\"", "1", "true");
+	}
+
+	@Test
+	void optimizeDeduplicatesDefinitions() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "$defs": {
+			    "name": { "type": "string", "minLength": 1 },
+			    "title": { "type": "string", "minLength": 1 }
+			  },
+			  "properties": {
+			    "name": { "$ref": "#/$defs/name" },
+			    "title": { "$ref": "#/$defs/title" }
+			  }
+			}
+			""");
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert
+		assertThat(optimized.schema().at("/$defs").size()).isOne();
+		assertThat(optimized.schema().at("/properties/title/$ref").asString()).isEqualTo("#/$defs/name");
+		assertEquivalent(schema, optimized, "{ \"name\": \"a\", \"title\": \"b\" }", "{ \"title\": \"\" }", "{ \"title\": 1 }");
+	}
+
+	@Test
+	void optimizeHoistsRepeatedEnums() {
+
+		// Arrange
+		final var values = IntStream.range(0, 20).mapToObj(index -> "\"value" + index + "\"").collect(Collectors.joining(", ", "[", "]"));
+		final var schema = node("""
+			{
+			  "properties": {
+			    "from": { "enum": %s },
+			    "to": { "enum": %s }
+			  }
+			}
+			""".formatted(values, values));
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert
+		assertThat(optimized.schema().at("/$defs/enum-0/enum").size()).isEqualTo(20);
+		assertThat(optimized.schema().at("/properties/from/$ref").asString()).isEqualTo("#/$defs/enum-0");
+		assertThat(optimized.schema().at("/properties/to/$ref").asString()).isEqualTo("#/$defs/enum-0");
+		assertThat(optimized.nodesAfter()).isLessThan(optimized.nodesBefore());
+		assertEquivalent(schema, optimized, "{ \"from\": \"value1\", \"to\": \"value19\" }", "{ \"to\": \"value20\" }");
+	}
+
+	@Test
+	void optimizeLeavesReferencedSubschemas() {
+
+		// Arrange
+		final var schema = node("""
+			{
+			  "allOf": [ true, { "type": "object" } ],
+			  "properties": { "child": { "$ref": "#/allOf/1" } }
+			}
+			""");
+
+		// Act
+		final var optimized = SchemaOptimizer.optimize(schema);
+
+		// Assert
+		assertThat(optimized.schema()).isEqualTo(schema);
+	}
+
+	@Test
+	void optimizeUnsupportedSchemas() {
+
+		// Arrange
+		final var schemas = List.of(
+			node("{ \"$schema\": \"http://json-schema.org/draft-07/schema#\", \"allOf\": [ true ] }"),
+			node("{ \"allOf\": [ true ], \"$defs\": { \"other\": { \"$id\": \"other\" } } }"),
+			node("{ \"allOf\": [ true ], \"$ref\": \"other.json\" }"),
+			node("{ \"allOf\": [ true ], \"$dynamicRef\": \"#node\" }"),
+			node("true"));
+
+		// Act & Assert
+		schemas.forEach(schema -> {
+			final var optimized = SchemaOptimizer.optimize(schema);
+			assertThat(optimized.schema()).isSameAs(schema);
+			assertThat(optimized.nodesAfter()).isEqualTo(optimized.nodesBefore());
+		});
+	}
+
+	/**
+	 * Asserts that the original and the optimized schema agree on the validity of each document.
+	 */
+	private static void assertEquivalent(JsonNode schema, OptimizedSchema optimized, String... documents) {
+		final var original = REGISTRY.getSchema(schema);
+		final var rewritten = REGISTRY.getSchema(optimized.schema());
+		for (final var document : documents) {
+			assertThat(rewritten.validate(node(document)).isEmpty()).as(document).isEqualTo(original.validate(node(document)).isEmpty());
+		}
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,183 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.SchemaLocation;
+import com.networknt.schema.SchemaRegistry;
+import com.networknt.schema.dialect.DialectId;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import se.sundsvall.dept44.test.annotation.resource.Load;
+import se.sundsvall.dept44.test.extension.ResourceLoaderExtension;
+import tools.jackson.databind.JsonNode;
+
+@ExtendWith(ResourceLoaderExtension.class)
+class DiscriminatedKeywordTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistries.draft202012();
+	private static final SchemaRegistry STOCK_REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+
+	@Test
+	void oneOfAndAnyOfMatchFullEvaluation(@Load("files/jsonschema/discriminated_schema.json") final String schema) {
+
+		// Arrange
+		final var documents = List.of(
+			"{ \"case\": { \"type\": \"PARKING\", \"plate\": \"ABC123\" } }",
+			"{ \"case\": { \"type\": \"PARKING\", \"plate\": \"ABC123456\" } }",
+			"{ \"case\": { \"type\": \"PARKING\" } }",
+			"{ \"case\": { \"type\": \"BUILDING\", \"area\": 12.5 } }",
+			"{ \"case\": { \"type\": \"BUILDING\", \"area\": 0 } }",
+			"{ \"case\": { \"type\": \"NOISE\" } }",
+			"{ \"case\": { \"type\": \"NOISE\", \"legacyId\": 1 } }",
+			"{ \"case\": { \"type\": \"OTHER\", \"reference\": \"x\" } }",
+			"{ \"case\": { \"type\": \"UNKNOWN\", \"reference\": \"x\", \"legacyId\": 2 } }",
+			"{ \"case\": { \"type\": \"STRANGE\" } }",
+			"{ \"case\": { \"type\": \"STRANGE\", \"legacyId\": 3 } }",
+			"{ \"case\": { \"legacyId\": 4 } }",
+			"{ \"case\": { \"legacyId\": \"4\" } }",
+			"{ \"case\": {} }",
+			"{ \"case\": \"PARKING\" }",
+			"{ \"case\": [] }",
+			"{ \"case\": { \"type\": \"NOISE\" }, \"contacts\": [ { \"kind\": \"EMAIL\", \"email\": \"a@b.se\" }, { \"kind\": \"PHONE\", \"phone\": \"123\" } ] }",
+			"{ \"case\": { \"type\": \"NOISE\" }, \"contacts\": [ { \"kind\": \"EMAIL\", \"phone\": \"123\" } ] }",
+			"{ \"case\": { \"type\": \"NOISE\" }, \"contacts\": [ { \"kind\": \"FAX\" }, 1, \"text\" ] }");
+
+		// Act & Assert
+		documents.forEach(document -> assertSameOutcome(schema, document));
+	}
+
+	@Test
+	void oneOfReportsErrorsOfFullEvaluation(@Load("files/jsonschema/discriminated_schema.json") final String schema) {
+
+		// Arrange
+		final var document = node("{ \"case\": { \"type\": \"PARKING\", \"plate\": \"ABC123456\" } }");
+
+		// Act
+		final var errors = REGISTRY.getSchema(schema).validate(document);
+		final var stockErrors = STOCK_REGISTRY.getSchema(schema).validate(document);
+
+		// Assert – an instance the candidate branches reject is described by all branches
+		assertThat(errors).isNotEmpty().hasSameSizeAs(stockErrors);
+	}
+
+	@Test
+	void fixturesMatchFullEvaluation(@Load("files/jsonschema/discriminated_schema.json") final String discriminatedSchema,
+		@Load("files/jsonschema/valid_discriminated_json.json") final String validDiscriminatedJson,
+		@Load("files/jsonschema/invalid_discriminated_json.json") final String invalidDiscriminatedJson,
+		@Load("files/jsonschema/valid_schema.json") final String schema, @Load("files/jsonschema/valid_json.json") final String validJson,
+		@Load("files/jsonschema/invalid_json_misc_errors.json") final String miscErrors, @Load("files/jsonschema/invalid_json_non_unique_tags.json") final String nonUniqueTags,
+		@Load("files/jsonschema/invalid_schema_wrong_type1.json") final String wrongType1, @Load("files/jsonschema/invalid_schema_wrong_type2.json") final String wrongType2,
+		@Load("files/jsonschema/invalid_schema_wrong_type3.json") final String wrongType3) {
+
+		// Act & Assert – the documents of the discriminated schema are dispatched by its oneOf and anyOf
+		List.of(validDiscriminatedJson, invalidDiscriminatedJson).forEach(document -> assertSameOutcome(discriminatedSchema, document));
+		List.of(validJson, miscErrors, nonUniqueTags).forEach(document -> assertSameOutcome(schema, document));
+		List.of(schema, wrongType1, wrongType2, wrongType3).forEach(DiscriminatedKeywordTest::assertSameMetaSchemaOutcome);
+	}
+
+	@Test
+	void danglingReferenceInBranchIsRejectedWhenValidatorsAreInitialized() {
+
+		// Arrange
+		final var schema = REGISTRY.getSchema("""
+			{
+			  "$schema": "https://json-schema.org/draft/2020-12/schema",
+			  "oneOf": [
+			    { "required": ["kind"], "properties": { "kind": { "const": 1 } } },
+			    { "required": ["kind"], "properties": { "kind": { "const": 2 }, "value": { "$ref": "#/$defs/missing" } } }
+			  ]
+			}
+			""");
+
+		// Act & Assert – the branch is resolved before any instance reaches it
+		assertThatThrownBy(schema::initializeValidators).isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	void discriminatorForBranchesWithoutCommonProperty() {
+
+		// Act
+		final var discriminator = Discriminator.of(node("""
+			[
+			  { "required": ["a"], "properties": { "a": { "const": 1 } } },
+			  { "required": ["b"], "properties": { "b": { "const": 1 } } }
+			]
+			"""), node("{}"));
+
+		// Assert
+		assertThat(discriminator).isEmpty();
+	}
+
+	@Test
+	void discriminatorCandidates() {
+
+		// Act
+		final var discriminator = Discriminator.of(node("""
+			[
+			  { "required": ["kind"], "properties": { "kind": { "const": 1 } } },
+			  { "required": ["kind"], "properties": { "kind": { "enum": [1.0, 2] } } },
+			  { "type": "object" }
+			]
+			"""), node("{}")).orElseThrow();
+
+		// Assert
+		assertThat(discriminator.property()).isEqualTo("kind");
+		assertThat(discriminator.candidatesFor(node("{ \"kind\": 1 }"))).containsExactly(0, 1, 2);
+		assertThat(discriminator.candidatesFor(node("{ \"kind\": 2.0 }"))).containsExactly(1, 2);
+		assertThat(discriminator.candidatesFor(node("{ \"kind\": 3 }"))).containsExactly(2);
+		assertThat(discriminator.candidatesFor(node("{}"))).containsExactly(2);
+	}
+
+	@Test
+	void discriminatorForBranchesWithOwnId() {
+
+		// Arrange – the reference of the second branch is resolved against its own resource, not against the root
+		final var resourceRoot = node("""
+			{ "$defs": { "kind": { "required": ["kind"], "properties": { "kind": { "const": 2 } } } } }
+			""");
+
+		// Act
+		final var discriminator = Discriminator.of(node("""
+			[
+			  { "required": ["kind"], "properties": { "kind": { "const": 1 } } },
+			  { "$id": "https://example.com/other", "$ref": "#/$defs/kind", "$defs": { "kind": { "type": "object" } } },
+			  { "required": ["kind"], "properties": { "kind": { "const": 3 } } }
+			]
+			"""), resourceRoot).orElseThrow();
+
+		// Assert
+		assertThat(discriminator.undiscriminated()).containsExactly(1);
+		assertThat(discriminator.candidatesFor(node("{ \"kind\": 2 }"))).containsExactly(1);
+		assertThat(discriminator.candidatesFor(node("{ \"kind\": 3 }"))).containsExactly(1, 2);
+	}
+
+	/**
+	 * Asserts that the discriminated keywords report errors at exactly the instance locations of full evaluation of all
+	 * branches.
+	 */
+	private static void assertSameOutcome(String schema, String document) {
+		assertSameErrors(document, REGISTRY.getSchema(schema).validate(node(document)), STOCK_REGISTRY.getSchema(schema).validate(node(document)));
+	}
+
+	private static void assertSameMetaSchemaOutcome(String schema) {
+		assertSameErrors(schema, REGISTRY.getSchema(SchemaLocation.of(DialectId.DRAFT_2020_12)).validate(node(schema)),
+			STOCK_REGISTRY.getSchema(SchemaLocation.of(DialectId.DRAFT_2020_12)).validate(node(schema)));
+	}
+
+	private static void assertSameErrors(String document, List<Error> errors, List<Error> stockErrors) {
+		assertThat(errors.isEmpty()).as(document).isEqualTo(stockErrors.isEmpty());
+		assertThat(errors.stream().map(error -> String.valueOf(error.getInstanceLocation())).toList())
+			.as(document)
+			.containsExactlyInAnyOrderElementsOf(stockErrors.stream().map(error -> String.valueOf(error.getInstanceLocation())).toList());
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,84 @@
+package se.sundsvall.jsonschema.service.keyword;
+
+import static com.networknt.schema.SpecificationVersion.DRAFT_2020_12;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static se.sundsvall.jsonschema.service.mapper.InstanceMapper.toInstanceNode;
+
+import com.networknt.schema.Error;
+import com.networknt.schema.SchemaRegistry;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import tools.jackson.databind.JsonNode;
+
+class SchemaRegistriesTest {
+
+	private static final SchemaRegistry REGISTRY = SchemaRegistries.draft202012();
+	private static final SchemaRegistry STOCK_REGISTRY = SchemaRegistry.withDefaultDialect(DRAFT_2020_12);
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"1", "1.0", "10", "1e1", "2", "\"1\"", "null", "true", "[1]", "[1.0]", "[1, 2]", "{ \"a\": 1, \"b\": [null] }", "{ \"b\": [null], \"a\": 1.00 }", "{ \"a\": 1 }"
+	})
+	void enumAndConstFollowJsonEquality(String json) {
+
+		// Arrange
+		final var enumSchema = """
+			{ "enum": [1, 10, "text", null, [1], { "a": 1, "b": [null] }] }
+			""";
+		final var constSchema = """
+			{ "const": { "a": 1.0, "b": [null] } }
+			""";
+
+		// Act & Assert
+		assertSameErrors(enumSchema, json);
+		assertSameErrors(constSchema, json);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {
+		"[]", "[1, 2, 3]", "[1, 1.0]", "[\"1\", 1]", "[{ \"a\": 1, \"b\": 2 }, { \"b\": 2, \"a\": 1 }]", "[[1], [1, 1]]", "[null, false, 0]", "{}"
+	})
+	void uniqueItemsFollowsJsonEquality(String json) {
+
+		// Act & Assert
+		assertSameErrors("{ \"uniqueItems\": true }", json);
+		assertSameErrors("{ \"uniqueItems\": false }", json);
+	}
+
+	@Test
+	void enumWithLargeEnumeration() {
+
+		// Arrange
+		final var codes = IntStream.range(0, 5000).mapToObj(index -> "\"%04d\"".formatted(index)).collect(Collectors.joining(", ", "[", "]"));
+		final var schema = REGISTRY.getSchema("{ \"type\": \"array\", \"items\": { \"enum\": %s } }".formatted(codes));
+
+		// Act
+		final var errors = schema.validate(node("[\"0000\", \"2281\", \"4999\", \"5000\"]"));
+
+		// Assert
+		assertThat(errors).hasSize(1).extracting(error -> error.getInstanceLocation().toString()).containsExactly("/3");
+	}
+
+	/**
+	 * Asserts that the hash based keywords report the same errors as the stock keywords.
+	 */
+	private static void assertSameErrors(String schema, String json) {
+		final var errors = REGISTRY.getSchema(schema).validate(node(json));
+		final var expected = STOCK_REGISTRY.getSchema(schema).validate(node(json));
+
+		assertThat(describe(errors)).as(schema + " " + json).isEqualTo(describe(expected));
+	}
+
+	private static List<String> describe(List<Error> errors) {
+		return errors.stream().map(error -> String.valueOf(error.getInstanceLocation())).toList();
+	}
+
+	private static JsonNode node(String json) {
+		return toInstanceNode(json.getBytes(UTF_8));
+	}
+}
@@ -0,0 +1,98 @@
+package se.sundsvall.jsonschema.service.mapper;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import org.junit.jupiter.api.Test;
+import tools.jackson.core.JacksonException;
+
+class InstanceMapperTest {
+
+	@Test
+	void toInstanceNode() {
+
+		// Arrange
+		final var json = """
+			{
+			  "firstName": "Joe",
+			  "age": 42
+			}
+			""".getBytes(UTF_8);
+
+		// Act
+		final var result = InstanceMapper.toInstanceNode(json);
+
+		// Assert
+		assertThat(result).isNotNull();
+		assertThat(result.get("firstName").asString()).isEqualTo("Joe");
+		assertThat(result.get("age").asInt()).isEqualTo(42);
+	}
+
+	@Test
+	void toInstanceNodeShouldReturnNullWhenInputIsNull() {
+
+		// Act
+		final var result = InstanceMapper.toInstanceNode(null);
+
+		// Assert
+		assertThat(result).isNull();
+	}
+
+	@Test
+	void toInstanceNodeShouldReturnNullWhenInputIsEmpty() {
+
+		// Act
+		final var result = InstanceMapper.toInstanceNode(new byte[0]);
+
+		// Assert
+		assertThat(result).isNull();
+	}
+
+	@Test
+	void toInstanceNodeShouldThrowJacksonExceptionWhenJsonIsInvalid() {
+
+		// Arrange
+		final var invalidJson = """
+			{ "firstName":
+			""".getBytes(UTF_8);
+
+		// Act + Assert
+		assertThatThrownBy(() -> InstanceMapper.toInstanceNode(invalidJson))
+			.isInstanceOf(JacksonException.class);
+	}
+
+	@Test
+	void treeToInstanceNode() throws Exception {
+
+		// Arrange
+		final var json = """
+			{
+			  "name": "Joe",
+			  "age": 42,
+			  "balance": 12345678901234567890,
+			  "ratio": 0.5,
+			  "active": true,
+			  "nickname": null,
+			  "tags": ["a", {"b": [1, 2.5]}]
+			}
+			""";
+		final var tree = new ObjectMapper().readTree(json);
+
+		// Act
+		final var result = InstanceMapper.treeToInstanceNode(tree);
+
+		// Assert – the copy equals the same JSON parsed directly
+		assertThat(result).isEqualTo(InstanceMapper.toInstanceNode(json.getBytes(UTF_8)));
+	}
+
+	@Test
+	void treeToInstanceNodeShouldReturnNullWhenTreeIsNullOrMissing() {
+
+		// Act + Assert
+		assertThat(InstanceMapper.treeToInstanceNode(null)).isNull();
+		assertThat(InstanceMapper.treeToInstanceNode(MissingNode.getInstance())).isNull();
+	}
+}
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import org.junit.jupiter.api.Test;
 import se.sundsvall.jsonschema.TestFactory;
+import se.sundsvall.jsonschema.api.model.JsonSchemaComplexity;
 
 class JsonSchemaMapperTest {
 
@@ -27,6 +28,25 @@ class JsonSchemaMapperTest {
 		assertThat(result.getDescription()).isEqualTo(entity.getDescription());
 		assertThat(result.getCreated()).isEqualTo(entity.getCreated());
 		assertThat(result.getValue()).isEqualTo(new ObjectMapper().readTree(entity.getValue()));
+		assertThat(result.getComplexity()).isEqualTo(JsonSchemaComplexity.create()
+			.withEstimatedEvaluations(entity.getComplexityEstimatedEvaluations())
+			.withMaxBranching(entity.getComplexityMaxBranching())
+			.withMaxDepth(entity.getComplexityMaxDepth())
+			.withNodeCount(entity.getComplexityNodeCount())
+			.withRecursive(entity.getComplexityRecursive()));
+	}
+
+	@Test
+	void toJsonSchemaWhenComplexityIsMissing() {
+
+		// Arrange
+		final var entity = TestFactory.getJsonSchemaEntity().withComplexityNodeCount(null);
+
+		// Act
+		final var result = JsonSchemaMapper.toJsonSchema(entity);
+
+		// Assert
+		assertThat(result.getComplexity()).isNull();
 	}
 
 	@Test
@@ -1,9 +1,13 @@
 
     create table json_schema (
+        complexity_max_branching integer,
+        complexity_max_depth integer,
+        complexity_node_count integer,
+        complexity_recursive bit,
+        complexity_estimated_evaluations bigint,
+        compilation_time_micros bigint,
         created datetime(6),
-        last_used_for_validation datetime(6),
         municipality_id varchar(8),
-        validation_usage_count bigint not null,
         version varchar(32),
         name varchar(64),
         description longtext,
@@ -12,6 +16,13 @@
         primary key (id)
     ) engine=InnoDB;
 
+    create table json_schema_usage (
+        last_used_for_validation datetime(6),
+        validation_usage_count bigint not null,
+        json_schema_id varchar(255) not null,
+        primary key (json_schema_id)
+    ) engine=InnoDB;
+
     create table ui_schema (
         created datetime(6),
         description longtext,
@@ -1,9 +1,14 @@
 insert into json_schema 
-     (id, created, municipality_id, version, name, description, value, validation_usage_count) 
+     (id, created, municipality_id, version, name, description, value) 
 values 
-     ('2281_schema_1.0.0', NOW(6), '2281', '1.0.0', 'schema', 'Schema 1', '{ "type": "object", "properties": { "firstName": { "type": "string" }, "lastName": { "type": "string" } } }', 0),
-     ('2281_schema_with_uischema_1.0.0', NOW(6), '2281', '1.0.0', 'schema_with_uischema', 'Schema 2', '{ "type": "object", "properties": { "firstName": { "type": "string" }, "lastName": { "type": "string" } } }', 0);
+     ('2281_schema_1.0.0', NOW(6), '2281', '1.0.0', 'schema', 'Schema 1', '{ "type": "object", "properties": { "firstName": { "type": "string" }, "lastName": { "type": "string" } } }'),
+     ('2281_schema_with_uischema_1.0.0', NOW(6), '2281', '1.0.0', 'schema_with_uischema', 'Schema 2', '{ "type": "object", "properties": { "firstName": { "type": "string" }, "lastName": { "type": "string" } } }');
 
+
+insert into json_schema_usage
+     (json_schema_id, validation_usage_count, last_used_for_validation)
+values
+     ('2281_schema_1.0.0', 5, '2025-01-02 10:00:00');
      
 insert into ui_schema 
      (id, json_schema_id, value, description, created) 
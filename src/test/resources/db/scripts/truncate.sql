@@ -1,4 +1,5 @@
 SET FOREIGN_KEY_CHECKS = 0;
 TRUNCATE table json_schema;
+TRUNCATE table json_schema_usage;
 TRUNCATE table ui_schema;
 SET FOREIGN_KEY_CHECKS = 1;